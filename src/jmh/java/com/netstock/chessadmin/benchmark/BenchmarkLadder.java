@@ -0,0 +1,74 @@
+package com.netstock.chessadmin.benchmark;
+
+import com.netstock.chessadmin.ChessAdminApplication;
+import com.netstock.chessadmin.config.IdSequenceMigration;
+import com.netstock.chessadmin.service.RankingService;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.sql.Date;
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.stream.IntStream;
+
+/**
+ * The application without its web layer, on a private in-memory H2 database seeded with a ladder of the requested
+ * size. Players are inserted with plain JDBC batches so seeding 100k players stays out of the measured time; they
+ * take ids 1 to n, and {@code player_seq} is then moved past them the way an existing database is at startup.
+ */
+final class BenchmarkLadder implements AutoCloseable {
+    private static final int SEED_BATCH_SIZE = 1_000;
+
+    private final ConfigurableApplicationContext context;
+
+    private BenchmarkLadder(ConfigurableApplicationContext context) {
+        this.context = context;
+    }
+
+    static BenchmarkLadder start(int ladderSize) {
+        ConfigurableApplicationContext context = new SpringApplicationBuilder(ChessAdminApplication.class)
+                .web(WebApplicationType.NONE)
+                .properties(
+                        "spring.main.banner-mode=off",
+                        "spring.datasource.url=jdbc:h2:mem:benchmark-" + System.nanoTime() + ";DB_CLOSE_DELAY=-1",
+                        "spring.jpa.hibernate.ddl-auto=create-drop",
+                        "spring.h2.console.enabled=false",
+                        "logging.level.root=WARN")
+                .run();
+        BenchmarkLadder ladder = new BenchmarkLadder(context);
+        ladder.seedPlayers(ladderSize);
+        return ladder;
+    }
+
+    <T> T bean(Class<T> type) {
+        return context.getBean(type);
+    }
+
+    private void seedPlayers(int ladderSize) {
+        Timestamp createdAt = Timestamp.from(Instant.now());
+        Date dateOfBirth = Date.valueOf(LocalDate.of(1990, 1, 1));
+        List<Integer> ranks = IntStream.rangeClosed(1, ladderSize).boxed().toList();
+        bean(JdbcTemplate.class).batchUpdate("INSERT INTO player (id, first_name, last_name, email, date_of_birth, "
+                        + "number_of_games_played, rank_key, created_at, version) VALUES (?, ?, ?, ?, ?, 0, ?, ?, 0)",
+                ranks, SEED_BATCH_SIZE, (statement, rank) -> {
+                    statement.setLong(1, rank);
+                    statement.setString(2, "First" + rank);
+                    statement.setString(3, "Last" + rank);
+                    statement.setString(4, "player" + rank + "@example.com");
+                    statement.setDate(5, dateOfBirth);
+                    statement.setLong(6, rank * RankingService.RANK_KEY_GAP);
+                    statement.setTimestamp(7, createdAt);
+                });
+        bean(IdSequenceMigration.class).afterPropertiesSet();
+        bean(RankingService.class).invalidate();
+    }
+
+    @Override
+    public void close() {
+        context.close();
+    }
+}
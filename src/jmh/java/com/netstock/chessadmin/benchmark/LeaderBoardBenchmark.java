@@ -0,0 +1,59 @@
+package com.netstock.chessadmin.benchmark;
+
+import com.netstock.chessadmin.dto.LeaderBoardSnapshot;
+import com.netstock.chessadmin.entity.Player;
+import com.netstock.chessadmin.ranking.LadderChangedEvent;
+import com.netstock.chessadmin.service.LeaderBoardService;
+import com.netstock.chessadmin.service.impl.LeaderBoardServiceImpl;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.data.domain.PageRequest;
+
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Leaderboard reads: the full sorted load, a snapshot rebuild after a ladder change and a page served from an
+ * unchanged snapshot.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class LeaderBoardBenchmark {
+
+    @Param({"1000", "10000", "100000"})
+    int ladderSize;
+
+    private BenchmarkLadder ladder;
+    private LeaderBoardService leaderBoardService;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        ladder = BenchmarkLadder.start(ladderSize);
+        leaderBoardService = ladder.bean(LeaderBoardService.class);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        ladder.close();
+    }
+
+    @Benchmark
+    public List<Player> loadPlayersSortedByRank() {
+        return leaderBoardService.loadPlayersSortedByRank();
+    }
+
+    @Benchmark
+    public LeaderBoardSnapshot rebuildSnapshot() {
+        ladder.bean(LeaderBoardServiceImpl.class).onLadderChanged(new LadderChangedEvent(Set.of(1L)));
+        return leaderBoardService.snapshot();
+    }
+
+    @Benchmark
+    public List<LeaderBoardSnapshot.Entry> cachedFirstPage() {
+        return leaderBoardService.getEntries(PageRequest.of(0, 50));
+    }
+}
@@ -0,0 +1,106 @@
+package com.netstock.chessadmin.benchmark;
+
+import com.netstock.chessadmin.dto.MatchDTO;
+import com.netstock.chessadmin.dto.PlayerDTO;
+import com.netstock.chessadmin.entity.Match;
+import com.netstock.chessadmin.entity.Player;
+import com.netstock.chessadmin.enums.MatchOutcome;
+import com.netstock.chessadmin.mapper.MatchMapper;
+import com.netstock.chessadmin.mapper.PlayerMapper;
+import org.modelmapper.ModelMapper;
+import org.modelmapper.convention.MatchingStrategies;
+import org.openjdk.jmh.annotations.*;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of mapping 10k rows to DTOs with the reflective ModelMapper setup the services used to have, against the
+ * hand-written mappers that replaced it. A match is mapped the way each version of the service maps it.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class MappingBenchmark {
+    private static final int ROWS = 10_000;
+
+    private final List<Player> players = new ArrayList<>(ROWS);
+    private final List<Match> matches = new ArrayList<>(ROWS);
+    private ModelMapper modelMapper;
+    private final PlayerMapper playerMapper = new PlayerMapper();
+    private final MatchMapper matchMapper = new MatchMapper();
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        modelMapper = new ModelMapper();
+        modelMapper.getConfiguration()
+                .setMatchingStrategy(MatchingStrategies.STRICT)
+                .setCollectionsMergeEnabled(false)
+                .setSkipNullEnabled(true);
+        for (int i = 0; i < ROWS; i++) {
+            Player player = new Player();
+            player.setId((long) i);
+            player.setFirstName("First" + i);
+            player.setLastName("Last" + i);
+            player.setEmail("player" + i + "@example.com");
+            player.setDateOfBirth(LocalDate.of(1990, 1, 1));
+            player.setNumberOfGamesPlayed(i % 50);
+            player.setVersion(1L);
+            players.add(player);
+        }
+        for (int i = 0; i < ROWS; i++) {
+            Match match = new Match();
+            match.setId((long) i);
+            match.setOutcome(MatchOutcome.values()[i % MatchOutcome.values().length]);
+            match.setPlayerOne(players.get(i));
+            match.setPlayerTwo(players.get((i + 1) % ROWS));
+            match.setCreatedAt(Instant.now());
+            matches.add(match);
+        }
+    }
+
+    @Benchmark
+    public List<PlayerDTO> playersWithModelMapper() {
+        List<PlayerDTO> dtos = new ArrayList<>(ROWS);
+        for (Player player : players) {
+            dtos.add(modelMapper.map(player, PlayerDTO.class));
+        }
+        return dtos;
+    }
+
+    @Benchmark
+    public List<PlayerDTO> playersWithPlayerMapper() {
+        List<PlayerDTO> dtos = new ArrayList<>(ROWS);
+        for (Player player : players) {
+            dtos.add(playerMapper.toDto(player));
+        }
+        return dtos;
+    }
+
+    @Benchmark
+    public List<MatchDTO> matchesWithModelMapper() {
+        List<MatchDTO> dtos = new ArrayList<>(ROWS);
+        for (Match match : matches) {
+            MatchDTO dto = modelMapper.map(match, MatchDTO.class);
+            dto.setPlayerOne(modelMapper.map(match.getPlayerOne(), PlayerDTO.class));
+            dto.setPlayerTwo(modelMapper.map(match.getPlayerTwo(), PlayerDTO.class));
+            dtos.add(dto);
+        }
+        return dtos;
+    }
+
+    @Benchmark
+    public List<MatchDTO> matchesWithMatchMapper() {
+        List<MatchDTO> dtos = new ArrayList<>(ROWS);
+        for (Match match : matches) {
+            dtos.add(matchMapper.toDto(match, playerMapper.toDto(match.getPlayerOne()), playerMapper.toDto(match.getPlayerTwo())));
+        }
+        return dtos;
+    }
+}
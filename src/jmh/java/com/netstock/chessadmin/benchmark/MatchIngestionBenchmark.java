@@ -0,0 +1,85 @@
+package com.netstock.chessadmin.benchmark;
+
+import com.netstock.chessadmin.dto.MatchDTO;
+import com.netstock.chessadmin.dto.PlayerDTO;
+import com.netstock.chessadmin.enums.MatchOutcome;
+import com.netstock.chessadmin.service.MatchService;
+import com.netstock.chessadmin.service.RankingService;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Throughput of entering a tournament result sheet of {@value #SHEET_SIZE} random results, in matches per second:
+ * {@link MatchService#saveMatches} in one transaction against the same sheet entered one
+ * {@link MatchService#saveMatch} at a time. The target for the sheet is at least 1,000 matches/s at every ladder
+ * size, so a whole sheet applies in under half a second.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class MatchIngestionBenchmark {
+    static final int SHEET_SIZE = 500;
+
+    @Param({"1000", "10000", "100000"})
+    int ladderSize;
+
+    private BenchmarkLadder ladder;
+    private MatchService matchService;
+    private RankingService rankingService;
+    private final SplittableRandom random = new SplittableRandom(42);
+    private List<MatchDTO> sheet;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        ladder = BenchmarkLadder.start(ladderSize);
+        matchService = ladder.bean(MatchService.class);
+        rankingService = ladder.bean(RankingService.class);
+    }
+
+    @Setup(Level.Invocation)
+    public void drawSheet() {
+        sheet = new ArrayList<>(SHEET_SIZE);
+        MatchOutcome[] outcomes = MatchOutcome.values();
+        for (int i = 0; i < SHEET_SIZE; i++) {
+            int playerOneRank = 1 + random.nextInt(ladderSize);
+            int playerTwoRank;
+            do {
+                playerTwoRank = 1 + random.nextInt(ladderSize);
+            } while (playerTwoRank == playerOneRank);
+            sheet.add(MatchDTO.builder()
+                    .playerOne(PlayerDTO.builder().id(rankingService.playerAt(playerOneRank)).build())
+                    .playerTwo(PlayerDTO.builder().id(rankingService.playerAt(playerTwoRank)).build())
+                    .outcome(outcomes[random.nextInt(outcomes.length)])
+                    .build());
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        ladder.close();
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(SHEET_SIZE)
+    public List<MatchDTO> saveSheet() {
+        return matchService.saveMatches(sheet);
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(SHEET_SIZE)
+    public int saveOneByOne() {
+        int saved = 0;
+        for (MatchDTO matchDTO : sheet) {
+            matchService.saveMatch(matchDTO);
+            saved++;
+        }
+        return saved;
+    }
+}
@@ -0,0 +1,86 @@
+package com.netstock.chessadmin.benchmark;
+
+import com.netstock.chessadmin.dto.MatchDTO;
+import com.netstock.chessadmin.dto.PlayerDTO;
+import com.netstock.chessadmin.enums.MatchOutcome;
+import com.netstock.chessadmin.service.MatchService;
+import com.netstock.chessadmin.service.PlayerService;
+import com.netstock.chessadmin.service.RankingService;
+import org.openjdk.jmh.annotations.*;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * {@link PlayerService#delete} of a player who has played a match, on a ladder with one match per player on record:
+ * clearing the match references, taking the player off the index and deleting the row.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class PlayerDeleteBenchmark {
+    private static final int MATCH_BATCH_SIZE = 1_000;
+
+    @Param({"1000", "10000", "100000"})
+    int ladderSize;
+
+    private BenchmarkLadder ladder;
+    private PlayerService playerService;
+    private MatchService matchService;
+    private RankingService rankingService;
+    private final SplittableRandom random = new SplittableRandom(42);
+    private Long victimId;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        ladder = BenchmarkLadder.start(ladderSize);
+        playerService = ladder.bean(PlayerService.class);
+        matchService = ladder.bean(MatchService.class);
+        rankingService = ladder.bean(RankingService.class);
+        List<MatchDTO> sheet = new ArrayList<>(MATCH_BATCH_SIZE);
+        for (int i = 0; i < ladderSize; i++) {
+            sheet.add(randomMatch(rankingService.playerAt(1 + random.nextInt(ladderSize))));
+            if (sheet.size() == MATCH_BATCH_SIZE) {
+                matchService.saveMatches(sheet);
+                sheet = new ArrayList<>(MATCH_BATCH_SIZE);
+            }
+        }
+        if (!sheet.isEmpty()) {
+            matchService.saveMatches(sheet);
+        }
+    }
+
+    @Setup(Level.Invocation)
+    public void addVictim() {
+        playerService.save(PlayerDTO.builder().firstName("Victim").lastName("Player")
+                .email("victim@example.com").dateOfBirth(LocalDate.of(1990, 1, 1)).build());
+        victimId = rankingService.playerAt(rankingService.ladderSize());
+        matchService.saveMatch(randomMatch(victimId));
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        ladder.close();
+    }
+
+    @Benchmark
+    public void deletePlayer() {
+        playerService.delete(victimId);
+    }
+
+    private MatchDTO randomMatch(Long playerId) {
+        Long opponentId;
+        do {
+            opponentId = rankingService.playerAt(1 + random.nextInt(rankingService.ladderSize()));
+        } while (opponentId.equals(playerId));
+        return MatchDTO.builder().playerOne(PlayerDTO.builder().id(playerId).build())
+                .playerTwo(PlayerDTO.builder().id(opponentId).build())
+                .outcome(MatchOutcome.values()[random.nextInt(MatchOutcome.values().length)]).build();
+    }
+}
@@ -0,0 +1,70 @@
+package com.netstock.chessadmin.benchmark;
+
+import com.netstock.chessadmin.dto.MatchDTO;
+import com.netstock.chessadmin.dto.PlayerDTO;
+import com.netstock.chessadmin.enums.MatchOutcome;
+import com.netstock.chessadmin.service.MatchService;
+import com.netstock.chessadmin.service.RankingService;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * One {@link MatchService#saveMatch} per invocation between two random players: validation, the match insert, the
+ * ladder move with its rank key writes and the games played update, all in one transaction.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class RankAdjustmentBenchmark {
+
+    public enum Scenario {
+        /** the higher ranked player wins, nothing moves */
+        WIN,
+        /** the lower ranked player moves up one place */
+        DRAW,
+        /** the lower ranked player wins and jumps half the distance */
+        UPSET
+    }
+
+    @Param({"1000", "10000", "100000"})
+    int ladderSize;
+
+    @Param({"WIN", "DRAW", "UPSET"})
+    Scenario scenario;
+
+    private BenchmarkLadder ladder;
+    private MatchService matchService;
+    private RankingService rankingService;
+    private final SplittableRandom random = new SplittableRandom(42);
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        ladder = BenchmarkLadder.start(ladderSize);
+        matchService = ladder.bean(MatchService.class);
+        rankingService = ladder.bean(RankingService.class);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        ladder.close();
+    }
+
+    @Benchmark
+    public MatchDTO recordMatch() {
+        int higherRank = 1 + random.nextInt(ladderSize - 1);
+        int lowerRank = higherRank + 1 + random.nextInt(ladderSize - higherRank);
+        PlayerDTO higher = PlayerDTO.builder().id(rankingService.playerAt(higherRank)).build();
+        PlayerDTO lower = PlayerDTO.builder().id(rankingService.playerAt(lowerRank)).build();
+        MatchOutcome outcome = switch (scenario) {
+            case WIN -> MatchOutcome.PLAYER_ONE_WON;
+            case DRAW -> MatchOutcome.DRAW;
+            case UPSET -> MatchOutcome.PLAYER_TWO_WON;
+        };
+        return matchService.saveMatch(MatchDTO.builder().playerOne(higher).playerTwo(lower).outcome(outcome).build());
+    }
+}
@@ -1,10 +1,13 @@
 package com.netstock.chessadmin;
 
+import com.vaadin.flow.component.page.AppShellConfigurator;
+import com.vaadin.flow.component.page.Push;
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
 
+@Push
 @SpringBootApplication
-public class ChessAdminApplication {
+public class ChessAdminApplication implements AppShellConfigurator {
 	public static void main(String[] args) {
 		SpringApplication.run(ChessAdminApplication.class, args);
 	}
@@ -0,0 +1,63 @@
+package com.netstock.chessadmin.api;
+
+import com.netstock.chessadmin.enums.ExportFormat;
+import com.netstock.chessadmin.service.ExportService;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.time.LocalDate;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Downloads of the ladder and the match history, e.g. {@code GET /export/matches?format=NDJSON&gzip=true}. The
+ * body is written on an async request thread while the rows are read, so the response starts at once and memory
+ * stays flat however many rows there are. With {@code gzip=true} the file itself is gzipped.
+ */
+@RestController
+@RequestMapping("/export")
+public class ExportController {
+    private static final int GZIP_BUFFER_SIZE = 64 * 1024;
+
+    private final ExportService exportService;
+
+    public ExportController(ExportService exportService) {
+        this.exportService = exportService;
+    }
+
+    @GetMapping("/players")
+    public ResponseEntity<StreamingResponseBody> players(@RequestParam(defaultValue = "CSV") ExportFormat format,
+                                                         @RequestParam(defaultValue = "false") boolean gzip) {
+        return download("ladder", format, gzip, out -> exportService.exportPlayers(format, out));
+    }
+
+    @GetMapping("/matches")
+    public ResponseEntity<StreamingResponseBody> matches(@RequestParam(defaultValue = "CSV") ExportFormat format,
+                                                         @RequestParam(defaultValue = "false") boolean gzip) {
+        return download("matches", format, gzip, out -> exportService.exportMatches(format, out));
+    }
+
+    private static ResponseEntity<StreamingResponseBody> download(String name, ExportFormat format, boolean gzip,
+                                                                  StreamingResponseBody body) {
+        String fileName = name + "-" + LocalDate.now() + "." + format.getExtension() + (gzip ? ".gz" : "");
+        HttpHeaders headers = new HttpHeaders();
+        headers.setContentDisposition(ContentDisposition.attachment().filename(fileName).build());
+        headers.setContentType(MediaType.parseMediaType(gzip ? "application/gzip" : format.getContentType()));
+        StreamingResponseBody stream = gzip ? out -> gzipped(out, body) : body;
+        return ResponseEntity.ok().headers(headers).body(stream);
+    }
+
+    private static void gzipped(OutputStream out, StreamingResponseBody body) throws IOException {
+        GZIPOutputStream gzip = new GZIPOutputStream(out, GZIP_BUFFER_SIZE, true);
+        body.writeTo(gzip);
+        gzip.finish();
+    }
+}
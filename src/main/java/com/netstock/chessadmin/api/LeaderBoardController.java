@@ -0,0 +1,159 @@
+package com.netstock.chessadmin.api;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.netstock.chessadmin.dto.LeaderBoardRange;
+import com.netstock.chessadmin.dto.LeaderBoardSnapshot;
+import com.netstock.chessadmin.service.LeaderBoardService;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/**
+ * Read-only JSON view of the leaderboard for other club systems:
+ * <ul>
+ *     <li>{@code GET /api/leaderboard?page=0&size=50} a page in rank order</li>
+ *     <li>{@code GET /api/leaderboard/ranks?from=1&to=10} the players on those ranks</li>
+ *     <li>{@code GET /api/leaderboard/players/{id}} one player's entry and rank</li>
+ * </ul>
+ * Every response carries the ladder version as a strong ETag of the form {@code "<bootId>-<version>"}. The version
+ * is counted in memory and starts again at 1 with every run, so it is salted with an id drawn when this instance
+ * starts: a tag from another instance or an earlier run never matches. A poll with a matching {@code If-None-Match}
+ * gets a 304 from the in-memory version alone; otherwise the body comes from the shared snapshot and is serialized once per
+ * version and request, so repeated polls between ladder changes only copy bytes.
+ */
+@RestController
+@RequestMapping("/api/leaderboard")
+public class LeaderBoardController {
+    static final int MAX_RANGE = 500;
+    /**
+     * Bodies kept per version; requests beyond this many distinct ones are serialized without being kept.
+     */
+    static final int MAX_CACHED_BODIES = 1_024;
+
+    private final LeaderBoardService leaderBoardService;
+    private final ObjectMapper objectMapper;
+    private final String bootId = Long.toString(ThreadLocalRandom.current().nextLong() & Long.MAX_VALUE, 36);
+    private volatile Bodies bodies = new Bodies(-1);
+
+    public LeaderBoardController(LeaderBoardService leaderBoardService, ObjectMapper objectMapper) {
+        this.leaderBoardService = leaderBoardService;
+        this.objectMapper = objectMapper;
+    }
+
+    @GetMapping
+    public ResponseEntity<byte[]> page(@RequestParam(defaultValue = "0") int page,
+                                       @RequestParam(defaultValue = "50") int size, WebRequest request) {
+        if (page < 0 || size < 1 || size > MAX_RANGE) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST,
+                    "page must be 0 or more and size between 1 and " + MAX_RANGE);
+        }
+        int from = (int) Math.min((long) page * size + 1, Integer.MAX_VALUE - MAX_RANGE);
+        return respond(request, "page:" + page + ":" + size, snapshot -> range(snapshot, from, from + size - 1));
+    }
+
+    @GetMapping("/ranks")
+    public ResponseEntity<byte[]> ranks(@RequestParam int from, @RequestParam int to, WebRequest request) {
+        if (from < 1 || to < from || to - from >= MAX_RANGE) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST,
+                    "from must be 1 or more, and to at least from and at most " + MAX_RANGE + " ranks further");
+        }
+        return respond(request, "ranks:" + from + ":" + to, snapshot -> range(snapshot, from, to));
+    }
+
+    @GetMapping("/players/{playerId}")
+    public ResponseEntity<byte[]> player(@PathVariable long playerId, WebRequest request) {
+        return respond(request, "player:" + playerId, snapshot -> entryOf(snapshot, playerId));
+    }
+
+    private ResponseEntity<byte[]> respond(WebRequest request, String key,
+                                           Function<LeaderBoardSnapshot, Object> body) {
+        if (request.checkNotModified(etag(leaderBoardService.version()))) {
+            return null;
+        }
+        LeaderBoardSnapshot snapshot = leaderBoardService.snapshot();
+        byte[] json = bodiesFor(snapshot.version()).get(key, () -> serialize(body.apply(snapshot)));
+        return ResponseEntity.ok()
+                .eTag(etag(snapshot.version()))
+                .cacheControl(CacheControl.noCache())
+                .contentType(MediaType.APPLICATION_JSON)
+                .body(json);
+    }
+
+    private static LeaderBoardRange range(LeaderBoardSnapshot snapshot, int from, int to) {
+        List<LeaderBoardSnapshot.Entry> entries = snapshot.entries();
+        int fromIndex = Math.min(from - 1, entries.size());
+        int toIndex = Math.min(to, entries.size());
+        return new LeaderBoardRange(snapshot.version(), entries.size(), entries.subList(fromIndex, toIndex));
+    }
+
+    private LeaderBoardSnapshot.Entry entryOf(LeaderBoardSnapshot snapshot, long playerId) {
+        List<LeaderBoardSnapshot.Entry> entries = snapshot.entries();
+        // the ranking index is usually in step with the snapshot; fall back to a scan when a change got in between
+        int rank = leaderBoardService.rankOf(playerId);
+        if (rank >= 1 && rank <= entries.size() && entries.get(rank - 1).playerId() == playerId) {
+            return entries.get(rank - 1);
+        }
+        return entries.stream()
+                .filter(entry -> entry.playerId() == playerId)
+                .findFirst()
+                .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND,
+                        "Player " + playerId + " is not on the ladder"));
+    }
+
+    private byte[] serialize(Object body) {
+        try {
+            return objectMapper.writeValueAsBytes(body);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Could not serialize the leaderboard", e);
+        }
+    }
+
+    private Bodies bodiesFor(long version) {
+        Bodies current = bodies;
+        if (current.version() != version) {
+            current = new Bodies(version);
+            // an older snapshot read late must not replace the bodies of a newer one
+            if (bodies.version() < version) {
+                bodies = current;
+            }
+        }
+        return current;
+    }
+
+    private String etag(long version) {
+        return "\"" + bootId + "-" + version + "\"";
+    }
+
+    private record Bodies(long version, Map<String, byte[]> byKey) {
+        Bodies(long version) {
+            this(version, new ConcurrentHashMap<>());
+        }
+
+        byte[] get(String key, Supplier<byte[]> serialize) {
+            byte[] cached = byKey.get(key);
+            if (cached != null) {
+                return cached;
+            }
+            if (byKey.size() >= MAX_CACHED_BODIES) {
+                return serialize.get();
+            }
+            return byKey.computeIfAbsent(key, ignored -> serialize.get());
+        }
+    }
+}
@@ -0,0 +1,45 @@
+package com.netstock.chessadmin.config;
+
+import com.netstock.chessadmin.repository.HeadToHeadRepository;
+import com.netstock.chessadmin.repository.MatchRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.InitializingBean;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Fills the head-to-head table of a database that has matches but no head-to-head rows yet, in one
+ * {@code INSERT ... SELECT} over the match table. Does nothing once the table has any row; from then on the
+ * rows are kept up to date with every saved and deleted match.
+ * <p>
+ * Runs while the context starts, before the web server takes requests. The player and match services depend on this
+ * bean, so no match is saved or deleted while the table is checked and filled.
+ */
+@Slf4j
+@Component
+public class HeadToHeadBaseline implements InitializingBean {
+    private final HeadToHeadRepository headToHeadRepository;
+    private final MatchRepository matchRepository;
+    private final TransactionTemplate transactionTemplate;
+
+    public HeadToHeadBaseline(HeadToHeadRepository headToHeadRepository, MatchRepository matchRepository,
+                              PlatformTransactionManager transactionManager) {
+        this.headToHeadRepository = headToHeadRepository;
+        this.matchRepository = matchRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    @Override
+    public void afterPropertiesSet() {
+        transactionTemplate.executeWithoutResult(status -> fillFromMatches());
+    }
+
+    private void fillFromMatches() {
+        if (headToHeadRepository.count() > 0 || matchRepository.count() == 0) {
+            return;
+        }
+        int pairs = headToHeadRepository.insertFromMatches();
+        log.info("Built the head-to-head records of {} pairs from the match history", pairs);
+    }
+}
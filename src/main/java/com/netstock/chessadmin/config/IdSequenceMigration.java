@@ -0,0 +1,55 @@
+package com.netstock.chessadmin.config;
+
+import com.netstock.chessadmin.entity.Match;
+import com.netstock.chessadmin.entity.Player;
+import jakarta.persistence.EntityManagerFactory;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.InitializingBean;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+/**
+ * Moves databases whose player and match ids came from identity columns onto {@code player_seq} and
+ * {@code match_seq}. The schema update creates each sequence at 1, below the ids already taken, so it is restarted
+ * past the highest id. With the pooled optimizer a sequence value {@code v} hands out the ids up to {@code v} from
+ * {@code v - allocationSize + 1}, which is what the restart value has to clear. Idempotent: once a sequence is ahead
+ * it is left alone.
+ * <p>
+ * Runs while the context starts, after the schema update has created the sequences and before the web server takes
+ * requests; the player and match services depend on it, so no insert can draw an id that is already taken.
+ */
+@Slf4j
+@Component
+public class IdSequenceMigration implements InitializingBean {
+    private final JdbcTemplate jdbcTemplate;
+
+    public IdSequenceMigration(JdbcTemplate jdbcTemplate, EntityManagerFactory entityManagerFactory) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    @Override
+    public void afterPropertiesSet() {
+        restartPastHighestId("player", "player_seq", Player.ID_ALLOCATION_SIZE);
+        restartPastHighestId("match", "match_seq", Match.ID_ALLOCATION_SIZE);
+    }
+
+    private void restartPastHighestId(String table, String sequence, int allocationSize) {
+        Long highestId = jdbcTemplate.queryForObject("SELECT COALESCE(MAX(id), 0) FROM " + table, Long.class);
+        Long next = nextSequenceValue(sequence);
+        if (null == highestId || null == next || next - allocationSize >= highestId) {
+            return;
+        }
+        long restart = highestId + allocationSize + 1;
+        jdbcTemplate.execute("ALTER SEQUENCE " + sequence + " RESTART WITH " + restart);
+        log.info("Restarted {} at {}, past the highest existing {} id {}", sequence, restart, table, highestId);
+    }
+
+    /**
+     * The value the sequence hands out next, read without consuming it; null if the sequence does not exist.
+     */
+    private Long nextSequenceValue(String sequence) {
+        return jdbcTemplate.query("SELECT BASE_VALUE FROM INFORMATION_SCHEMA.SEQUENCES "
+                        + "WHERE UPPER(SEQUENCE_NAME) = ?",
+                rs -> rs.next() ? rs.getLong(1) : null, sequence.toUpperCase());
+    }
+}
@@ -0,0 +1,72 @@
+package com.netstock.chessadmin.config;
+
+import com.netstock.chessadmin.service.RankingService;
+import jakarta.persistence.EntityManagerFactory;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.InitializingBean;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+/**
+ * Moves databases created before rank keys existed onto the sparse {@code rank_key} column.
+ * The legacy dense {@code rank} column is given a default so inserts that no longer write it keep working,
+ * keys are backfilled as {@code rank * RANK_KEY_GAP} in small auto-committed batches so the table is never
+ * locked for long, and {@code idx_rank} is rebuilt on the new column. It also creates the single
+ * {@code ladder_state} row whose version every ladder write advances. Every step is idempotent.
+ * <p>
+ * Runs while the context starts, once the schema update has added {@code rank_key} (hence the entity manager
+ * factory dependency) and before the web server takes requests. The ranking service depends on this bean, so the
+ * ladder is never loaded or written in key order while legacy rows still have no key.
+ */
+@Slf4j
+@Component
+public class RankKeyMigration implements InitializingBean {
+    private static final int BATCH_SIZE = 1_000;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public RankKeyMigration(JdbcTemplate jdbcTemplate, EntityManagerFactory entityManagerFactory) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    @Override
+    public void afterPropertiesSet() {
+        jdbcTemplate.execute("CREATE TABLE IF NOT EXISTS ladder_state (id INT PRIMARY KEY, version BIGINT NOT NULL)");
+        jdbcTemplate.update("INSERT INTO ladder_state (id, version) SELECT 1, 0 "
+                + "WHERE NOT EXISTS (SELECT 1 FROM ladder_state WHERE id = 1)");
+        if (hasLegacyRankColumn()) {
+            backfillRankKeys();
+        }
+    }
+
+    private void backfillRankKeys() {
+        jdbcTemplate.execute("ALTER TABLE player ALTER COLUMN rank SET DEFAULT 0");
+        int migrated = 0;
+        int updated;
+        do {
+            updated = jdbcTemplate.update("UPDATE player SET rank_key = rank * ? WHERE id IN "
+                    + "(SELECT id FROM player WHERE rank_key IS NULL ORDER BY id LIMIT ?)",
+                    RankingService.RANK_KEY_GAP, BATCH_SIZE);
+            migrated += updated;
+        } while (updated > 0);
+        if (indexCoversLegacyColumn()) {
+            jdbcTemplate.execute("DROP INDEX IF EXISTS idx_rank");
+            jdbcTemplate.execute("CREATE INDEX IF NOT EXISTS idx_rank ON player(rank_key)");
+        }
+        if (migrated > 0) {
+            log.info("Migrated {} players from dense ranks to rank keys", migrated);
+        }
+    }
+
+    private boolean hasLegacyRankColumn() {
+        Integer columns = jdbcTemplate.queryForObject("SELECT COUNT(*) FROM INFORMATION_SCHEMA.COLUMNS "
+                + "WHERE UPPER(TABLE_NAME) = 'PLAYER' AND UPPER(COLUMN_NAME) = 'RANK'", Integer.class);
+        return null != columns && columns > 0;
+    }
+
+    private boolean indexCoversLegacyColumn() {
+        Integer columns = jdbcTemplate.queryForObject("SELECT COUNT(*) FROM INFORMATION_SCHEMA.INDEX_COLUMNS "
+                + "WHERE UPPER(INDEX_NAME) = 'IDX_RANK' AND UPPER(COLUMN_NAME) = 'RANK'", Integer.class);
+        return null != columns && columns > 0;
+    }
+}
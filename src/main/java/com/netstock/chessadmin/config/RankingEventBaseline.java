@@ -0,0 +1,63 @@
+package com.netstock.chessadmin.config;
+
+import com.netstock.chessadmin.entity.RankingEvent;
+import com.netstock.chessadmin.ranking.RankKey;
+import com.netstock.chessadmin.repository.PlayerRepository;
+import com.netstock.chessadmin.repository.RankingEventRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.InitializingBean;
+import org.springframework.context.annotation.DependsOn;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Starts the ranking log of a database that has players but no log yet: one {@code PLAYER_ADDED} event per player in
+ * current ladder order, so replaying the log starts from the ladder as it was when logging began. Does nothing once
+ * the log has any event.
+ * <p>
+ * Runs while the context starts, after {@link RankKeyMigration} and before the web server takes requests. The ranking
+ * service, which every ladder write goes through, depends on this bean, so no change can be logged before the
+ * baseline is and the empty-log check cannot race a live write.
+ */
+@Slf4j
+@Component
+@DependsOn("rankKeyMigration")
+public class RankingEventBaseline implements InitializingBean {
+    private final RankingEventRepository rankingEventRepository;
+    private final PlayerRepository playerRepository;
+    private final TransactionTemplate transactionTemplate;
+
+    public RankingEventBaseline(RankingEventRepository rankingEventRepository, PlayerRepository playerRepository,
+                                PlatformTransactionManager transactionManager) {
+        this.rankingEventRepository = rankingEventRepository;
+        this.playerRepository = playerRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    @Override
+    public void afterPropertiesSet() {
+        transactionTemplate.executeWithoutResult(status -> appendBaseline());
+    }
+
+    private void appendBaseline() {
+        if (rankingEventRepository.count() > 0) {
+            return;
+        }
+        List<RankKey> ladder = playerRepository.findAllRankKeys();
+        if (ladder.isEmpty()) {
+            return;
+        }
+        Instant now = Instant.now();
+        List<RankingEvent> baseline = new ArrayList<>(ladder.size());
+        for (int i = 0; i < ladder.size(); i++) {
+            baseline.add(RankingEvent.playerAdded(ladder.get(i).playerId(), i + 1, now));
+        }
+        rankingEventRepository.appendAll(baseline);
+        log.info("Started the ranking log with the current ladder of {} players", ladder.size());
+    }
+}
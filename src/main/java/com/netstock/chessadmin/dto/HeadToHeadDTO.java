@@ -0,0 +1,20 @@
+package com.netstock.chessadmin.dto;
+
+import java.time.Instant;
+
+/**
+ * The record between two players, seen from the order they were asked for in.
+ *
+ * @param lastPlayedAt null when they have not played each other
+ */
+public record HeadToHeadDTO(Long playerOneId, Long playerTwoId, long playerOneWins, long playerTwoWins, long draws,
+                            Instant lastPlayedAt) {
+
+    public static HeadToHeadDTO none(Long playerOneId, Long playerTwoId) {
+        return new HeadToHeadDTO(playerOneId, playerTwoId, 0, 0, 0, null);
+    }
+
+    public long games() {
+        return playerOneWins + playerTwoWins + draws;
+    }
+}
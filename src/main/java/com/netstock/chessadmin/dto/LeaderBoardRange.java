@@ -0,0 +1,12 @@
+package com.netstock.chessadmin.dto;
+
+import java.util.List;
+
+/**
+ * A run of consecutive leaderboard entries, as served by the REST API.
+ *
+ * @param version the snapshot the entries were read from
+ * @param total   players on the whole ladder
+ */
+public record LeaderBoardRange(long version, int total, List<LeaderBoardSnapshot.Entry> entries) {
+}
@@ -0,0 +1,37 @@
+package com.netstock.chessadmin.dto;
+
+import java.util.List;
+
+/**
+ * An immutable copy of the whole leaderboard, shared by every session. {@code version} increases with every
+ * committed ladder change, so two snapshots with the same version hold the same rows.
+ */
+public record LeaderBoardSnapshot(long version, List<Entry> entries) {
+
+    public LeaderBoardSnapshot {
+        entries = List.copyOf(entries);
+    }
+
+    /**
+     * @param streak consecutive wins when positive, consecutive losses when negative
+     */
+    public record Entry(int rank, Long playerId, String firstName, String lastName, String email,
+                        long numberOfGamesPlayed, long wins, long losses, long draws, int streak) {
+    }
+
+    /**
+     * What one committed ladder change did to the leaderboard: the new entries at the positions whose row changed,
+     * or {@code full} when a listener has to read the whole leaderboard again, because the change was too large or
+     * the ladder grew or shrank.
+     */
+    public record Diff(long version, List<Entry> changed, boolean full) {
+
+        public Diff {
+            changed = List.copyOf(changed);
+        }
+
+        public static Diff full(long version) {
+            return new Diff(version, List.of(), true);
+        }
+    }
+}
@@ -0,0 +1,21 @@
+package com.netstock.chessadmin.dto;
+
+import java.time.Instant;
+
+/**
+ * A position in a newest-first list of matches: the next page holds the matches older than it, with ties on
+ * {@code createdAt} broken by id.
+ */
+public record MatchCursor(Instant createdAt, Long id) {
+    /**
+     * Ahead of every match, for the first page.
+     */
+    public static final MatchCursor NEWEST = new MatchCursor(Instant.parse("9999-12-31T23:59:59Z"), Long.MAX_VALUE);
+
+    /**
+     * The cursor for the page after the one that ends with the given match.
+     */
+    public static MatchCursor after(MatchDTO match) {
+        return new MatchCursor(match.getCreatedAt(), match.getId());
+    }
+}
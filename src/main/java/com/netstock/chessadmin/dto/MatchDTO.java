@@ -7,6 +7,8 @@ import lombok.Data;
 import lombok.NoArgsConstructor;
 import lombok.experimental.SuperBuilder;
 
+import java.time.Instant;
+
 @Data
 @SuperBuilder
 @NoArgsConstructor
@@ -20,4 +22,10 @@ public class MatchDTO {
     private PlayerDTO playerTwo;
     @NotNull
     private MatchOutcome outcome;
+
+    /**
+     * When the match was played. Set by the server when the match is saved, unless it is already set, as for games
+     * imported from PGN, which keep the date they were played.
+     */
+    private Instant createdAt;
 }
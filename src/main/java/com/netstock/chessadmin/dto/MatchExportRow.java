@@ -0,0 +1,14 @@
+package com.netstock.chessadmin.dto;
+
+import com.netstock.chessadmin.enums.MatchOutcome;
+
+import java.time.Instant;
+
+/**
+ * One line of the match history export, with the players' names joined in. Read straight from a query, so it is
+ * never managed by the persistence context. The player fields are null once the player has been deleted.
+ */
+public record MatchExportRow(Long id, Instant createdAt, MatchOutcome outcome,
+                             Long playerOneId, String playerOneFirstName, String playerOneLastName,
+                             Long playerTwoId, String playerTwoFirstName, String playerTwoLastName) {
+}
@@ -0,0 +1,18 @@
+package com.netstock.chessadmin.dto;
+
+import java.time.Duration;
+import java.util.List;
+
+/**
+ * What a match import did: the results applied to the ladder and the games that were left out.
+ *
+ * @param rejected the first rejected games, in file order; {@code rejectedCount} counts all of them
+ */
+public record MatchImportResult(long imported, long rejectedCount, List<RejectedGame> rejected, Duration took) {
+
+    /**
+     * @param line 1-based line of the game's first tag pair
+     */
+    public record RejectedGame(long line, String reason) {
+    }
+}
@@ -19,4 +19,11 @@ public class PlayerDTO {
     private LocalDate dateOfBirth;
     private Integer rank;
     private long numberOfGamesPlayed;
+    private long wins;
+    private long losses;
+    private long draws;
+    private long upsetsScored;
+    private long upsetsSuffered;
+    private int streak;
+    private Long version;
 }
@@ -0,0 +1,16 @@
+package com.netstock.chessadmin.dto;
+
+import java.time.LocalDate;
+
+/**
+ * One line of the ladder export. Read straight from a query, so it is never managed by the persistence context.
+ */
+public record PlayerExportRow(int rank, Long id, String firstName, String lastName, String email,
+                              LocalDate dateOfBirth, long gamesPlayed, long wins, long draws, long losses,
+                              int streak) {
+
+    public PlayerExportRow withRank(int rank) {
+        return new PlayerExportRow(rank, id, firstName, lastName, email, dateOfBirth, gamesPlayed, wins, draws,
+                losses, streak);
+    }
+}
@@ -0,0 +1,16 @@
+package com.netstock.chessadmin.dto;
+
+import java.time.Duration;
+import java.util.List;
+
+/**
+ * What a bulk player import did: the players added to the bottom of the ladder and the lines that were left out.
+ */
+public record PlayerImportResult(int imported, List<RejectedRow> rejected, Duration took) {
+
+    /**
+     * @param line 1-based line number in the file
+     */
+    public record RejectedRow(long line, String reason) {
+    }
+}
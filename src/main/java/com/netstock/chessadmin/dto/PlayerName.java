@@ -0,0 +1,7 @@
+package com.netstock.chessadmin.dto;
+
+/**
+ * The fields a player can be recognised by in an imported file.
+ */
+public record PlayerName(Long id, String firstName, String lastName, String email) {
+}
@@ -0,0 +1,48 @@
+package com.netstock.chessadmin.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.hibernate.annotations.ColumnDefault;
+
+import java.io.Serializable;
+import java.time.Instant;
+
+/**
+ * The running record between two players, keyed by the pair with the lower id first so both orders of the same
+ * pairing share one row. Kept up to date with every saved and deleted match.
+ */
+@Entity
+@Data
+@IdClass(HeadToHead.Key.class)
+@Table(name = "head_to_head", indexes = {@Index(name = "idx_head_to_head_high", columnList = "highPlayerId")})
+public class HeadToHead {
+    @Id
+    private Long lowPlayerId;
+    @Id
+    private Long highPlayerId;
+
+    @ColumnDefault("0")
+    @Column(nullable = false)
+    private long lowPlayerWins;
+    @ColumnDefault("0")
+    @Column(nullable = false)
+    private long highPlayerWins;
+    @ColumnDefault("0")
+    @Column(nullable = false)
+    private long draws;
+    private Instant lastPlayedAt;
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Key implements Serializable {
+        private Long lowPlayerId;
+        private Long highPlayerId;
+
+        public static Key of(long playerId, long otherPlayerId) {
+            return new Key(Math.min(playerId, otherPlayerId), Math.max(playerId, otherPlayerId));
+        }
+    }
+}
@@ -8,9 +8,19 @@ import java.time.Instant;
 
 @Entity
 @Data
+@Table(indexes = {@Index(name = "idx_match_created", columnList = "createdAt, id"),
+        @Index(name = "idx_match_player_one", columnList = "playerOneId, createdAt, id"),
+        @Index(name = "idx_match_player_two", columnList = "playerTwoId, createdAt, id")})
 public class Match {
+    /**
+     * Sequence ids are handed out {@value #ID_ALLOCATION_SIZE} at a time, so a result sheet or an import is inserted
+     * in JDBC batches.
+     */
+    public static final int ID_ALLOCATION_SIZE = 500;
+
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "match_seq")
+    @SequenceGenerator(name = "match_seq", sequenceName = "match_seq", allocationSize = ID_ALLOCATION_SIZE)
     private Long id;
     private MatchOutcome outcome;
 
@@ -28,4 +38,8 @@ public class Match {
     @JoinColumn(name = "playerTwoId", insertable = false, updatable = false)
     private Player playerTwo;
     private Instant createdAt;
+
+    @Version
+    @Column(nullable = false, columnDefinition = "bigint default 0")
+    private Long version;
 }
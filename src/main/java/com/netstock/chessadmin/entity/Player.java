@@ -3,23 +3,83 @@ package com.netstock.chessadmin.entity;
 import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
 import jakarta.persistence.*;
 import lombok.Data;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+import org.hibernate.annotations.DynamicUpdate;
 
 import java.time.Instant;
 import java.time.LocalDate;
 
+/**
+ * Cached by id in the second-level cache region {@value #CACHE_REGION}. Every bulk write to players goes through
+ * {@link com.netstock.chessadmin.repository.PlayerBatchRepository}, which evicts just the players it wrote.
+ * Updated dynamically, so saving an edited player writes only the columns the edit changed and never overwrites
+ * results or rank keys written by the ladder meanwhile.
+ */
 @Entity
 @Data
-@Table(name = "player", indexes = {@Index(name = "idx_rank", columnList = "rank")})
+@DynamicUpdate
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = Player.CACHE_REGION)
+@Table(name = "player", indexes = {@Index(name = "idx_rank", columnList = "rankKey")})
 @JsonIgnoreProperties({"hibernateLazyInitializer", "handler"})
 public class Player {
+    /**
+     * Sequence ids are handed out {@value #ID_ALLOCATION_SIZE} at a time, so new players can be inserted in JDBC
+     * batches without a round trip per id.
+     */
+    public static final int ID_ALLOCATION_SIZE = 500;
+    public static final String CACHE_REGION = "player";
+
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "player_seq")
+    @SequenceGenerator(name = "player_seq", sequenceName = "player_seq", allocationSize = ID_ALLOCATION_SIZE)
     private Long id;
     private String firstName;
     private String lastName;
     private String email;
     private LocalDate dateOfBirth;
     private long numberOfGamesPlayed;
+
+    /**
+     * Running totals of the player's results, kept up to date with every saved and deleted match so reading a
+     * player's form never has to scan the matches. An upset is a win against a higher ranked player.
+     */
+    @Column(nullable = false, columnDefinition = "bigint default 0")
+    private long wins;
+    @Column(nullable = false, columnDefinition = "bigint default 0")
+    private long losses;
+    @Column(nullable = false, columnDefinition = "bigint default 0")
+    private long draws;
+    @Column(nullable = false, columnDefinition = "bigint default 0")
+    private long upsetsScored;
+    @Column(nullable = false, columnDefinition = "bigint default 0")
+    private long upsetsSuffered;
+
+    /**
+     * Consecutive wins when positive, consecutive losses when negative, 0 after a draw.
+     */
+    @Column(nullable = false, columnDefinition = "integer default 0")
+    private int streak;
+
+    /**
+     * Sparse sort key of the ladder: players are ordered by it, but consecutive players are spaced apart
+     * so a move only has to rewrite the key of the player that moved.
+     */
+    private Long rankKey;
+
+    /**
+     * Dense 1-based position on the ladder, derived from the ranking index when read; never persisted.
+     */
+    @Transient
     private int rank;
     private Instant createdAt;
+
+    /**
+     * Bumped by edits to the player's own details only; ladder and result writes leave it alone, so a match played
+     * while the player is open in the form does not make the form stale.
+     */
+    @Version
+    @Column(nullable = false, columnDefinition = "bigint default 0")
+    private Long version;
 }
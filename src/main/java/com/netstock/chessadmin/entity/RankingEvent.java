@@ -0,0 +1,80 @@
+package com.netstock.chessadmin.entity;
+
+import com.netstock.chessadmin.enums.RankingEventType;
+import com.netstock.chessadmin.ranking.LadderChange;
+import jakarta.persistence.*;
+import lombok.Data;
+import org.hibernate.annotations.Immutable;
+
+import java.time.Instant;
+
+/**
+ * One entry of the append-only ranking log: every change to the ladder, with the ranks that applied before and after
+ * it. Replaying the log in id order rebuilds the ladder. Rows are never updated or deleted; a player's rank fields
+ * are null where they do not apply (no "after" for a removal, no "before" for an addition, no player two outside
+ * matches), and there are no players on a ladder reset.
+ */
+@Entity
+@Data
+@Immutable
+@Table(name = "ranking_event", indexes = {@Index(name = "idx_ranking_event_match", columnList = "matchId")})
+public class RankingEvent {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(nullable = false)
+    private RankingEventType type;
+    private Long matchId;
+
+    private Long playerOneId;
+    private Integer playerOneRankBefore;
+    private Integer playerOneRankAfter;
+    private Long playerTwoId;
+    private Integer playerTwoRankBefore;
+    private Integer playerTwoRankAfter;
+
+    @Column(nullable = false)
+    private Instant createdAt;
+
+    public static RankingEvent match(Long matchId, LadderChange change, Instant createdAt) {
+        LadderChange.Move playerOne = change.moves().get(0);
+        LadderChange.Move playerTwo = change.moves().get(1);
+        RankingEvent event = new RankingEvent();
+        event.setType(RankingEventType.MATCH);
+        event.setMatchId(matchId);
+        event.setPlayerOneId(playerOne.playerId());
+        event.setPlayerOneRankBefore(playerOne.rankBefore());
+        event.setPlayerOneRankAfter(playerOne.rankAfter());
+        event.setPlayerTwoId(playerTwo.playerId());
+        event.setPlayerTwoRankBefore(playerTwo.rankBefore());
+        event.setPlayerTwoRankAfter(playerTwo.rankAfter());
+        event.setCreatedAt(createdAt);
+        return event;
+    }
+
+    public static RankingEvent ladderReset(Instant createdAt) {
+        RankingEvent event = new RankingEvent();
+        event.setType(RankingEventType.LADDER_RESET);
+        event.setCreatedAt(createdAt);
+        return event;
+    }
+
+    public static RankingEvent playerAdded(Long playerId, int rank, Instant createdAt) {
+        RankingEvent event = new RankingEvent();
+        event.setType(RankingEventType.PLAYER_ADDED);
+        event.setPlayerOneId(playerId);
+        event.setPlayerOneRankAfter(rank);
+        event.setCreatedAt(createdAt);
+        return event;
+    }
+
+    public static RankingEvent playerRemoved(Long playerId, int rank, Instant createdAt) {
+        RankingEvent event = new RankingEvent();
+        event.setType(RankingEventType.PLAYER_REMOVED);
+        event.setPlayerOneId(playerId);
+        event.setPlayerOneRankBefore(rank);
+        event.setCreatedAt(createdAt);
+        return event;
+    }
+}
@@ -0,0 +1,19 @@
+package com.netstock.chessadmin.enums;
+
+import lombok.Getter;
+
+@Getter
+public enum ExportFormat {
+    /** one header line, then one comma separated line per row */
+    CSV("text/csv", "csv"),
+    /** one JSON object per line */
+    NDJSON("application/x-ndjson", "ndjson");
+
+    private final String contentType;
+    private final String extension;
+
+    ExportFormat(String contentType, String extension) {
+        this.contentType = contentType;
+        this.extension = extension;
+    }
+}
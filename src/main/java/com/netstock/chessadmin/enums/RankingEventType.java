@@ -0,0 +1,12 @@
+package com.netstock.chessadmin.enums;
+
+public enum RankingEventType {
+    /** a player joined at the bottom of the ladder */
+    PLAYER_ADDED,
+    /** a player left the ladder and the players below closed up */
+    PLAYER_REMOVED,
+    /** a result was applied to the ladder */
+    MATCH,
+    /** the ladder was replaced wholesale; the PLAYER_ADDED events that follow list the new order */
+    LADDER_RESET
+}
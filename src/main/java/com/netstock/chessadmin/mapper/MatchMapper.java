@@ -0,0 +1,49 @@
+package com.netstock.chessadmin.mapper;
+
+import com.netstock.chessadmin.dto.HeadToHeadDTO;
+import com.netstock.chessadmin.dto.MatchDTO;
+import com.netstock.chessadmin.dto.PlayerDTO;
+import com.netstock.chessadmin.entity.HeadToHead;
+import com.netstock.chessadmin.entity.Match;
+import org.springframework.stereotype.Component;
+
+/**
+ * Plain field copies between {@link Match} and {@link MatchDTO}. The players are mapped by the caller,
+ * which knows their current rank.
+ */
+@Component
+public class MatchMapper {
+
+    public MatchDTO toDto(Match match, PlayerDTO playerOne, PlayerDTO playerTwo) {
+        MatchDTO dto = new MatchDTO();
+        dto.setId(match.getId());
+        dto.setOutcome(match.getOutcome());
+        dto.setPlayerOne(playerOne);
+        dto.setPlayerTwo(playerTwo);
+        dto.setCreatedAt(match.getCreatedAt());
+        return dto;
+    }
+
+    /**
+     * Only the foreign keys are set; the player associations are read-only on the entity.
+     */
+    public Match toEntity(MatchDTO dto) {
+        Match match = new Match();
+        match.setId(dto.getId());
+        match.setOutcome(dto.getOutcome());
+        match.setPlayerOneId(null == dto.getPlayerOne() ? null : dto.getPlayerOne().getId());
+        match.setPlayerTwoId(null == dto.getPlayerTwo() ? null : dto.getPlayerTwo().getId());
+        return match;
+    }
+
+    /**
+     * Turns the pair's row, stored lower id first, around to the order the players were asked for in.
+     */
+    public HeadToHeadDTO toDto(HeadToHead headToHead, Long playerOneId, Long playerTwoId) {
+        boolean playerOneLow = headToHead.getLowPlayerId().equals(playerOneId);
+        return new HeadToHeadDTO(playerOneId, playerTwoId,
+                playerOneLow ? headToHead.getLowPlayerWins() : headToHead.getHighPlayerWins(),
+                playerOneLow ? headToHead.getHighPlayerWins() : headToHead.getLowPlayerWins(),
+                headToHead.getDraws(), headToHead.getLastPlayedAt());
+    }
+}
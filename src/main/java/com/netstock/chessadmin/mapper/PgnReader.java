@@ -0,0 +1,126 @@
+package com.netstock.chessadmin.mapper;
+
+import com.netstock.chessadmin.enums.MatchOutcome;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.Reader;
+import java.io.UncheckedIOException;
+import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Reads the games of a PGN file one at a time, keeping only the tag pairs of the current game; the movetext is
+ * skipped, so a file of any size is read in constant memory.
+ */
+public class PgnReader {
+    private final BufferedReader reader;
+    private long lineNumber;
+    private String pending;
+
+    /**
+     * @param line   line of the game's first tag pair, 1-based
+     * @param white  the {@code White} tag, the player recorded as player one
+     * @param black  the {@code Black} tag, the player recorded as player two
+     * @param result the {@code Result} tag as written
+     * @param date   the {@code Date} tag, null when missing or partly unknown
+     */
+    public record Game(long line, String white, String black, String result, LocalDate date) {
+
+        /**
+         * The outcome for the result tag, or null for an unfinished or unknown result.
+         */
+        public MatchOutcome outcome() {
+            if (null == result) {
+                return null;
+            }
+            return switch (result) {
+                case "1-0" -> MatchOutcome.PLAYER_ONE_WON;
+                case "0-1" -> MatchOutcome.PLAYER_TWO_WON;
+                case "1/2-1/2" -> MatchOutcome.DRAW;
+                default -> null;
+            };
+        }
+    }
+
+    public PgnReader(Reader pgn) {
+        this.reader = pgn instanceof BufferedReader buffered ? buffered : new BufferedReader(pgn, 1 << 16);
+    }
+
+    /**
+     * The next game, or null at the end of the file.
+     */
+    public Game next() {
+        Map<String, String> tags = new HashMap<>();
+        long firstLine = 0;
+        boolean inMovetext = false;
+        String line;
+        while (null != (line = readLine())) {
+            String trimmed = line.strip();
+            if (trimmed.startsWith("[")) {
+                if (inMovetext) {
+                    // the tag pairs of the next game; read again on the next call
+                    pending = line;
+                    lineNumber--;
+                    break;
+                }
+                if (0 == firstLine) {
+                    firstLine = lineNumber;
+                }
+                putTag(tags, trimmed);
+            } else if (!trimmed.isEmpty() && !trimmed.startsWith("%") && !tags.isEmpty()) {
+                inMovetext = true;
+            }
+        }
+        if (tags.isEmpty()) {
+            return null;
+        }
+        return new Game(firstLine, tags.get("White"), tags.get("Black"), tags.get("Result"), date(tags.get("Date")));
+    }
+
+    private String readLine() {
+        if (null != pending) {
+            String line = pending;
+            pending = null;
+            lineNumber++;
+            return line;
+        }
+        try {
+            String line = reader.readLine();
+            if (null != line) {
+                lineNumber++;
+            }
+            return line;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * A tag pair is {@code [Name "value"]}, with {@code \"} and {@code \\} escaped inside the value. Malformed
+     * pairs are ignored.
+     */
+    private static void putTag(Map<String, String> tags, String pair) {
+        int space = pair.indexOf(' ');
+        int open = pair.indexOf('"');
+        int close = pair.lastIndexOf('"');
+        if (space < 2 || open < space || close <= open) {
+            return;
+        }
+        String value = pair.substring(open + 1, close).replace("\\\"", "\"").replace("\\\\", "\\").strip();
+        tags.put(pair.substring(1, space), value);
+    }
+
+    private static LocalDate date(String tag) {
+        if (null == tag || tag.contains("?")) {
+            return null;
+        }
+        try {
+            return LocalDate.parse(tag.replace('.', '-'));
+        } catch (DateTimeParseException e) {
+            return null;
+        }
+    }
+}
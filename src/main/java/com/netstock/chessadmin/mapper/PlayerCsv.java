@@ -0,0 +1,90 @@
+package com.netstock.chessadmin.mapper;
+
+import com.netstock.chessadmin.dto.PlayerDTO;
+
+import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * One player per CSV line: {@code firstName,lastName,email,dateOfBirth}, the date as {@code yyyy-MM-dd}. Fields may
+ * be quoted with {@code "}, and a quote inside a quoted field is doubled.
+ */
+public final class PlayerCsv {
+    public static final String HEADER = "firstName,lastName,email,dateOfBirth";
+
+    private PlayerCsv() {
+    }
+
+    public static boolean isHeader(String line) {
+        return HEADER.equalsIgnoreCase(line.strip().replace("\"", ""));
+    }
+
+    /**
+     * The player on the line, or an {@link IllegalArgumentException} saying why it cannot be one.
+     */
+    public static PlayerDTO parse(String line) {
+        List<String> fields = split(line);
+        if (fields.size() != 4) {
+            throw new IllegalArgumentException("expected 4 fields but found " + fields.size());
+        }
+        String firstName = required(fields.get(0), "firstName");
+        String lastName = required(fields.get(1), "lastName");
+        String email = required(fields.get(2), "email");
+        if (email.indexOf('@') < 1 || email.indexOf('@') == email.length() - 1) {
+            throw new IllegalArgumentException("invalid email '" + email + "'");
+        }
+        LocalDate dateOfBirth;
+        try {
+            dateOfBirth = LocalDate.parse(required(fields.get(3), "dateOfBirth"));
+        } catch (DateTimeParseException e) {
+            throw new IllegalArgumentException("invalid dateOfBirth '" + fields.get(3) + "'");
+        }
+        return PlayerDTO.builder()
+                .firstName(firstName)
+                .lastName(lastName)
+                .email(email)
+                .dateOfBirth(dateOfBirth)
+                .build();
+    }
+
+    private static String required(String field, String name) {
+        String value = field.strip();
+        if (value.isEmpty()) {
+            throw new IllegalArgumentException(name + " is missing");
+        }
+        return value;
+    }
+
+    static List<String> split(String line) {
+        List<String> fields = new ArrayList<>(4);
+        StringBuilder field = new StringBuilder();
+        boolean quoted = false;
+        for (int i = 0; i < line.length(); i++) {
+            char c = line.charAt(i);
+            if (quoted) {
+                if (c == '"' && i + 1 < line.length() && line.charAt(i + 1) == '"') {
+                    field.append('"');
+                    i++;
+                } else if (c == '"') {
+                    quoted = false;
+                } else {
+                    field.append(c);
+                }
+            } else if (c == '"') {
+                quoted = true;
+            } else if (c == ',') {
+                fields.add(field.toString());
+                field.setLength(0);
+            } else {
+                field.append(c);
+            }
+        }
+        if (quoted) {
+            throw new IllegalArgumentException("unterminated quoted field");
+        }
+        fields.add(field.toString());
+        return fields;
+    }
+}
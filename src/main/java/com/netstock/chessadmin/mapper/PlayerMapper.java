@@ -0,0 +1,49 @@
+package com.netstock.chessadmin.mapper;
+
+import com.netstock.chessadmin.dto.PlayerDTO;
+import com.netstock.chessadmin.entity.Player;
+import org.springframework.stereotype.Component;
+
+/**
+ * Plain field copies between {@link Player} and {@link PlayerDTO}; runs once per grid row, so no reflection.
+ */
+@Component
+public class PlayerMapper {
+
+    public PlayerDTO toDto(Player player) {
+        if (null == player) return null;
+        PlayerDTO dto = new PlayerDTO();
+        dto.setId(player.getId());
+        dto.setFirstName(player.getFirstName());
+        dto.setLastName(player.getLastName());
+        dto.setEmail(player.getEmail());
+        dto.setDateOfBirth(player.getDateOfBirth());
+        dto.setRank(player.getRank());
+        dto.setNumberOfGamesPlayed(player.getNumberOfGamesPlayed());
+        dto.setWins(player.getWins());
+        dto.setLosses(player.getLosses());
+        dto.setDraws(player.getDraws());
+        dto.setUpsetsScored(player.getUpsetsScored());
+        dto.setUpsetsSuffered(player.getUpsetsSuffered());
+        dto.setStreak(player.getStreak());
+        dto.setVersion(player.getVersion());
+        return dto;
+    }
+
+    /**
+     * The rank key, creation time and result totals are owned by the ladder, not the form, and are left for the
+     * caller to set.
+     */
+    public Player toEntity(PlayerDTO dto) {
+        Player player = new Player();
+        player.setId(dto.getId());
+        player.setFirstName(dto.getFirstName());
+        player.setLastName(dto.getLastName());
+        player.setEmail(dto.getEmail());
+        player.setDateOfBirth(dto.getDateOfBirth());
+        if (null != dto.getRank()) player.setRank(dto.getRank());
+        player.setNumberOfGamesPlayed(dto.getNumberOfGamesPlayed());
+        player.setVersion(dto.getVersion());
+        return player;
+    }
+}
@@ -0,0 +1,30 @@
+package com.netstock.chessadmin.ranking;
+
+import com.netstock.chessadmin.enums.MatchOutcome;
+
+import java.time.Instant;
+
+/**
+ * What a run of matches between one pair adds to their head-to-head row, from the side of the lower id.
+ */
+public record HeadToHeadTally(long lowPlayerWins, long highPlayerWins, long draws, Instant lastPlayedAt) {
+
+    public static HeadToHeadTally of(long playerOneId, long playerTwoId, MatchOutcome outcome, Instant playedAt) {
+        boolean playerOneLow = playerOneId <= playerTwoId;
+        if (MatchOutcome.DRAW == outcome) {
+            return new HeadToHeadTally(0, 0, 1, playedAt);
+        }
+        if (null == outcome) {
+            return new HeadToHeadTally(0, 0, 0, playedAt);
+        }
+        boolean lowWon = playerOneLow == (MatchOutcome.PLAYER_ONE_WON == outcome);
+        return new HeadToHeadTally(lowWon ? 1 : 0, lowWon ? 0 : 1, 0, playedAt);
+    }
+
+    public HeadToHeadTally plus(HeadToHeadTally other) {
+        Instant last = null == lastPlayedAt || (null != other.lastPlayedAt && other.lastPlayedAt.isAfter(lastPlayedAt))
+                ? other.lastPlayedAt : lastPlayedAt;
+        return new HeadToHeadTally(lowPlayerWins + other.lowPlayerWins, highPlayerWins + other.highPlayerWins,
+                draws + other.draws, last);
+    }
+}
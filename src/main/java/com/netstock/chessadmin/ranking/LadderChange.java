@@ -0,0 +1,36 @@
+package com.netstock.chessadmin.ranking;
+
+import java.util.List;
+
+/**
+ * The outcome of one ladder mutation: the ranks of the players involved before and after,
+ * and the window of positions whose occupant may have changed.
+ */
+public record LadderChange(List<Move> moves, int fromRank, int toRank) {
+
+    public record Move(long playerId, int rankBefore, int rankAfter) {
+    }
+
+    public static LadderChange none(List<Move> moves) {
+        return new LadderChange(moves, 0, -1);
+    }
+
+    public boolean isEmpty() {
+        return fromRank > toRank;
+    }
+
+    public int rankBefore(long playerId) {
+        return move(playerId).rankBefore();
+    }
+
+    public int rankAfter(long playerId) {
+        return move(playerId).rankAfter();
+    }
+
+    private Move move(long playerId) {
+        return moves.stream()
+                .filter(move -> move.playerId() == playerId)
+                .findFirst()
+                .orElseThrow(() -> new IllegalArgumentException("Player " + playerId + " did not move"));
+    }
+}
@@ -0,0 +1,37 @@
+package com.netstock.chessadmin.ranking;
+
+import java.util.Set;
+
+/**
+ * Published whenever the ladder or a ranked player's row changes. Listeners that cache ladder data should
+ * react after the publishing transaction commits.
+ *
+ * @param playerIds the players whose row or position changed directly
+ * @param fromRank  first position whose occupant may have changed, with {@code toRank} after the change; the window
+ *                  is empty when {@code fromRank > toRank}, and may run past the bottom of the ladder when players
+ *                  left it
+ */
+public record LadderChangedEvent(Set<Long> playerIds, int fromRank, int toRank) {
+
+    public LadderChangedEvent {
+        playerIds = Set.copyOf(playerIds);
+    }
+
+    /**
+     * Only the rows of the players changed; nobody moved.
+     */
+    public LadderChangedEvent(Set<Long> playerIds) {
+        this(playerIds, 0, -1);
+    }
+
+    /**
+     * Any position may have a new occupant.
+     */
+    public static LadderChangedEvent wholeLadder(Set<Long> playerIds) {
+        return new LadderChangedEvent(playerIds, 1, Integer.MAX_VALUE);
+    }
+
+    public boolean moved() {
+        return fromRank <= toRank;
+    }
+}
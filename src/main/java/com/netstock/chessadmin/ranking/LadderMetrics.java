@@ -0,0 +1,54 @@
+package com.netstock.chessadmin.ranking;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.stereotype.Component;
+
+import java.util.function.Supplier;
+
+/**
+ * Meters on the match and ranking hot path, so it is visible which stage dominates under load:
+ * <ul>
+ *     <li>{@code chess.match.save} timer per {@code stage} of a single match: validate, insert, rank, log, players</li>
+ *     <li>{@code chess.ranking.keys.written} rank keys written per ladder update, including respread windows</li>
+ *     <li>{@code chess.leaderboard.read} timer per leaderboard {@code operation}</li>
+ *     <li>{@code chess.player.delete} timer</li>
+ * </ul>
+ */
+@Component
+public class LadderMetrics {
+    private final MeterRegistry meterRegistry;
+    private final DistributionSummary keysWritten;
+    private final Timer playerDelete;
+
+    public LadderMetrics(MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+        this.keysWritten = DistributionSummary.builder("chess.ranking.keys.written")
+                .description("Rank keys written per ladder update")
+                .register(meterRegistry);
+        this.playerDelete = Timer.builder("chess.player.delete")
+                .description("Deleting a player and clearing its match references")
+                .register(meterRegistry);
+    }
+
+    public <T> T timeMatchStage(String stage, Supplier<T> work) {
+        return Timer.builder("chess.match.save").tag("stage", stage).register(meterRegistry).record(work);
+    }
+
+    public void timeMatchStage(String stage, Runnable work) {
+        Timer.builder("chess.match.save").tag("stage", stage).register(meterRegistry).record(work);
+    }
+
+    public <T> T timeLeaderBoardRead(String operation, Supplier<T> work) {
+        return Timer.builder("chess.leaderboard.read").tag("operation", operation).register(meterRegistry).record(work);
+    }
+
+    public <T> T timePlayerDelete(Supplier<T> work) {
+        return playerDelete.record(work);
+    }
+
+    public void recordKeysWritten(int count) {
+        keysWritten.record(count);
+    }
+}
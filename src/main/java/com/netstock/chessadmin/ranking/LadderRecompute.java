@@ -0,0 +1,283 @@
+package com.netstock.chessadmin.ranking;
+
+import com.netstock.chessadmin.entity.RankingEvent;
+import com.netstock.chessadmin.ranking.RankingRules.Placement;
+import com.netstock.chessadmin.repository.MatchRepository;
+import com.netstock.chessadmin.repository.PlayerRepository;
+import com.netstock.chessadmin.repository.RankingEventRepository;
+import com.netstock.chessadmin.service.RankingService;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.RecursiveTask;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.stream.Stream;
+
+/**
+ * Re-derives the whole ladder from the match history: players join at the bottom in the order they were created,
+ * and every match is applied with {@link RankingRules} in the order it was played, all against an in-memory
+ * {@link RankIndex}. Each player's games played and result totals are tallied on the fork-join pool in chunks while
+ * the ranks are replayed. The result replaces every rank key and player record in one batch, in the same
+ * transaction that read the history, and is recorded in the ranking log as a ladder reset.
+ * <p>
+ * A match dated before one of its players was created, as games imported from PGN keep the date they were played,
+ * brings that player onto the bottom of the ladder with it rather than waiting for their creation time.
+ * Matches against a player that has since been deleted cannot be placed on the ladder and are skipped for the
+ * ranks; they still count for the player that remains, though never as an upset.
+ */
+@Slf4j
+@Component
+public class LadderRecompute {
+    static final int CHUNK_SIZE = 8192;
+    private static final int TALLY_THRESHOLD = 1024;
+    private static final int PROGRESS_EVERY = 1000;
+
+    private final MatchRepository matchRepository;
+    private final PlayerRepository playerRepository;
+    private final RankingEventRepository rankingEventRepository;
+    private final RankingService rankingService;
+    private final LadderWriter ladderWriter;
+    private final ApplicationEventPublisher eventPublisher;
+    private final AtomicBoolean running = new AtomicBoolean();
+    private volatile Progress progress = Progress.idle();
+
+    public enum Status { IDLE, RUNNING, DONE, FAILED }
+
+    /**
+     * @param eta estimated time left, null until enough matches have been processed to tell
+     */
+    public record Progress(Status status, long processed, long total, Duration elapsed, Duration eta) {
+        static Progress idle() {
+            return new Progress(Status.IDLE, 0, 0, Duration.ZERO, null);
+        }
+
+        static Progress running(long processed, long total, Duration elapsed) {
+            Duration eta = processed == 0 ? null
+                    : elapsed.multipliedBy(Math.max(0, total - processed)).dividedBy(processed);
+            return new Progress(Status.RUNNING, processed, total, elapsed, eta);
+        }
+
+        public double fraction() {
+            return total == 0 ? 0 : Math.min(1, (double) processed / total);
+        }
+    }
+
+    /**
+     * @param skipped matches that named a deleted player and were not applied to the ranks
+     * @param moved players whose rank differs from the one they had before the recompute
+     */
+    public record Result(int players, long matches, long skipped, int moved, Duration took) {
+    }
+
+    public LadderRecompute(MatchRepository matchRepository, PlayerRepository playerRepository,
+                           RankingEventRepository rankingEventRepository, RankingService rankingService,
+                           LadderWriter ladderWriter, ApplicationEventPublisher eventPublisher) {
+        this.matchRepository = matchRepository;
+        this.playerRepository = playerRepository;
+        this.rankingEventRepository = rankingEventRepository;
+        this.rankingService = rankingService;
+        this.ladderWriter = ladderWriter;
+        this.eventPublisher = eventPublisher;
+    }
+
+    public Progress progress() {
+        return progress;
+    }
+
+    /**
+     * Queues a recompute on the ladder writer; results submitted meanwhile wait behind it and apply to the new
+     * ladder. Only one recompute runs at a time.
+     */
+    public CompletableFuture<Result> submit() {
+        if (!running.compareAndSet(false, true)) {
+            throw new IllegalStateException("A ladder recompute is already running");
+        }
+        progress = Progress.running(0, 0, Duration.ZERO);
+        CompletableFuture<Result> result = ladderWriter.submit("recomputeLadder", this::recompute);
+        return result.whenComplete((done, failure) -> {
+            if (failure != null) {
+                log.error("Ladder recompute failed", failure);
+                progress = new Progress(Status.FAILED, progress.processed(), progress.total(), progress.elapsed(), null);
+            }
+            running.set(false);
+        });
+    }
+
+    Result recompute() {
+        long started = System.nanoTime();
+        long total = matchRepository.count();
+        List<RankKey> before = playerRepository.findAllRankKeys();
+        Iterator<PlayerJoin> joins = playerRepository.findAllInJoinOrder().iterator();
+        PlayerJoin nextJoin = joins.hasNext() ? joins.next() : null;
+
+        RankIndex index = new RankIndex();
+        List<ForkJoinTask<Map<Long, ResultTally>>> tallies = new ArrayList<>();
+        long[] playerIds = new long[2 * CHUNK_SIZE];
+        ResultTally[] results = new ResultTally[2 * CHUNK_SIZE];
+        int chunkLength = 0;
+        long processed = 0;
+        long skipped = 0;
+        progress = Progress.running(0, total, Duration.ZERO);
+
+        try (Stream<PlayedMatch> matches = matchRepository.streamResultsInPlayOrder()) {
+            Iterator<PlayedMatch> iterator = matches.iterator();
+            while (iterator.hasNext()) {
+                PlayedMatch match = iterator.next();
+                while (nextJoin != null && joinedBefore(nextJoin, match)) {
+                    join(index, nextJoin.playerId());
+                    nextJoin = joins.hasNext() ? joins.next() : null;
+                }
+                join(index, match.playerOneId());
+                join(index, match.playerTwoId());
+                boolean upset = false;
+                if (onLadder(index, match.playerOneId()) && onLadder(index, match.playerTwoId())) {
+                    upset = apply(index, match);
+                } else {
+                    skipped++;
+                }
+                playerIds[chunkLength] = idOrNone(match.playerOneId());
+                results[chunkLength++] = ResultTally.of(match.outcome(), true, upset);
+                playerIds[chunkLength] = idOrNone(match.playerTwoId());
+                results[chunkLength++] = ResultTally.of(match.outcome(), false, upset);
+                if (chunkLength == playerIds.length) {
+                    tallies.add(ForkJoinPool.commonPool().submit(new Tally(playerIds, results, 0, chunkLength)));
+                    playerIds = new long[2 * CHUNK_SIZE];
+                    results = new ResultTally[2 * CHUNK_SIZE];
+                    chunkLength = 0;
+                }
+                if (++processed % PROGRESS_EVERY == 0) {
+                    progress = Progress.running(processed, total, Duration.ofNanos(System.nanoTime() - started));
+                }
+            }
+        }
+        while (nextJoin != null) {
+            join(index, nextJoin.playerId());
+            nextJoin = joins.hasNext() ? joins.next() : null;
+        }
+        tallies.add(ForkJoinPool.commonPool().submit(new Tally(playerIds, results, 0, chunkLength)));
+
+        List<Long> ladder = index.playersBetween(1, index.size());
+        Map<Long, ResultTally> records = new HashMap<>();
+        ladder.forEach(playerId -> records.put(playerId, ResultTally.NONE));
+        // chunks are merged in play order, which the streaks depend on
+        tallies.forEach(task -> task.join().forEach((playerId, tally) -> {
+            if (records.containsKey(playerId)) {
+                records.merge(playerId, tally, ResultTally::then);
+            }
+        }));
+        int moved = write(ladder, records, before);
+
+        Duration took = Duration.ofNanos(System.nanoTime() - started);
+        progress = new Progress(Status.DONE, processed, total, took, Duration.ZERO);
+        log.info("Recomputed a ladder of {} players from {} matches in {} ms ({} skipped, {} moved)",
+                ladder.size(), processed, took.toMillis(), skipped, moved);
+        return new Result(ladder.size(), processed, skipped, moved, took);
+    }
+
+    private int write(List<Long> ladder, Map<Long, ResultTally> records, List<RankKey> before) {
+        Map<Long, Long> rankKeys = new LinkedHashMap<>();
+        List<RankingEvent> events = new ArrayList<>(ladder.size() + 1);
+        Instant now = Instant.now();
+        events.add(RankingEvent.ladderReset(now));
+        for (int i = 0; i < ladder.size(); i++) {
+            rankKeys.put(ladder.get(i), (i + 1) * RankingService.RANK_KEY_GAP);
+            events.add(RankingEvent.playerAdded(ladder.get(i), i + 1, now));
+        }
+        int moved = 0;
+        for (int i = 0; i < before.size(); i++) {
+            if (i >= ladder.size() || !ladder.get(i).equals(before.get(i).playerId())) {
+                moved++;
+            }
+        }
+        playerRepository.updateRankKeys(rankKeys);
+        playerRepository.advanceLadder();
+        playerRepository.setResults(records);
+        rankingEventRepository.appendAll(events);
+        rankingService.invalidateOnCompletion();
+        eventPublisher.publishEvent(LadderChangedEvent.wholeLadder(rankKeys.keySet()));
+        return moved;
+    }
+
+    private static boolean joinedBefore(PlayerJoin join, PlayedMatch match) {
+        return join.createdAt() == null
+                || (match.createdAt() != null && !join.createdAt().isAfter(match.createdAt()));
+    }
+
+    private static void join(RankIndex index, Long playerId) {
+        if (playerId != null && !index.contains(playerId)) {
+            index.append(playerId);
+        }
+    }
+
+    private static boolean onLadder(RankIndex index, Long playerId) {
+        return playerId != null && index.contains(playerId);
+    }
+
+    /**
+     * Applies a match between two players on the ladder and returns whether it was an upset.
+     */
+    private static boolean apply(RankIndex index, PlayedMatch match) {
+        if (match.outcome() == null) {
+            return false;
+        }
+        int playerOneRank = index.rankOf(match.playerOneId());
+        int playerTwoRank = index.rankOf(match.playerTwoId());
+        List<Placement> placements = RankingRules.placements(match.playerOneId(), playerOneRank,
+                match.playerTwoId(), playerTwoRank, match.outcome());
+        RankingRules.apply(index, placements);
+        return ResultTally.isUpset(match.outcome(), playerOneRank, playerTwoRank);
+    }
+
+    private static long idOrNone(Long playerId) {
+        return playerId == null ? -1 : playerId;
+    }
+
+    /**
+     * Tallies the results in a slice of a chunk per player, splitting it in half until the slices are small. The
+     * halves are combined left before right, so each player's results stay in play order.
+     */
+    static final class Tally extends RecursiveTask<Map<Long, ResultTally>> {
+        private final long[] playerIds;
+        private final ResultTally[] results;
+        private final int from;
+        private final int to;
+
+        Tally(long[] playerIds, ResultTally[] results, int from, int to) {
+            this.playerIds = playerIds;
+            this.results = results;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected Map<Long, ResultTally> compute() {
+            if (to - from <= TALLY_THRESHOLD) {
+                Map<Long, ResultTally> tallies = new HashMap<>();
+                for (int i = from; i < to; i++) {
+                    if (playerIds[i] >= 0) {
+                        tallies.merge(playerIds[i], results[i], ResultTally::then);
+                    }
+                }
+                return tallies;
+            }
+            int middle = (from + to) >>> 1;
+            Tally right = new Tally(playerIds, results, middle, to);
+            right.fork();
+            Map<Long, ResultTally> tallies = new Tally(playerIds, results, from, middle).compute();
+            right.join().forEach((playerId, tally) -> tallies.merge(playerId, tally, ResultTally::then));
+            return tallies;
+        }
+    }
+}
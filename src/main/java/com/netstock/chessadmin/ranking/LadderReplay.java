@@ -0,0 +1,145 @@
+package com.netstock.chessadmin.ranking;
+
+import com.netstock.chessadmin.entity.RankingEvent;
+import com.netstock.chessadmin.enums.RankingEventType;
+import com.netstock.chessadmin.ranking.RankingRules.Placement;
+import com.netstock.chessadmin.repository.PlayerRepository;
+import com.netstock.chessadmin.repository.RankingEventRepository;
+import com.netstock.chessadmin.service.RankingService;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Rebuilds the ladder from the ranking log in one forward pass over the events, applying each to an in-memory
+ * {@link RankIndex}: no entities are loaded and nothing is written until the end, so a history of a million events
+ * replays in seconds. Every match event also carries the ranks it was applied at, which are checked against the
+ * replayed ladder to report where the log and the ladder disagree.
+ */
+@Slf4j
+@Component
+public class LadderReplay {
+    private final RankingEventRepository rankingEventRepository;
+    private final PlayerRepository playerRepository;
+    private final RankingService rankingService;
+    private final LadderWriter ladderWriter;
+    private final ApplicationEventPublisher eventPublisher;
+
+    /**
+     * @param ladder player ids from rank 1 down
+     * @param divergences match events whose recorded ranks before did not match the replayed ladder, or that named
+     *                    a player not on it
+     */
+    public record Result(List<Long> ladder, long events, int divergences, Duration took) {
+    }
+
+    public LadderReplay(RankingEventRepository rankingEventRepository, PlayerRepository playerRepository,
+                        RankingService rankingService, LadderWriter ladderWriter,
+                        ApplicationEventPublisher eventPublisher) {
+        this.rankingEventRepository = rankingEventRepository;
+        this.playerRepository = playerRepository;
+        this.rankingService = rankingService;
+        this.ladderWriter = ladderWriter;
+        this.eventPublisher = eventPublisher;
+    }
+
+    /**
+     * Replays the whole log and returns the ladder it ends with. Reads only.
+     */
+    public Result replay() {
+        long started = System.nanoTime();
+        RankIndex index = new RankIndex();
+        long[] events = {0};
+        int[] divergences = {0};
+        rankingEventRepository.forEachInOrder(event -> {
+            events[0]++;
+            if (!apply(index, event)) {
+                divergences[0]++;
+            }
+        });
+        List<Long> ladder = index.playersBetween(1, index.size());
+        Duration took = Duration.ofNanos(System.nanoTime() - started);
+        log.info("Replayed {} ranking events into a ladder of {} players in {} ms ({} divergences)",
+                events[0], ladder.size(), took.toMillis(), divergences[0]);
+        return new Result(ladder, events[0], divergences[0], took);
+    }
+
+    /**
+     * Replays the log on the ladder writer and replaces every rank key with the replayed order, evenly spaced, in
+     * one batch. Players that exist but are not in the log keep their relative order below the replayed ones.
+     */
+    public CompletableFuture<Result> submitRebuild() {
+        return ladderWriter.submit("rebuildLadder", () -> {
+            Result result = replay();
+            List<Long> order = new ArrayList<>(result.ladder());
+            Set<Long> replayed = new HashSet<>(order);
+            playerRepository.findAllRankKeys().stream()
+                    .map(RankKey::playerId)
+                    .filter(playerId -> !replayed.contains(playerId))
+                    .forEach(order::add);
+            Map<Long, Long> rankKeys = new LinkedHashMap<>();
+            for (int i = 0; i < order.size(); i++) {
+                rankKeys.put(order.get(i), (i + 1) * RankingService.RANK_KEY_GAP);
+            }
+            playerRepository.updateRankKeys(rankKeys);
+            playerRepository.advanceLadder();
+            rankingService.invalidateOnCompletion();
+            eventPublisher.publishEvent(LadderChangedEvent.wholeLadder(rankKeys.keySet()));
+            return result;
+        });
+    }
+
+    /**
+     * Applies one event; false when it did not line up with the replayed ladder.
+     */
+    static boolean apply(RankIndex index, RankingEvent event) {
+        if (RankingEventType.LADDER_RESET == event.getType()) {
+            index.clear();
+            return true;
+        }
+        long playerOneId = event.getPlayerOneId();
+        switch (event.getType()) {
+            case PLAYER_ADDED -> {
+                if (index.contains(playerOneId)) {
+                    return false;
+                }
+                index.append(playerOneId);
+                return event.getPlayerOneRankAfter() == index.size();
+            }
+            case PLAYER_REMOVED -> {
+                if (!index.contains(playerOneId)) {
+                    return false;
+                }
+                boolean matches = event.getPlayerOneRankBefore() == index.rankOf(playerOneId);
+                index.remove(playerOneId);
+                return matches;
+            }
+            default -> {
+                long playerTwoId = event.getPlayerTwoId();
+                if (!index.contains(playerOneId) || !index.contains(playerTwoId)) {
+                    return false;
+                }
+                boolean matches = event.getPlayerOneRankBefore() == index.rankOf(playerOneId)
+                        && event.getPlayerTwoRankBefore() == index.rankOf(playerTwoId);
+                if (!event.getPlayerOneRankAfter().equals(event.getPlayerOneRankBefore())
+                        || !event.getPlayerTwoRankAfter().equals(event.getPlayerTwoRankBefore())) {
+                    // a diverged log may name ranks past the bottom of the replayed ladder
+                    int size = index.size();
+                    RankingRules.apply(index, List.of(
+                            new Placement(playerOneId, Math.min(event.getPlayerOneRankAfter(), size)),
+                            new Placement(playerTwoId, Math.min(event.getPlayerTwoRankAfter(), size))));
+                }
+                return matches;
+            }
+        }
+    }
+}
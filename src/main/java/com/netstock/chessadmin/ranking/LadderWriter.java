@@ -0,0 +1,101 @@
+package com.netstock.chessadmin.ranking;
+
+import com.netstock.chessadmin.service.RankingService;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.function.Supplier;
+
+/**
+ * Single writer for the ladder. Every mutation is queued on a bounded buffer and run by one thread, each in its
+ * own transaction that has committed before the next one starts, so a mutation always sees the ladder exactly as
+ * the previous one left it. A mutation that loses an optimistic locking race against another instance is rolled
+ * back and retried through {@link OptimisticRetry}, with the ranking index dropped first so the retry reloads the
+ * ladder that instance left. Work submitted from the writer thread itself runs inline, in
+ * the transaction already open.
+ */
+@Slf4j
+@Component
+public class LadderWriter {
+    private final TransactionTemplate transactionTemplate;
+    private final OptimisticRetry optimisticRetry;
+    private final RankingService rankingService;
+    private final BlockingQueue<Task<?>> queue;
+    private final Thread thread = new Thread(this::drain, "ladder-writer");
+
+    private record Task<T>(String operation, Supplier<T> work, CompletableFuture<T> result) {
+    }
+
+    public LadderWriter(PlatformTransactionManager transactionManager, OptimisticRetry optimisticRetry,
+                        RankingService rankingService, @Value("${chess.ladder.writer-capacity:1024}") int capacity) {
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.optimisticRetry = optimisticRetry;
+        this.rankingService = rankingService;
+        this.queue = new ArrayBlockingQueue<>(capacity);
+        thread.setDaemon(true);
+    }
+
+    @PostConstruct
+    void start() {
+        thread.start();
+    }
+
+    @PreDestroy
+    void stop() {
+        thread.interrupt();
+        List<Task<?>> pending = new ArrayList<>();
+        queue.drainTo(pending);
+        pending.forEach(task -> task.result().completeExceptionally(
+                new RejectedExecutionException("Ladder writer stopped")));
+    }
+
+    /**
+     * Queues the work and returns a future completed with its result once its transaction has committed, or
+     * exceptionally if it failed. Fails straight away when the buffer is full.
+     */
+    public <T> CompletableFuture<T> submit(String operation, Supplier<T> work) {
+        CompletableFuture<T> result = new CompletableFuture<>();
+        Task<T> task = new Task<>(operation, work, result);
+        if (Thread.currentThread() == thread) {
+            run(task, () -> transactionTemplate.execute(status -> work.get()));
+        } else if (!queue.offer(task)) {
+            result.completeExceptionally(new RejectedExecutionException("Ladder writer is full, try again later"));
+        }
+        return result;
+    }
+
+    private void drain() {
+        while (!Thread.currentThread().isInterrupted()) {
+            try {
+                run(queue.take());
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+    private <T> void run(Task<T> task) {
+        run(task, () -> optimisticRetry.execute(task.operation(),
+                () -> transactionTemplate.execute(status -> task.work().get()), rankingService::invalidate));
+    }
+
+    private <T> void run(Task<T> task, Supplier<T> execution) {
+        try {
+            task.result().complete(execution.get());
+        } catch (RuntimeException | Error e) {
+            log.debug("Ladder mutation {} failed", task.operation(), e);
+            task.result().completeExceptionally(e);
+        }
+    }
+}
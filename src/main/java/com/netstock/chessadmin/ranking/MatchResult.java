@@ -0,0 +1,9 @@
+package com.netstock.chessadmin.ranking;
+
+import com.netstock.chessadmin.enums.MatchOutcome;
+
+/**
+ * One result to apply to the ladder, in terms of player ids only.
+ */
+public record MatchResult(long playerOneId, long playerTwoId, MatchOutcome outcome) {
+}
@@ -0,0 +1,84 @@
+package com.netstock.chessadmin.ranking;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.Supplier;
+
+/**
+ * Re-runs a unit of work that lost an optimistic locking race, up to a bounded number of attempts with
+ * exponential backoff and jitter. Each attempt must open its own transaction, so this has to wrap the transaction
+ * rather than run inside it. A conflict means state cached from before the race is stale, so the caller can pass
+ * a hook that drops it before the next attempt.
+ * Publishes {@code chess.write.conflicts} and {@code chess.write.retries} counters and a {@code chess.write.latency}
+ * timer covering all attempts, each tagged with the operation.
+ */
+@Slf4j
+@Component
+public class OptimisticRetry {
+    private final MeterRegistry meterRegistry;
+    private final int maxAttempts;
+    private final Duration initialBackoff;
+
+    public OptimisticRetry(MeterRegistry meterRegistry,
+                           @Value("${chess.retry.max-attempts:3}") int maxAttempts,
+                           @Value("${chess.retry.initial-backoff:50ms}") Duration initialBackoff) {
+        if (maxAttempts < 1) {
+            throw new IllegalArgumentException("chess.retry.max-attempts must be at least 1");
+        }
+        this.meterRegistry = meterRegistry;
+        this.maxAttempts = maxAttempts;
+        this.initialBackoff = initialBackoff;
+    }
+
+    public <T> T execute(String operation, Supplier<T> work) {
+        return execute(operation, work, () -> {
+        });
+    }
+
+    /**
+     * Like {@link #execute(String, Supplier)}, running {@code onConflict} after every conflict that is retried.
+     */
+    public <T> T execute(String operation, Supplier<T> work, Runnable onConflict) {
+        Timer.Sample sample = Timer.start(meterRegistry);
+        String outcome = "failure";
+        try {
+            long backoffMillis = initialBackoff.toMillis();
+            for (int attempt = 1; ; attempt++) {
+                try {
+                    T result = work.get();
+                    outcome = "success";
+                    return result;
+                } catch (OptimisticLockingFailureException e) {
+                    meterRegistry.counter("chess.write.conflicts", "operation", operation).increment();
+                    if (attempt >= maxAttempts) {
+                        outcome = "conflict";
+                        throw e;
+                    }
+                    meterRegistry.counter("chess.write.retries", "operation", operation).increment();
+                    log.debug("{} conflicted on attempt {}, retrying in {} ms", operation, attempt, backoffMillis);
+                    onConflict.run();
+                    backOff(backoffMillis, e);
+                    backoffMillis *= 2;
+                }
+            }
+        } finally {
+            sample.stop(meterRegistry.timer("chess.write.latency", "operation", operation, "outcome", outcome));
+        }
+    }
+
+    private static void backOff(long millis, OptimisticLockingFailureException conflict) {
+        try {
+            Thread.sleep(millis + ThreadLocalRandom.current().nextLong(millis / 2 + 1));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw conflict;
+        }
+    }
+}
@@ -0,0 +1,11 @@
+package com.netstock.chessadmin.ranking;
+
+import com.netstock.chessadmin.enums.MatchOutcome;
+
+import java.time.Instant;
+
+/**
+ * A match as the ladder needs it for a recompute; a player id is null when that player has since been deleted.
+ */
+public record PlayedMatch(Long playerOneId, Long playerTwoId, MatchOutcome outcome, Instant createdAt) {
+}
@@ -0,0 +1,9 @@
+package com.netstock.chessadmin.ranking;
+
+import java.time.Instant;
+
+/**
+ * When a player joined the ladder; null for players created before join times were recorded.
+ */
+public record PlayerJoin(Long playerId, Instant createdAt) {
+}
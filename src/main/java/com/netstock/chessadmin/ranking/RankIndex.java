@@ -0,0 +1,254 @@
+package com.netstock.chessadmin.ranking;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+
+/**
+ * Order-statistic index over the ladder: an implicit treap whose in-order sequence is the ranking,
+ * with a player id -> node map and parent links so that both rank-by-position and position-by-player
+ * lookups, as well as moving a player, cost O(log n).
+ * Ranks are 1-based. Not thread safe; callers are expected to serialise access.
+ */
+public class RankIndex {
+
+    private static final class Node {
+        private final long playerId;
+        private final int priority;
+        private Node left;
+        private Node right;
+        private Node parent;
+        private int size = 1;
+
+        private Node(long playerId, int priority) {
+            this.playerId = playerId;
+            this.priority = priority;
+        }
+    }
+
+    private final Map<Long, Node> nodes = new HashMap<>();
+    private final SplittableRandom random = new SplittableRandom();
+    private Node root;
+
+    public int size() {
+        return nodes.size();
+    }
+
+    public boolean contains(long playerId) {
+        return nodes.containsKey(playerId);
+    }
+
+    public void clear() {
+        nodes.clear();
+        root = null;
+    }
+
+    public void append(long playerId) {
+        insert(playerId, size() + 1);
+    }
+
+    /**
+     * Appends the players, in order, below the current ladder. The new players are built into a treap in one
+     * linear pass before being joined on, which makes loading a full ladder O(n) instead of O(n log n).
+     */
+    public void appendAll(Collection<Long> playerIds) {
+        Deque<Node> rightSpine = new ArrayDeque<>();
+        for (Long playerId : playerIds) {
+            if (nodes.containsKey(playerId)) {
+                throw new IllegalArgumentException("Player " + playerId + " is already ranked");
+            }
+            Node node = new Node(playerId, random.nextInt());
+            nodes.put(playerId, node);
+            Node displaced = null;
+            while (!rightSpine.isEmpty() && rightSpine.peek().priority < node.priority) {
+                displaced = rightSpine.pop();
+            }
+            node.left = displaced;
+            if (!rightSpine.isEmpty()) {
+                rightSpine.peek().right = node;
+            }
+            rightSpine.push(node);
+        }
+        if (rightSpine.isEmpty()) {
+            return;
+        }
+        Node appended = rightSpine.peekLast();
+        updateSubtree(appended);
+        setRoot(merge(root, appended));
+    }
+
+    /**
+     * Inserts the player at the given rank, pushing the current occupant and everyone below it down by one.
+     */
+    public void insert(long playerId, int rank) {
+        if (nodes.containsKey(playerId)) {
+            throw new IllegalArgumentException("Player " + playerId + " is already ranked");
+        }
+        checkRank(rank, size() + 1);
+        Node node = new Node(playerId, random.nextInt());
+        nodes.put(playerId, node);
+        Node[] parts = split(root, rank - 1);
+        setRoot(merge(merge(parts[0], node), parts[1]));
+    }
+
+    /**
+     * Removes the player, moving everyone below it up by one.
+     */
+    public void remove(long playerId) {
+        int rank = rankOf(playerId);
+        Node[] head = split(root, rank - 1);
+        Node[] tail = split(head[1], 1);
+        nodes.remove(playerId);
+        setRoot(merge(head[0], tail[1]));
+    }
+
+    public void move(long playerId, int newRank) {
+        remove(playerId);
+        insert(playerId, newRank);
+    }
+
+    public int rankOf(long playerId) {
+        Node node = nodes.get(playerId);
+        if (null == node) {
+            throw new IllegalArgumentException("Player " + playerId + " is not ranked");
+        }
+        int rank = size(node.left) + 1;
+        while (null != node.parent) {
+            if (node == node.parent.right) {
+                rank += size(node.parent.left) + 1;
+            }
+            node = node.parent;
+        }
+        return rank;
+    }
+
+    public long playerAt(int rank) {
+        checkRank(rank, size());
+        Node node = root;
+        while (true) {
+            int leftSize = size(node.left);
+            if (rank <= leftSize) {
+                node = node.left;
+            } else if (rank == leftSize + 1) {
+                return node.playerId;
+            } else {
+                rank -= leftSize + 1;
+                node = node.right;
+            }
+        }
+    }
+
+    /**
+     * Returns the player ids ranked fromRank..toRank (inclusive) in ladder order, in O(log n + k).
+     * The range is clamped to the ladder.
+     */
+    public List<Long> playersBetween(int fromRank, int toRank) {
+        int from = Math.max(1, fromRank);
+        int to = Math.min(size(), toRank);
+        if (from > to) {
+            return Collections.emptyList();
+        }
+        Node[] head = split(root, from - 1);
+        Node[] tail = split(head[1], to - from + 1);
+        List<Long> ids = new ArrayList<>(to - from + 1);
+        collect(tail[0], ids);
+        setRoot(merge(head[0], merge(tail[0], tail[1])));
+        return ids;
+    }
+
+    private static void collect(Node node, List<Long> ids) {
+        while (null != node) {
+            collect(node.left, ids);
+            ids.add(node.playerId);
+            node = node.right;
+        }
+    }
+
+    private void setRoot(Node node) {
+        root = node;
+        if (null != root) {
+            root.parent = null;
+        }
+    }
+
+    private static void checkRank(int rank, int max) {
+        if (rank < 1 || rank > max) {
+            throw new IndexOutOfBoundsException("Rank " + rank + " is outside 1.." + max);
+        }
+    }
+
+    private static int size(Node node) {
+        return null == node ? 0 : node.size;
+    }
+
+    private static void update(Node node) {
+        node.size = 1 + size(node.left) + size(node.right);
+        if (null != node.left) {
+            node.left.parent = node;
+        }
+        if (null != node.right) {
+            node.right.parent = node;
+        }
+    }
+
+    private static void updateSubtree(Node top) {
+        List<Node> preOrder = new ArrayList<>();
+        Deque<Node> pending = new ArrayDeque<>();
+        pending.push(top);
+        while (!pending.isEmpty()) {
+            Node node = pending.pop();
+            preOrder.add(node);
+            if (null != node.left) {
+                pending.push(node.left);
+            }
+            if (null != node.right) {
+                pending.push(node.right);
+            }
+        }
+        for (int i = preOrder.size() - 1; i >= 0; i--) {
+            update(preOrder.get(i));
+        }
+    }
+
+    private static Node merge(Node a, Node b) {
+        if (null == a) {
+            return b;
+        }
+        if (null == b) {
+            return a;
+        }
+        if (a.priority > b.priority) {
+            a.right = merge(a.right, b);
+            update(a);
+            return a;
+        }
+        b.left = merge(a, b.left);
+        update(b);
+        return b;
+    }
+
+    /**
+     * Splits the subtree into its first {@code count} nodes and the remainder.
+     */
+    private static Node[] split(Node node, int count) {
+        if (null == node) {
+            return new Node[]{null, null};
+        }
+        if (size(node.left) < count) {
+            Node[] parts = split(node.right, count - size(node.left) - 1);
+            node.right = parts[0];
+            update(node);
+            return new Node[]{node, parts[1]};
+        }
+        Node[] parts = split(node.left, count);
+        node.left = parts[1];
+        update(node);
+        return new Node[]{parts[0], node};
+    }
+}
@@ -0,0 +1,4 @@
+package com.netstock.chessadmin.ranking;
+
+public record RankKey(Long playerId, Long rankKey) {
+}
@@ -0,0 +1,58 @@
+package com.netstock.chessadmin.ranking;
+
+import com.netstock.chessadmin.enums.MatchOutcome;
+
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * The ladder rules, expressed as the ranks the two players end up on:
+ * <ul>
+ *     <li>higher ranked player wins: nothing moves</li>
+ *     <li>draw: the lower ranked player moves up one place, unless the players are adjacent</li>
+ *     <li>upset: the higher ranked player drops one place and the winner moves up half the distance
+ *     between them; if both would land on the same rank the loser goes directly below the winner</li>
+ * </ul>
+ */
+public final class RankingRules {
+
+    private RankingRules() {
+    }
+
+    public record Placement(long playerId, int rank) {
+    }
+
+    public static List<Placement> placements(long playerOneId, int playerOneRank,
+                                             long playerTwoId, int playerTwoRank, MatchOutcome outcome) {
+        boolean playerOneHigher = playerOneRank < playerTwoRank;
+        long higherId = playerOneHigher ? playerOneId : playerTwoId;
+        long lowerId = playerOneHigher ? playerTwoId : playerOneId;
+        int higherRank = Math.min(playerOneRank, playerTwoRank);
+        int lowerRank = Math.max(playerOneRank, playerTwoRank);
+
+        if (MatchOutcome.DRAW.equals(outcome)) {
+            return lowerRank - higherRank > 1 ? List.of(new Placement(lowerId, lowerRank - 1)) : List.of();
+        }
+        boolean higherRankedWon = playerOneHigher == MatchOutcome.PLAYER_ONE_WON.equals(outcome);
+        if (higherRankedWon) {
+            return List.of();
+        }
+        int winnerNewRank = lowerRank - ((lowerRank - higherRank + 1) / 2);
+        int loserNewRank = higherRank + 1;
+        if (winnerNewRank == loserNewRank) {
+            ++loserNewRank;
+        }
+        return List.of(new Placement(higherId, loserNewRank), new Placement(lowerId, winnerNewRank));
+    }
+
+    /**
+     * Applies the placements to the index: every placed player is taken off the ladder and then
+     * re-inserted in ascending rank order, so the players in between close up around them.
+     */
+    public static void apply(RankIndex index, List<Placement> placements) {
+        placements.forEach(placement -> index.remove(placement.playerId()));
+        placements.stream()
+                .sorted(Comparator.comparingInt(Placement::rank))
+                .forEach(placement -> index.insert(placement.playerId(), placement.rank()));
+    }
+}
@@ -0,0 +1,67 @@
+package com.netstock.chessadmin.ranking;
+
+import com.netstock.chessadmin.enums.MatchOutcome;
+
+/**
+ * What a run of results adds to one player's record. A positive streak counts consecutive wins and a negative one
+ * consecutive losses; a draw ends either. {@code extendsStreak} is true when no result in the run broke the streak
+ * it started from, so that streak carries on into this one; otherwise the run's own streak replaces it.
+ * <p>
+ * Tallies combine in play order with {@link #then}, which is associative, so runs can be tallied independently and
+ * merged.
+ */
+public record ResultTally(long games, long wins, long losses, long draws, long upsetsScored, long upsetsSuffered,
+                          int streak, boolean extendsStreak) {
+
+    public static final ResultTally NONE = new ResultTally(0, 0, 0, 0, 0, 0, 0, true);
+
+    /**
+     * One match from the side of one of its players. An upset is a win by the lower ranked player; a match without
+     * an outcome counts as a game and leaves the streak alone.
+     */
+    public static ResultTally of(MatchOutcome outcome, boolean playerOne, boolean upset) {
+        if (null == outcome) {
+            return new ResultTally(1, 0, 0, 0, 0, 0, 0, true);
+        }
+        if (MatchOutcome.DRAW == outcome) {
+            return new ResultTally(1, 0, 0, 1, 0, 0, 0, false);
+        }
+        boolean won = playerOne == (MatchOutcome.PLAYER_ONE_WON == outcome);
+        return won
+                ? new ResultTally(1, 1, 0, 0, upset ? 1 : 0, 0, 1, true)
+                : new ResultTally(1, 0, 1, 0, 0, upset ? 1 : 0, -1, true);
+    }
+
+    /**
+     * Whether the result was won by the player that was lower on the ladder when it was played.
+     */
+    public static boolean isUpset(MatchOutcome outcome, int playerOneRankBefore, int playerTwoRankBefore) {
+        return MatchOutcome.PLAYER_ONE_WON == outcome && playerOneRankBefore > playerTwoRankBefore
+                || MatchOutcome.PLAYER_TWO_WON == outcome && playerTwoRankBefore > playerOneRankBefore;
+    }
+
+    /**
+     * This run followed by a later one.
+     */
+    public ResultTally then(ResultTally later) {
+        boolean continues = later.extendsStreak && Integer.signum(streak) * Integer.signum(later.streak) >= 0;
+        return new ResultTally(games + later.games, wins + later.wins, losses + later.losses, draws + later.draws,
+                upsetsScored + later.upsetsScored, upsetsSuffered + later.upsetsSuffered,
+                continues ? streak + later.streak : later.streak, continues && extendsStreak);
+    }
+
+    /**
+     * The streak a player on {@code current} ends on after this run.
+     */
+    public int streakAfter(int current) {
+        return extendsStreak && Integer.signum(current) * Integer.signum(streak) >= 0 ? current + streak : streak;
+    }
+
+    /**
+     * Takes this run back off the counters and sets the streak to the one the player is left with, which has to be
+     * worked out from the results that remain.
+     */
+    public ResultTally undone(int remainingStreak) {
+        return new ResultTally(-games, -wins, -losses, -draws, -upsetsScored, -upsetsSuffered, remainingStreak, false);
+    }
+}
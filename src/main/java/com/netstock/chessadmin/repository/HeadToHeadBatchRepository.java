@@ -0,0 +1,16 @@
+package com.netstock.chessadmin.repository;
+
+import com.netstock.chessadmin.entity.HeadToHead;
+import com.netstock.chessadmin.ranking.HeadToHeadTally;
+
+import java.util.Map;
+
+/**
+ * Head-to-head updates sent as JDBC batches.
+ */
+public interface HeadToHeadBatchRepository {
+    /**
+     * Adds each tally to the pair's row, creating the row for a pair's first match (pair -> tally).
+     */
+    void addResults(Map<HeadToHead.Key, HeadToHeadTally> results);
+}
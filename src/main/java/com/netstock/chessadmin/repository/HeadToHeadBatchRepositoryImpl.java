@@ -0,0 +1,75 @@
+package com.netstock.chessadmin.repository;
+
+import com.netstock.chessadmin.entity.HeadToHead;
+import com.netstock.chessadmin.ranking.HeadToHeadTally;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Updates every pair in one batch and inserts, in a second batch, only the pairs whose update found no row. Writes
+ * go through the ladder writer, so no other insert for the same pair can come in between.
+ */
+class HeadToHeadBatchRepositoryImpl implements HeadToHeadBatchRepository {
+    private static final int BATCH_SIZE = 500;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    HeadToHeadBatchRepositoryImpl(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    @Override
+    public void addResults(Map<HeadToHead.Key, HeadToHeadTally> results) {
+        if (results.isEmpty()) {
+            return;
+        }
+        entityManager.flush();
+        List<Map.Entry<HeadToHead.Key, HeadToHeadTally>> entries = new ArrayList<>(results.entrySet());
+        int[][] updated = jdbcTemplate.batchUpdate("UPDATE head_to_head SET low_player_wins = low_player_wins + ?, "
+                        + "high_player_wins = high_player_wins + ?, draws = draws + ?, "
+                        + "last_played_at = CASE WHEN last_played_at IS NULL OR last_played_at < ? THEN ? "
+                        + "ELSE last_played_at END WHERE low_player_id = ? AND high_player_id = ?",
+                entries, BATCH_SIZE, (statement, entry) -> {
+                    HeadToHeadTally tally = entry.getValue();
+                    Timestamp playedAt = null == tally.lastPlayedAt() ? null : Timestamp.from(tally.lastPlayedAt());
+                    statement.setLong(1, tally.lowPlayerWins());
+                    statement.setLong(2, tally.highPlayerWins());
+                    statement.setLong(3, tally.draws());
+                    statement.setTimestamp(4, playedAt);
+                    statement.setTimestamp(5, playedAt);
+                    statement.setLong(6, entry.getKey().getLowPlayerId());
+                    statement.setLong(7, entry.getKey().getHighPlayerId());
+                });
+        List<Map.Entry<HeadToHead.Key, HeadToHeadTally>> missing = new ArrayList<>();
+        int index = 0;
+        for (int[] batch : updated) {
+            for (int count : batch) {
+                if (count == 0) {
+                    missing.add(entries.get(index));
+                }
+                index++;
+            }
+        }
+        jdbcTemplate.batchUpdate("INSERT INTO head_to_head (low_player_id, high_player_id, low_player_wins, "
+                        + "high_player_wins, draws, last_played_at) VALUES (?, ?, ?, ?, ?, ?)",
+                missing, BATCH_SIZE, (statement, entry) -> {
+                    HeadToHeadTally tally = entry.getValue();
+                    statement.setLong(1, entry.getKey().getLowPlayerId());
+                    statement.setLong(2, entry.getKey().getHighPlayerId());
+                    statement.setLong(3, tally.lowPlayerWins());
+                    statement.setLong(4, tally.highPlayerWins());
+                    statement.setLong(5, tally.draws());
+                    statement.setTimestamp(6, null == tally.lastPlayedAt() ? null : Timestamp.from(tally.lastPlayedAt()));
+                });
+        entityManager.clear();
+    }
+}
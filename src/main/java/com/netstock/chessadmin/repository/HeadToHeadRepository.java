@@ -0,0 +1,47 @@
+package com.netstock.chessadmin.repository;
+
+import com.netstock.chessadmin.entity.HeadToHead;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+public interface HeadToHeadRepository extends JpaRepository<HeadToHead, HeadToHead.Key>, HeadToHeadBatchRepository {
+
+    /**
+     * Takes one match back off the pair's row; the last played time falls back to the pair's latest remaining
+     * match, or null when there is none, found through the player index with an IN list rather than an OR. Must be
+     * invoked inside a transaction, after the match is deleted.
+     */
+    @Modifying(clearAutomatically = true, flushAutomatically = true)
+    @Query("UPDATE HeadToHead h SET h.lowPlayerWins = h.lowPlayerWins - :lowPlayerWins, "
+            + "h.highPlayerWins = h.highPlayerWins - :highPlayerWins, h.draws = h.draws - :draws, "
+            + "h.lastPlayedAt = (SELECT MAX(m.createdAt) FROM Match m "
+            + "WHERE m.playerOneId IN (:lowPlayerId, :highPlayerId) AND m.playerTwoId IN (:lowPlayerId, :highPlayerId) "
+            + "AND m.playerOneId + m.playerTwoId = :lowPlayerId + :highPlayerId) "
+            + "WHERE h.lowPlayerId = :lowPlayerId AND h.highPlayerId = :highPlayerId")
+    void removeResult(@Param("lowPlayerId") Long lowPlayerId, @Param("highPlayerId") Long highPlayerId,
+                      @Param("lowPlayerWins") long lowPlayerWins, @Param("highPlayerWins") long highPlayerWins,
+                      @Param("draws") long draws);
+
+    @Modifying(clearAutomatically = true)
+    @Query("DELETE FROM HeadToHead h WHERE h.lowPlayerId = :playerId OR h.highPlayerId = :playerId")
+    void deleteByPlayer(@Param("playerId") Long playerId);
+
+    /**
+     * Builds every row from the match table in one statement, for a database whose matches predate the
+     * head-to-head table. Outcomes are stored by ordinal: 0 player one won, 1 player two won, 2 draw.
+     */
+    @Modifying
+    @Query(nativeQuery = true, value = "INSERT INTO head_to_head "
+            + "(low_player_id, high_player_id, low_player_wins, high_player_wins, draws, last_played_at) "
+            + "SELECT LEAST(player_one_id, player_two_id), GREATEST(player_one_id, player_two_id), "
+            + "SUM(CASE WHEN (outcome = 0 AND player_one_id < player_two_id) "
+            + "OR (outcome = 1 AND player_two_id < player_one_id) THEN 1 ELSE 0 END), "
+            + "SUM(CASE WHEN (outcome = 0 AND player_one_id > player_two_id) "
+            + "OR (outcome = 1 AND player_two_id > player_one_id) THEN 1 ELSE 0 END), "
+            + "SUM(CASE WHEN outcome = 2 THEN 1 ELSE 0 END), MAX(created_at) "
+            + "FROM match WHERE player_one_id IS NOT NULL AND player_two_id IS NOT NULL "
+            + "GROUP BY LEAST(player_one_id, player_two_id), GREATEST(player_one_id, player_two_id)")
+    int insertFromMatches();
+}
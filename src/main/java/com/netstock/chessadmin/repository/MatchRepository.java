@@ -1,33 +1,141 @@
 package com.netstock.chessadmin.repository;
 
+import com.netstock.chessadmin.dto.MatchCursor;
+import com.netstock.chessadmin.dto.MatchExportRow;
 import com.netstock.chessadmin.entity.Match;
+import com.netstock.chessadmin.ranking.PlayedMatch;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 
+import java.time.Instant;
+import java.util.Comparator;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 public interface MatchRepository extends JpaRepository<Match, Long> {
 
     @Query("select m from Match m left join fetch m.playerOne left join fetch m.playerTwo where m.id = :id")
     Optional<Match> findByIdWithPlayers(@Param("id") Long id);
 
-    @Query("select distinct m from Match m left join fetch m.playerOne left join fetch m.playerTwo")
+    // both joins are to-one, so there are no duplicate rows to remove
+    @Query("select m from Match m left join fetch m.playerOne left join fetch m.playerTwo")
     List<Match> findAllWithPlayers();
 
+    /**
+     * Keyset page of the newest matches, with their players: use {@link #findNewestPageBefore} with the last match
+     * of this page to get the next one.
+     */
+    @Query("select m from Match m left join fetch m.playerOne left join fetch m.playerTwo "
+            + "order by m.createdAt desc, m.id desc")
+    List<Match> findNewestPage(Limit limit);
+
+    /**
+     * The next {@code limit} matches older than the cursor ({@code createdAt}, {@code id}), newest first.
+     */
+    @Query("select m from Match m left join fetch m.playerOne left join fetch m.playerTwo "
+            + "where m.createdAt < :createdAt or (m.createdAt = :createdAt and m.id < :id) "
+            + "order by m.createdAt desc, m.id desc")
+    List<Match> findNewestPageBefore(@Param("createdAt") Instant createdAt, @Param("id") Long id, Limit limit);
+
+    /**
+     * Every match with its players, oldest first, read in chunks and not tracked for changes. Must be consumed
+     * inside a transaction and closed.
+     */
+    @QueryHints({@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")})
+    @Query("select m from Match m left join fetch m.playerOne left join fetch m.playerTwo order by m.createdAt, m.id")
+    Stream<Match> streamAllWithPlayers();
+
+    /**
+     * Every result in the order it was played, as plain values read in chunks. Must be consumed inside a
+     * transaction and closed.
+     */
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "10000"))
+    @Query("select new com.netstock.chessadmin.ranking.PlayedMatch(m.playerOneId, m.playerTwoId, m.outcome, m.createdAt) "
+            + "from Match m order by m.createdAt asc nulls first, m.id asc")
+    Stream<PlayedMatch> streamResultsInPlayOrder();
+
+    /**
+     * The match history oldest first as plain rows with the players' names, read in chunks. Must be consumed inside
+     * a transaction and closed.
+     */
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"))
+    @Query("select new com.netstock.chessadmin.dto.MatchExportRow(m.id, m.createdAt, m.outcome, "
+            + "m.playerOneId, p1.firstName, p1.lastName, m.playerTwoId, p2.firstName, p2.lastName) "
+            + "from Match m left join m.playerOne p1 left join m.playerTwo p2 "
+            + "order by m.createdAt asc nulls first, m.id asc")
+    Stream<MatchExportRow> streamExportRows();
+
+    /**
+     * One page of a player's matches, newest first, older than the cursor; pass {@link MatchCursor#NEWEST} or null
+     * for the first page. Each side of the match is read with its own range scan over the (player, createdAt, id)
+     * index, so the cost follows the player's own games, not the size of the match table.
+     */
+    default List<Match> findMatchesForPlayer(Long playerId, MatchCursor cursor, int limit) {
+        MatchCursor from = null == cursor ? MatchCursor.NEWEST : cursor;
+        Limit page = Limit.of(limit);
+        return Stream.concat(
+                        findAsPlayerOneBefore(playerId, from.createdAt(), from.id(), page).stream(),
+                        findAsPlayerTwoBefore(playerId, from.createdAt(), from.id(), page).stream())
+                .distinct()
+                .sorted(Comparator.comparing(Match::getCreatedAt).thenComparing(Match::getId).reversed())
+                .limit(limit)
+                .toList();
+    }
+
+    @Query("select m from Match m left join fetch m.playerOne left join fetch m.playerTwo "
+            + "where m.playerOneId = :playerId and (m.createdAt < :createdAt or (m.createdAt = :createdAt and m.id < :id)) "
+            + "order by m.createdAt desc, m.id desc")
+    List<Match> findAsPlayerOneBefore(@Param("playerId") Long playerId, @Param("createdAt") Instant createdAt,
+                                      @Param("id") Long id, Limit limit);
+
+    @Query("select m from Match m left join fetch m.playerOne left join fetch m.playerTwo "
+            + "where m.playerTwoId = :playerId and (m.createdAt < :createdAt or (m.createdAt = :createdAt and m.id < :id)) "
+            + "order by m.createdAt desc, m.id desc")
+    List<Match> findAsPlayerTwoBefore(@Param("playerId") Long playerId, @Param("createdAt") Instant createdAt,
+                                      @Param("id") Long id, Limit limit);
+
+    /**
+     * A page of matches with both players fetched in the same select; safe to paginate because both are to-one.
+     */
+    @EntityGraph(attributePaths = {"playerOne", "playerTwo"})
+    List<Match> findAllBy(Pageable pageable);
+
     /**
      * Clear references to a player by setting playerOneId/playerTwoId to NULL where they match the given id.
-     * Requires that the playerOneId/playerTwoId columns are nullable.
-     * Returns number of rows updated. Must be invoked inside a transaction.
+     * Requires that the playerOneId/playerTwoId columns are nullable. One statement per side, so each is an index
+     * lookup on that side's player column instead of a scan of every match. Must be invoked inside a transaction.
      */
+    default void clearPlayerReferences(Long playerId) {
+        clearPlayerOneReferences(playerId);
+        clearPlayerTwoReferences(playerId);
+    }
+
+    @Modifying(clearAutomatically = true)
+    @Query("UPDATE Match m SET m.playerOneId = NULL, m.version = m.version + 1 WHERE m.playerOneId = :playerId")
+    void clearPlayerOneReferences(@Param("playerId") Long playerId);
+
     @Modifying(clearAutomatically = true)
-    @Query("UPDATE Match m SET "
-            + "m.playerOneId = CASE WHEN m.playerOneId = :playerId THEN NULL ELSE m.playerOneId END, "
-            + "m.playerTwoId = CASE WHEN m.playerTwoId = :playerId THEN NULL ELSE m.playerTwoId END "
-            + "WHERE m.playerOneId = :playerId OR m.playerTwoId = :playerId")
-    void clearPlayerReferences(@Param("playerId") Long playerId);
+    @Query("UPDATE Match m SET m.playerTwoId = NULL, m.version = m.version + 1 WHERE m.playerTwoId = :playerId")
+    void clearPlayerTwoReferences(@Param("playerId") Long playerId);
+
+    /**
+     * Two index probes rather than one OR over both columns, which would scan the table.
+     */
+    default boolean existsByPlayerOneIdOrPlayerTwoId(Long playerOneId, Long playerTwoId) {
+        return existsByPlayerOneId(playerOneId) || existsByPlayerTwoId(playerTwoId);
+    }
+
+    boolean existsByPlayerOneId(Long playerId);
 
-    boolean existsByPlayerOneIdOrPlayerTwoId(Long playerOneId, Long playerTwoId);
+    boolean existsByPlayerTwoId(Long playerId);
 }
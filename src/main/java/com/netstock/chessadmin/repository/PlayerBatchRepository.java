@@ -0,0 +1,58 @@
+package com.netstock.chessadmin.repository;
+
+import com.netstock.chessadmin.entity.Player;
+import com.netstock.chessadmin.ranking.ResultTally;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Bulk player updates sent as JDBC batches, for writes that touch many rows at once. Each evicts only the players it
+ * wrote from the second-level cache, where a JPQL bulk update would drop every cached player. A write that finds a
+ * player gone, deleted by another transaction, fails with an optimistic locking conflict.
+ */
+public interface PlayerBatchRepository {
+    /**
+     * Inserts new players and sets their ids. The players are detached afterwards.
+     */
+    void insertAll(List<Player> players);
+
+    /**
+     * The version of the ladder as a whole, from the {@code ladder_state} row. Every transaction that changes the
+     * order of the ladder advances it, so a ranking index loaded at an older version is stale.
+     */
+    long findLadderVersion();
+
+    /**
+     * Advances the ladder version from {@code ladderVersion}, or fails with
+     * {@link org.springframework.orm.ObjectOptimisticLockingFailureException} if another transaction has advanced it
+     * since. The row stays locked until this transaction ends, so ladder writes elsewhere wait for it.
+     */
+    void advanceLadder(long ladderVersion);
+
+    /**
+     * Advances the ladder version whatever it is, for writes that replace the whole order.
+     */
+    void advanceLadder();
+
+    void updateRankKey(Long playerId, long rankKey);
+
+    /**
+     * Sets the rank key of every player in the map (player id -> rank key).
+     */
+    void updateRankKeys(Map<Long, Long> rankKeys);
+
+    /**
+     * Adds each tally to the player's games played and result totals, and carries the streak on from the stored
+     * one (player id -> tally).
+     */
+    void addResults(Map<Long, ResultTally> results);
+
+    void incrementGamesPlayed(Collection<Long> playerIds);
+
+    /**
+     * Overwrites each player's games played, result totals and streak with the tally (player id -> tally).
+     */
+    void setResults(Map<Long, ResultTally> results);
+}
@@ -0,0 +1,206 @@
+package com.netstock.chessadmin.repository;
+
+import com.netstock.chessadmin.entity.Player;
+import com.netstock.chessadmin.ranking.ResultTally;
+import jakarta.persistence.Cache;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.hibernate.Session;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+
+/**
+ * The statements run on the connection of the surrounding JPA transaction. They leave each row's version alone: it
+ * guards the fields edited in the player form, and {@link Player} is updated dynamically, so a form save never
+ * writes back the columns changed here. Like a {@code @Modifying(clearAutomatically = true)} query, the persistence
+ * context is flushed before and cleared after so that no stale player is read back. The written players are evicted
+ * from the second-level cache at once and again when the transaction completes, since another transaction may cache
+ * the old row in between.
+ */
+class PlayerBatchRepositoryImpl implements PlayerBatchRepository {
+    private static final int BATCH_SIZE = 500;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    PlayerBatchRepositoryImpl(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    /**
+     * Persisted through Hibernate so the pooled id sequence is used, with the session batching the inserts.
+     */
+    @Override
+    public void insertAll(List<Player> players) {
+        if (players.isEmpty()) {
+            return;
+        }
+        Session session = entityManager.unwrap(Session.class);
+        entityManager.flush();
+        Integer batchSize = session.getJdbcBatchSize();
+        session.setJdbcBatchSize(BATCH_SIZE);
+        try {
+            for (int i = 0; i < players.size(); i++) {
+                entityManager.persist(players.get(i));
+                if ((i + 1) % BATCH_SIZE == 0) {
+                    entityManager.flush();
+                    entityManager.clear();
+                }
+            }
+            entityManager.flush();
+        } finally {
+            session.setJdbcBatchSize(batchSize);
+        }
+        entityManager.clear();
+    }
+
+    @Override
+    public long findLadderVersion() {
+        return jdbcTemplate.queryForList("SELECT version FROM ladder_state WHERE id = 1", Long.class).stream()
+                .findFirst()
+                .orElse(0L);
+    }
+
+    @Override
+    public void advanceLadder(long ladderVersion) {
+        if (0 == jdbcTemplate.update("UPDATE ladder_state SET version = version + 1 WHERE id = 1 AND version = ?",
+                ladderVersion)) {
+            throw new ObjectOptimisticLockingFailureException("ladder_state", 1L);
+        }
+    }
+
+    @Override
+    public void advanceLadder() {
+        jdbcTemplate.update("UPDATE ladder_state SET version = version + 1 WHERE id = 1");
+    }
+
+    @Override
+    public void updateRankKey(Long playerId, long rankKey) {
+        updateRankKeys(Map.of(playerId, rankKey));
+    }
+
+    @Override
+    public void updateRankKeys(Map<Long, Long> rankKeys) {
+        if (rankKeys.isEmpty()) {
+            return;
+        }
+        entityManager.flush();
+        List<Map.Entry<Long, Long>> rows = new ArrayList<>(rankKeys.entrySet());
+        int[][] counts = jdbcTemplate.batchUpdate("UPDATE player SET rank_key = ? WHERE id = ?",
+                rows, BATCH_SIZE, (statement, entry) -> {
+                    statement.setLong(1, entry.getValue());
+                    statement.setLong(2, entry.getKey());
+                });
+        written(rankKeys.keySet());
+        requireEveryRow(counts, rows, Map.Entry::getKey);
+    }
+
+    @Override
+    public void incrementGamesPlayed(Collection<Long> playerIds) {
+        if (playerIds.isEmpty()) {
+            return;
+        }
+        entityManager.flush();
+        List<Long> rows = new ArrayList<>(playerIds);
+        int[][] counts = jdbcTemplate.batchUpdate(
+                "UPDATE player SET number_of_games_played = number_of_games_played + 1 WHERE id = ?",
+                rows, BATCH_SIZE, (statement, playerId) -> statement.setLong(1, playerId));
+        written(playerIds);
+        requireEveryRow(counts, rows, Function.identity());
+    }
+
+    @Override
+    public void addResults(Map<Long, ResultTally> results) {
+        if (results.isEmpty()) {
+            return;
+        }
+        entityManager.flush();
+        List<Map.Entry<Long, ResultTally>> rows = new ArrayList<>(results.entrySet());
+        int[][] counts = jdbcTemplate.batchUpdate("UPDATE player SET "
+                        + "number_of_games_played = number_of_games_played + ?, "
+                        + "wins = wins + ?, losses = losses + ?, draws = draws + ?, "
+                        + "upsets_scored = upsets_scored + ?, upsets_suffered = upsets_suffered + ?, "
+                        + "streak = CASE WHEN ? AND SIGN(streak) * SIGN(?) >= 0 THEN streak + ? ELSE ? END "
+                        + "WHERE id = ?",
+                rows, BATCH_SIZE, (statement, entry) -> {
+                    ResultTally tally = entry.getValue();
+                    setCounters(statement, tally);
+                    statement.setBoolean(7, tally.extendsStreak());
+                    statement.setInt(8, tally.streak());
+                    statement.setInt(9, tally.streak());
+                    statement.setInt(10, tally.streak());
+                    statement.setLong(11, entry.getKey());
+                });
+        written(results.keySet());
+        requireEveryRow(counts, rows, Map.Entry::getKey);
+    }
+
+    @Override
+    public void setResults(Map<Long, ResultTally> results) {
+        if (results.isEmpty()) {
+            return;
+        }
+        entityManager.flush();
+        List<Map.Entry<Long, ResultTally>> rows = new ArrayList<>(results.entrySet());
+        int[][] counts = jdbcTemplate.batchUpdate("UPDATE player SET number_of_games_played = ?, wins = ?, "
+                        + "losses = ?, draws = ?, upsets_scored = ?, upsets_suffered = ?, streak = ? WHERE id = ?",
+                rows, BATCH_SIZE, (statement, entry) -> {
+                    setCounters(statement, entry.getValue());
+                    statement.setInt(7, entry.getValue().streak());
+                    statement.setLong(8, entry.getKey());
+                });
+        written(results.keySet());
+        requireEveryRow(counts, rows, Map.Entry::getKey);
+    }
+
+    private void written(Collection<Long> playerIds) {
+        entityManager.clear();
+        List<Long> evicted = List.copyOf(playerIds);
+        Cache cache = entityManager.getEntityManagerFactory().getCache();
+        evicted.forEach(playerId -> cache.evict(Player.class, playerId));
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    evicted.forEach(playerId -> cache.evict(Player.class, playerId));
+                }
+            });
+        }
+    }
+
+    /**
+     * Fails on the first statement that updated no row: its player was deleted after this transaction read it.
+     * Counts are in batch order, one array per batch of {@link #BATCH_SIZE}.
+     */
+    private static <T> void requireEveryRow(int[][] counts, List<T> rows, Function<T, Long> playerId) {
+        for (int batch = 0; batch < counts.length; batch++) {
+            for (int i = 0; i < counts[batch].length; i++) {
+                if (0 == counts[batch][i]) {
+                    throw new ObjectOptimisticLockingFailureException(Player.class,
+                            playerId.apply(rows.get(batch * BATCH_SIZE + i)));
+                }
+            }
+        }
+    }
+
+    private static void setCounters(PreparedStatement statement, ResultTally tally) throws SQLException {
+        statement.setLong(1, tally.games());
+        statement.setLong(2, tally.wins());
+        statement.setLong(3, tally.losses());
+        statement.setLong(4, tally.draws());
+        statement.setLong(5, tally.upsetsScored());
+        statement.setLong(6, tally.upsetsSuffered());
+    }
+}
@@ -1,37 +1,86 @@
 package com.netstock.chessadmin.repository;
 
+import com.netstock.chessadmin.dto.PlayerExportRow;
+import com.netstock.chessadmin.dto.PlayerName;
 import com.netstock.chessadmin.entity.Player;
+import com.netstock.chessadmin.ranking.PlayerJoin;
+import com.netstock.chessadmin.ranking.RankKey;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
-import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 
+import java.util.Collection;
 import java.util.List;
+import java.util.Set;
+import java.util.stream.Stream;
 
-public interface PlayerRepository extends JpaRepository<Player, Long> {
-    @Query("SELECT COALESCE(MAX(p.rank), 0) FROM Player p")
-    Integer findHighestRank();
+public interface PlayerRepository extends JpaRepository<Player, Long>, PlayerBatchRepository {
+    @Query("SELECT COALESCE(MAX(p.rankKey), 0) FROM Player p")
+    Long findHighestRankKey();
 
-    @Modifying(clearAutomatically = true)
-    @Query("UPDATE Player p SET p.rank = p.rank - 1 WHERE p.rank = :rank")
-    void decrementRankByOne(@Param("rank") Integer rank);
+    /**
+     * Read through the second-level cache, so a player that is cached costs no query.
+     */
+    @Override
+    default boolean existsById(Long playerId) {
+        return findById(playerId).isPresent();
+    }
 
-    @Modifying(clearAutomatically = true)
-    @Query("UPDATE Player p SET p.rank = p.rank + 1 WHERE p.rank = :rank")
-    void incrementRankByOne(@Param("rank") Integer rank);
+    @Query("SELECT p.id FROM Player p WHERE p.id IN :ids")
+    Set<Long> findExistingIds(@Param("ids") Collection<Long> playerIds);
 
-    @Modifying(clearAutomatically = true)
-    @Query("UPDATE Player p SET p.rank = p.rank + 1 WHERE p.rank >= :start AND p.rank < :stop")
-    void incrementRanksFrom(@Param("start") int startRank, @Param("stop") int stopRank);
+    @Query("SELECT p FROM Player p ORDER BY p.rankKey ASC, p.id ASC")
+    List<Player> findAllOrderByRankAsc();
 
-    @Modifying(clearAutomatically = true)
-    @Query("UPDATE Player p SET p.rank = p.rank - 1 WHERE p.rank > :start AND p.rank <= :stop")
-    void decrementRanksFrom(@Param("start") int startRank, @Param("stop") int stopRank);
+    /**
+     * Keyset page of the ladder: the next {@code limit} players below the one holding {@code afterRankKey}. Pass 0 for
+     * the first page. Costs the same however deep the page is.
+     */
+    @Query("SELECT p FROM Player p WHERE p.rankKey > :afterRankKey ORDER BY p.rankKey ASC")
+    List<Player> findPageAfterRankKey(@Param("afterRankKey") long afterRankKey, Limit limit);
 
-    @Modifying(clearAutomatically = true)
-    @Query("UPDATE Player p SET p.rank = :newRank WHERE p.id = :playerId")
-    void updatePlayerRankById(@Param("playerId") Long playerId, @Param("newRank") int newRank);
+    /**
+     * The player and the next {@code limit - 1} below it, in rank order: one seek on {@code idx_rank} to the
+     * player's key and a range scan from there, so the cost does not depend on the size of the ladder.
+     */
+    @Query("SELECT p FROM Player p WHERE p.rankKey >= (SELECT q.rankKey FROM Player q WHERE q.id = :playerId) "
+            + "ORDER BY p.rankKey ASC, p.id ASC")
+    List<Player> findFromRankOf(@Param("playerId") Long playerId, Limit limit);
 
-    @Query("SELECT p FROM Player p ORDER BY COALESCE(p.rank) ASC")
-    List<Player> findAllOrderByRankAsc();
+    /**
+     * The whole ladder in rank order, read in chunks and not tracked for changes. Must be consumed inside a
+     * transaction and closed.
+     */
+    @QueryHints({@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")})
+    @Query("SELECT p FROM Player p ORDER BY p.rankKey ASC, p.id ASC")
+    Stream<Player> streamAllOrderByRankAsc();
+
+    @Query("SELECT new com.netstock.chessadmin.ranking.RankKey(p.id, p.rankKey) FROM Player p "
+            + "ORDER BY p.rankKey ASC NULLS LAST, p.id ASC")
+    List<RankKey> findAllRankKeys();
+
+    /**
+     * Every player in the order they joined the ladder; players without a join time come first, by id.
+     */
+    @Query("SELECT new com.netstock.chessadmin.ranking.PlayerJoin(p.id, p.createdAt) FROM Player p "
+            + "ORDER BY p.createdAt ASC NULLS FIRST, p.id ASC")
+    List<PlayerJoin> findAllInJoinOrder();
+
+    /**
+     * The ladder in rank order as plain rows, read in chunks; the rank is left 0 for the reader to count. Must be
+     * consumed inside a transaction and closed.
+     */
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"))
+    @Query("SELECT new com.netstock.chessadmin.dto.PlayerExportRow(0, p.id, p.firstName, p.lastName, p.email, "
+            + "p.dateOfBirth, p.numberOfGamesPlayed, p.wins, p.draws, p.losses, p.streak) FROM Player p "
+            + "ORDER BY p.rankKey ASC NULLS LAST, p.id ASC")
+    Stream<PlayerExportRow> streamExportRows();
+
+    @Query("SELECT new com.netstock.chessadmin.dto.PlayerName(p.id, p.firstName, p.lastName, p.email) FROM Player p")
+    List<PlayerName> findAllNames();
 }
@@ -0,0 +1,22 @@
+package com.netstock.chessadmin.repository;
+
+import com.netstock.chessadmin.entity.RankingEvent;
+
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * Bulk access to the ranking log over plain JDBC: appends as batches, reads as one forward-only pass.
+ */
+public interface RankingEventBatchRepository {
+    /**
+     * Appends the events in list order as JDBC batches.
+     */
+    void appendAll(List<RankingEvent> events);
+
+    /**
+     * Hands every event to the consumer in log order without holding more than one fetch of rows in memory. The
+     * events are plain objects, not managed entities.
+     */
+    void forEachInOrder(Consumer<RankingEvent> consumer);
+}
@@ -0,0 +1,92 @@
+package com.netstock.chessadmin.repository;
+
+import com.netstock.chessadmin.entity.RankingEvent;
+import com.netstock.chessadmin.enums.RankingEventType;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * Runs on the connection of the surrounding JPA transaction; the persistence context is flushed first so pending
+ * inserts are part of what is read.
+ */
+class RankingEventBatchRepositoryImpl implements RankingEventBatchRepository {
+    private static final int BATCH_SIZE = 500;
+    private static final int FETCH_SIZE = 10_000;
+    private static final RankingEventType[] TYPES = RankingEventType.values();
+
+    private final JdbcTemplate jdbcTemplate;
+    private final JdbcTemplate streamingTemplate;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    RankingEventBatchRepositoryImpl(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.streamingTemplate = new JdbcTemplate(jdbcTemplate.getDataSource());
+        streamingTemplate.setFetchSize(FETCH_SIZE);
+    }
+
+    @Override
+    public void appendAll(List<RankingEvent> events) {
+        if (events.isEmpty()) {
+            return;
+        }
+        jdbcTemplate.batchUpdate("INSERT INTO ranking_event (type, match_id, player_one_id, player_one_rank_before, "
+                        + "player_one_rank_after, player_two_id, player_two_rank_before, player_two_rank_after, "
+                        + "created_at) VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?)",
+                events, BATCH_SIZE, (statement, event) -> {
+                    statement.setInt(1, event.getType().ordinal());
+                    setNullable(statement, 2, event.getMatchId(), Types.BIGINT);
+                    setNullable(statement, 3, event.getPlayerOneId(), Types.BIGINT);
+                    setNullable(statement, 4, event.getPlayerOneRankBefore(), Types.INTEGER);
+                    setNullable(statement, 5, event.getPlayerOneRankAfter(), Types.INTEGER);
+                    setNullable(statement, 6, event.getPlayerTwoId(), Types.BIGINT);
+                    setNullable(statement, 7, event.getPlayerTwoRankBefore(), Types.INTEGER);
+                    setNullable(statement, 8, event.getPlayerTwoRankAfter(), Types.INTEGER);
+                    statement.setTimestamp(9, Timestamp.from(event.getCreatedAt()));
+                });
+    }
+
+    @Override
+    public void forEachInOrder(Consumer<RankingEvent> consumer) {
+        entityManager.flush();
+        streamingTemplate.query("SELECT id, type, match_id, player_one_id, player_one_rank_before, player_one_rank_after, "
+                        + "player_two_id, player_two_rank_before, player_two_rank_after, created_at "
+                        + "FROM ranking_event ORDER BY id",
+                (RowCallbackHandler) resultSet -> consumer.accept(toEvent(resultSet)));
+    }
+
+    private static RankingEvent toEvent(ResultSet resultSet) throws SQLException {
+        RankingEvent event = new RankingEvent();
+        event.setId(resultSet.getLong(1));
+        event.setType(TYPES[resultSet.getInt(2)]);
+        event.setMatchId(resultSet.getObject(3, Long.class));
+        event.setPlayerOneId(resultSet.getObject(4, Long.class));
+        event.setPlayerOneRankBefore(resultSet.getObject(5, Integer.class));
+        event.setPlayerOneRankAfter(resultSet.getObject(6, Integer.class));
+        event.setPlayerTwoId(resultSet.getObject(7, Long.class));
+        event.setPlayerTwoRankBefore(resultSet.getObject(8, Integer.class));
+        event.setPlayerTwoRankAfter(resultSet.getObject(9, Integer.class));
+        event.setCreatedAt(resultSet.getTimestamp(10).toInstant());
+        return event;
+    }
+
+    private static void setNullable(PreparedStatement statement, int index, Object value, int sqlType)
+            throws SQLException {
+        if (null == value) {
+            statement.setNull(index, sqlType);
+        } else {
+            statement.setObject(index, value, sqlType);
+        }
+    }
+}
@@ -0,0 +1,11 @@
+package com.netstock.chessadmin.repository;
+
+import com.netstock.chessadmin.entity.RankingEvent;
+import com.netstock.chessadmin.enums.RankingEventType;
+import org.springframework.data.jpa.repository.JpaRepository;
+
+import java.util.Optional;
+
+public interface RankingEventRepository extends JpaRepository<RankingEvent, Long>, RankingEventBatchRepository {
+    Optional<RankingEvent> findFirstByMatchIdAndType(Long matchId, RankingEventType type);
+}
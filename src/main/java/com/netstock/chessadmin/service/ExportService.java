@@ -0,0 +1,22 @@
+package com.netstock.chessadmin.service;
+
+import com.netstock.chessadmin.enums.ExportFormat;
+
+import java.io.IOException;
+import java.io.OutputStream;
+
+/**
+ * Writes the ladder and the match history row by row as they are read, so an export of any size runs in the same
+ * memory. The stream is flushed but not closed.
+ */
+public interface ExportService {
+    /**
+     * Every player in rank order with their rank and result totals.
+     */
+    void exportPlayers(ExportFormat format, OutputStream out) throws IOException;
+
+    /**
+     * Every match in the order it was played, with both players' names.
+     */
+    void exportMatches(ExportFormat format, OutputStream out) throws IOException;
+}
@@ -1,10 +1,57 @@
 package com.netstock.chessadmin.service;
 
+import com.netstock.chessadmin.dto.LeaderBoardSnapshot;
 import com.netstock.chessadmin.entity.Player;
+import org.springframework.data.domain.Pageable;
 
 import java.util.List;
+import java.util.Optional;
+import java.util.function.Consumer;
 
 public interface LeaderBoardService {
     List<Player> loadPlayersSortedByRank();
-}
 
+    /**
+     * The current leaderboard, served from memory. It is only rebuilt after a ladder change has committed.
+     */
+    LeaderBoardSnapshot snapshot();
+
+    /**
+     * The version the next {@link #snapshot()} will have, read without touching the database. It moves on with
+     * every committed ladder change.
+     */
+    long version();
+
+    /**
+     * One page of the current snapshot. Rank order, either direction, is read straight off the snapshot; any other
+     * sort orders a copy of it.
+     */
+    List<LeaderBoardSnapshot.Entry> getEntries(Pageable pageable);
+
+    /**
+     * Called with what each committed ladder change did to the leaderboard, on the thread that made the change;
+     * listeners must hand the work off rather than block it.
+     */
+    void addDiffListener(Consumer<LeaderBoardSnapshot.Diff> listener);
+
+    void removeDiffListener(Consumer<LeaderBoardSnapshot.Diff> listener);
+
+    /**
+     * The player and up to {@code k} players on either side of them, in rank order; empty if the player is not on
+     * the ladder. Reads only those rows, however long the ladder is.
+     */
+    List<LeaderBoardSnapshot.Entry> window(Long playerId, int k);
+
+    /**
+     * The players ranked {@code fromRank} to {@code toRank}, cut off at the bottom of the ladder. Reads only those
+     * rows, however long the ladder is.
+     */
+    List<LeaderBoardSnapshot.Entry> range(int fromRank, int toRank);
+
+    /**
+     * The player's current rank, or 0 if they are not on the ladder.
+     */
+    int rankOf(Long playerId);
+
+    Optional<Player> playerAtRank(int rank);
+}
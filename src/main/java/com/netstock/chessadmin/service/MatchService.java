@@ -1,17 +1,68 @@
 package com.netstock.chessadmin.service;
 
+import com.netstock.chessadmin.dto.HeadToHeadDTO;
+import com.netstock.chessadmin.dto.MatchCursor;
 import com.netstock.chessadmin.dto.MatchDTO;
+import com.netstock.chessadmin.dto.MatchImportResult;
 import com.netstock.chessadmin.dto.PlayerDTO;
+import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
 
+import java.io.Reader;
 import java.util.List;
 import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
 
 @Service
 public interface MatchService {
     List<PlayerDTO> getMatchPlayers();
     List<MatchDTO> getAllMatches();
+
+    /**
+     * One page of matches with their players. The pageable may sort on match properties and on player
+     * properties such as {@code playerOne.lastName}.
+     */
+    List<MatchDTO> getMatches(Pageable pageable);
+
+    long countMatches();
     MatchDTO saveMatch(MatchDTO matchDTO);
+    List<MatchDTO> saveMatches(List<MatchDTO> matchDTOs);
+
+    /**
+     * Queues {@link #saveMatch} on the ladder writer; ranks are read when the match is applied, not when submitted.
+     */
+    CompletableFuture<MatchDTO> submitMatch(MatchDTO matchDTO);
+
+    /**
+     * Queues {@link #saveMatches} on the ladder writer.
+     */
+    CompletableFuture<List<MatchDTO>> submitMatches(List<MatchDTO> matchDTOs);
     Optional<MatchDTO> findById(Long id);
     void deleteMatch(Long id);
+
+    /**
+     * Queues {@link #deleteMatch} on the ladder writer.
+     */
+    CompletableFuture<Void> submitDeleteMatch(Long id);
+
+    /**
+     * The record between two players, read from one pre-aggregated row; all zeros when they have not met.
+     */
+    HeadToHeadDTO getHeadToHead(Long playerOneId, Long playerTwoId);
+
+    /**
+     * One page of the matches a player took part in on either side, newest first. Start from
+     * {@link MatchCursor#NEWEST} and continue from {@link MatchCursor#after} the last match of each page.
+     */
+    List<MatchDTO> findMatchesForPlayer(Long playerId, MatchCursor cursor, int limit);
+
+    /**
+     * Reads a PGN file game by game and applies the results to the ladder in file order, White as player one,
+     * through {@link #submitMatches} in chunks. Players are matched by name or email. Games without a decisive or
+     * drawn result, with a player that is unknown or ambiguous, or dated before a game already read are reported
+     * and skipped. Each match is stored as played at the start of its {@code Date}, so a recompute replays it in
+     * play order, or at the import time when the game has no full date. If a chunk fails the chunks before it stay
+     * imported. Must not be called on the ladder writer.
+     */
+    MatchImportResult importPgn(Reader pgn);
 }
@@ -0,0 +1,28 @@
+package com.netstock.chessadmin.service;
+
+import com.netstock.chessadmin.dto.PlayerName;
+
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Typeahead search over player names and emails, answered from memory.
+ */
+public interface PlayerSearchService {
+    /**
+     * Up to {@code limit} players with, for every word of {@code text}, a first name, last name or email word
+     * starting with it, ignoring case. Blank text matches everyone. Results are in order of the word that matched
+     * the first search word.
+     */
+    List<PlayerName> search(String text, int limit);
+
+    /**
+     * Adds or replaces the players once the current transaction commits, or at once outside one.
+     */
+    void putAll(Collection<PlayerName> players);
+
+    /**
+     * Drops the player once the current transaction commits, or at once outside one.
+     */
+    void remove(Long playerId);
+}
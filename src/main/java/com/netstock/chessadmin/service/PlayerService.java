@@ -1,13 +1,48 @@
 package com.netstock.chessadmin.service;
 
 import com.netstock.chessadmin.dto.PlayerDTO;
+import com.netstock.chessadmin.dto.PlayerImportResult;
+import org.springframework.data.domain.Pageable;
 
+import java.io.Reader;
+import java.nio.file.Path;
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
 
 public interface PlayerService {
     List<PlayerDTO> getAllPlayers();
 
+    /**
+     * One page of players. Besides the entity properties the pageable may sort on {@code rank}.
+     */
+    List<PlayerDTO> getPlayers(Pageable pageable);
+
+    long countPlayers();
+
     void save(PlayerDTO player);
 
     void delete(Long playerId);
+
+    /**
+     * Queues {@link #save} on the ladder writer, so new players are appended one at a time.
+     */
+    CompletableFuture<Void> submitSave(PlayerDTO player);
+
+    /**
+     * Queues {@link #delete} on the ladder writer.
+     */
+    CompletableFuture<Void> submitDelete(Long playerId);
+
+    /**
+     * Adds the players in a CSV file ({@link com.netstock.chessadmin.mapper.PlayerCsv}) to the bottom of the ladder
+     * in file order, reading it line by line. Lines that are not a valid player are reported and skipped; a header
+     * line is ignored.
+     */
+    PlayerImportResult importPlayers(Reader csv);
+
+    /**
+     * Queues {@link #importPlayers} of a UTF-8 CSV file on the ladder writer. The file is opened again for every
+     * attempt, so an import retried after an optimistic locking conflict reads it from the first line.
+     */
+    CompletableFuture<PlayerImportResult> submitImport(Path csv);
 }
@@ -0,0 +1,53 @@
+package com.netstock.chessadmin.service;
+
+import com.netstock.chessadmin.enums.MatchOutcome;
+import com.netstock.chessadmin.ranking.LadderChange;
+import com.netstock.chessadmin.ranking.MatchResult;
+
+import java.util.List;
+
+public interface RankingService {
+    /**
+     * Spacing between the rank keys of consecutive players when keys are handed out or respread.
+     */
+    long RANK_KEY_GAP = 1L << 32;
+
+    int ladderSize();
+
+    int rankOf(Long playerId);
+
+    /**
+     * The player's rank, or 0 if they are not on the ladder. Unlike {@link #rankOf}, an id the index does not know
+     * is taken as off the ladder rather than as a reason to reload it, so this suits players that may just have
+     * been deleted.
+     */
+    int findRank(Long playerId);
+
+    Long playerAt(int rank);
+
+    List<Long> playersBetween(int fromRank, int toRank);
+
+    LadderChange recordResult(Long playerOneId, Long playerTwoId, MatchOutcome outcome);
+
+    /**
+     * Applies the results one after the other, each against the ladder left by the previous one, and writes the
+     * rank keys of every player that moved once at the end. Returns one change per result, in order.
+     */
+    List<LadderChange> recordResults(List<MatchResult> results);
+
+    int addPlayer(Long playerId, long rankKey);
+
+    /**
+     * Takes the player off the ladder and returns the rank it had, or 0 if it was not on the ladder.
+     */
+    int removePlayer(Long playerId);
+
+    void invalidate();
+
+    /**
+     * Drops the index once the current transaction has committed, so the next read loads what it committed rather
+     * than the order from before it; a rollback drops it too. Outside a transaction the index is dropped at once.
+     * For writes that replace rank keys without going through the index.
+     */
+    void invalidateOnCompletion();
+}
@@ -0,0 +1,123 @@
+package com.netstock.chessadmin.service.impl;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.netstock.chessadmin.dto.MatchExportRow;
+import com.netstock.chessadmin.dto.PlayerExportRow;
+import com.netstock.chessadmin.enums.ExportFormat;
+import com.netstock.chessadmin.repository.MatchRepository;
+import com.netstock.chessadmin.repository.PlayerRepository;
+import com.netstock.chessadmin.service.ExportService;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.Iterator;
+import java.util.Objects;
+import java.util.stream.Stream;
+
+/**
+ * The rows come from projection queries read in chunks, so nothing is held in the persistence context, and go out
+ * through a fixed size buffer. A CSV header is flushed on its own, so the client sees bytes before the first chunk
+ * has been read.
+ */
+@Service
+public class ExportServiceImpl implements ExportService {
+    private static final int BUFFER_SIZE = 64 * 1024;
+    private static final String PLAYER_HEADER =
+            "rank,id,firstName,lastName,email,dateOfBirth,gamesPlayed,wins,draws,losses,streak";
+    private static final String MATCH_HEADER = "id,createdAt,outcome,playerOneId,playerOneFirstName,"
+            + "playerOneLastName,playerTwoId,playerTwoFirstName,playerTwoLastName";
+
+    private final PlayerRepository playerRepository;
+    private final MatchRepository matchRepository;
+    private final ObjectMapper objectMapper;
+
+    public ExportServiceImpl(PlayerRepository playerRepository, MatchRepository matchRepository,
+                             ObjectMapper objectMapper) {
+        this.playerRepository = playerRepository;
+        this.matchRepository = matchRepository;
+        this.objectMapper = objectMapper;
+    }
+
+    @Transactional(readOnly = true)
+    public void exportPlayers(ExportFormat format, OutputStream out) throws IOException {
+        Writer writer = writer(out);
+        if (ExportFormat.CSV == format) {
+            writeLine(writer, PLAYER_HEADER);
+            writer.flush();
+        }
+        int rank = 0;
+        try (Stream<PlayerExportRow> rows = playerRepository.streamExportRows()) {
+            Iterator<PlayerExportRow> iterator = rows.iterator();
+            while (iterator.hasNext()) {
+                PlayerExportRow row = iterator.next().withRank(++rank);
+                writeLine(writer, ExportFormat.CSV == format ? csv(row.rank(), row.id(), row.firstName(),
+                        row.lastName(), row.email(), row.dateOfBirth(), row.gamesPlayed(), row.wins(), row.draws(),
+                        row.losses(), row.streak()) : json(row));
+            }
+        }
+        writer.flush();
+    }
+
+    @Transactional(readOnly = true)
+    public void exportMatches(ExportFormat format, OutputStream out) throws IOException {
+        Writer writer = writer(out);
+        if (ExportFormat.CSV == format) {
+            writeLine(writer, MATCH_HEADER);
+            writer.flush();
+        }
+        try (Stream<MatchExportRow> rows = matchRepository.streamExportRows()) {
+            Iterator<MatchExportRow> iterator = rows.iterator();
+            while (iterator.hasNext()) {
+                MatchExportRow row = iterator.next();
+                writeLine(writer, ExportFormat.CSV == format ? csv(row.id(), row.createdAt(), row.outcome(),
+                        row.playerOneId(), row.playerOneFirstName(), row.playerOneLastName(), row.playerTwoId(),
+                        row.playerTwoFirstName(), row.playerTwoLastName()) : json(row));
+            }
+        }
+        writer.flush();
+    }
+
+    private static Writer writer(OutputStream out) {
+        return new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8), BUFFER_SIZE);
+    }
+
+    private static void writeLine(Writer writer, String line) throws IOException {
+        writer.write(line);
+        writer.write('\n');
+    }
+
+    private String json(Object row) {
+        try {
+            return objectMapper.writeValueAsString(row);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Nulls are written as empty fields; a field holding a comma, quote or line break is quoted.
+     */
+    static String csv(Object... fields) {
+        StringBuilder line = new StringBuilder();
+        for (int i = 0; i < fields.length; i++) {
+            if (i > 0) {
+                line.append(',');
+            }
+            String field = Objects.toString(fields[i], "");
+            if (field.indexOf(',') >= 0 || field.indexOf('"') >= 0 || field.indexOf('\n') >= 0
+                    || field.indexOf('\r') >= 0) {
+                line.append('"').append(field.replace("\"", "\"\"")).append('"');
+            } else {
+                line.append(field);
+            }
+        }
+        return line.toString();
+    }
+}
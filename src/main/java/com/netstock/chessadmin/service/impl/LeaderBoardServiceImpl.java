@@ -1,21 +1,327 @@
 package com.netstock.chessadmin.service.impl;
 
+import com.netstock.chessadmin.dto.LeaderBoardSnapshot;
 import com.netstock.chessadmin.entity.Player;
+import com.netstock.chessadmin.ranking.LadderChangedEvent;
+import com.netstock.chessadmin.ranking.LadderMetrics;
 import com.netstock.chessadmin.repository.PlayerRepository;
 import com.netstock.chessadmin.service.LeaderBoardService;
+import com.netstock.chessadmin.service.RankingService;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.SortedMap;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
 
+/**
+ * Serves the leaderboard from one immutable {@link LeaderBoardSnapshot} shared by all sessions. Committed ladder
+ * changes bump {@code ladderVersion}; the next read after that rebuilds the snapshot once, every other read is a
+ * volatile field access.
+ * <p>
+ * A change that only moves a window of positions is patched into the current snapshot instead: only the players
+ * now in those positions are read, and diff listeners get just those entries.
+ * <p>
+ * Pages in any other order than rank come from a sorted copy of the snapshot that is made once per snapshot and
+ * order, so scrolling a grid sorted by name does not sort the whole ladder again for every page.
+ */
+@Slf4j
 @Service
 public class LeaderBoardServiceImpl implements LeaderBoardService {
+    /**
+     * Beyond this many changed positions reading the whole ladder again is cheaper than patching.
+     */
+    static final int MAX_PATCHED_ROWS = 1_000;
+
     private final PlayerRepository playerRepository;
+    private final RankingService rankingService;
+    private final LadderMetrics ladderMetrics;
+    private final AtomicLong ladderVersion = new AtomicLong(1);
+    private volatile LeaderBoardSnapshot snapshot = new LeaderBoardSnapshot(0, List.of());
+    private volatile SortedViews sortedViews = new SortedViews(snapshot, new ConcurrentHashMap<>());
+    private final List<Consumer<LeaderBoardSnapshot.Diff>> diffListeners = new CopyOnWriteArrayList<>();
 
-    public LeaderBoardServiceImpl(PlayerRepository playerRepository) {
+    public LeaderBoardServiceImpl(PlayerRepository playerRepository, RankingService rankingService,
+                                  LadderMetrics ladderMetrics) {
         this.playerRepository = playerRepository;
+        this.rankingService = rankingService;
+        this.ladderMetrics = ladderMetrics;
     }
 
     public List<Player> loadPlayersSortedByRank() {
-        return playerRepository.findAllOrderByRankAsc();
+        return ladderMetrics.timeLeaderBoardRead("loadPlayersSortedByRank", () -> {
+            // rank keys sort exactly like the ranking index, so the dense rank is the position in key order
+            List<Player> sorted = playerRepository.findAllOrderByRankAsc();
+            for (int i = 0; i < sorted.size(); i++) {
+                sorted.get(i).setRank(i + 1);
+            }
+            return sorted;
+        });
+    }
+
+    public LeaderBoardSnapshot snapshot() {
+        LeaderBoardSnapshot current = snapshot;
+        if (current.version() == ladderVersion.get()) {
+            return current;
+        }
+        synchronized (this) {
+            long version = ladderVersion.get();
+            if (snapshot.version() != version) {
+                snapshot = ladderMetrics.timeLeaderBoardRead("snapshotRebuild", () -> new LeaderBoardSnapshot(version,
+                        loadPlayersSortedByRank().stream()
+                                .map(player -> entry(player.getRank(), player))
+                                .toList()));
+                discardOnRollback();
+            }
+            return snapshot;
+        }
+    }
+
+    public long version() {
+        return ladderVersion.get();
+    }
+
+    public List<LeaderBoardSnapshot.Entry> getEntries(Pageable pageable) {
+        return ladderMetrics.timeLeaderBoardRead("getEntries", () -> page(pageable));
+    }
+
+    private List<LeaderBoardSnapshot.Entry> page(Pageable pageable) {
+        LeaderBoardSnapshot current = snapshot();
+        List<LeaderBoardSnapshot.Entry> entries = current.entries();
+        Sort.Order order = pageable.getSort().stream().findFirst().orElse(Sort.Order.asc("rank"));
+        if (!"rank".equals(order.getProperty())) {
+            entries = sorted(current, order);
+        }
+        int from = (int) Math.min(pageable.getOffset(), entries.size());
+        int to = Math.min(from + pageable.getPageSize(), entries.size());
+        if ("rank".equals(order.getProperty()) && order.isDescending()) {
+            List<LeaderBoardSnapshot.Entry> page = new ArrayList<>(entries.subList(entries.size() - to, entries.size() - from));
+            Collections.reverse(page);
+            return page;
+        }
+        return entries.subList(from, to);
+    }
+
+    /**
+     * The snapshot in the given order, sorted on the first request for that order and shared until the snapshot is
+     * replaced. A reader still holding an older snapshot gets its own views without displacing the newer ones.
+     */
+    private List<LeaderBoardSnapshot.Entry> sorted(LeaderBoardSnapshot current, Sort.Order order) {
+        SortedViews views = sortedViews;
+        if (views.snapshot() != current) {
+            SortedViews fresh = new SortedViews(current, new ConcurrentHashMap<>());
+            if (views.snapshot().version() < current.version()) {
+                sortedViews = fresh;
+            }
+            views = fresh;
+        }
+        return views.byOrder().computeIfAbsent(order.getProperty() + ":" + order.getDirection(), key -> {
+            Comparator<LeaderBoardSnapshot.Entry> comparator = entryComparator(order.getProperty());
+            return ladderMetrics.timeLeaderBoardRead("sortSnapshot", () -> current.entries().stream()
+                    .sorted(order.isAscending() ? comparator : comparator.reversed())
+                    .toList());
+        });
+    }
+
+    /**
+     * @param snapshot the snapshot the views were sorted from
+     * @param byOrder  its entries keyed by sort property and direction
+     */
+    private record SortedViews(LeaderBoardSnapshot snapshot, Map<String, List<LeaderBoardSnapshot.Entry>> byOrder) {
+    }
+
+    /**
+     * Runs after the change has committed, on the thread that made it, while the ranking index still matches the
+     * database.
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onLadderChanged(LadderChangedEvent event) {
+        LeaderBoardSnapshot.Diff diff;
+        synchronized (this) {
+            LeaderBoardSnapshot current = snapshot;
+            Patch patch = current.version() == ladderVersion.get() ? patch(current, event) : null;
+            long version = ladderVersion.incrementAndGet();
+            if (null == patch) {
+                diff = LeaderBoardSnapshot.Diff.full(version);
+            } else {
+                snapshot = new LeaderBoardSnapshot(version, patch.entries());
+                boolean resized = patch.entries().size() != current.entries().size();
+                diff = new LeaderBoardSnapshot.Diff(version, resized ? List.of() : patch.changed(), resized);
+            }
+        }
+        for (Consumer<LeaderBoardSnapshot.Diff> listener : diffListeners) {
+            try {
+                listener.accept(diff);
+            } catch (RuntimeException e) {
+                log.warn("Leaderboard diff listener failed", e);
+            }
+        }
+    }
+
+    public void addDiffListener(Consumer<LeaderBoardSnapshot.Diff> listener) {
+        diffListeners.add(listener);
+    }
+
+    public void removeDiffListener(Consumer<LeaderBoardSnapshot.Diff> listener) {
+        diffListeners.remove(listener);
+    }
+
+    /**
+     * The snapshot with the positions the change touched read again, or null when it touched too many to patch.
+     * Those are the moved window and the current positions of the players named in the event; players that
+     * joined fall in the window, and a ladder that shrank is cut at its new bottom.
+     */
+    private Patch patch(LeaderBoardSnapshot current, LadderChangedEvent event) {
+        int size = rankingService.ladderSize();
+        int from = Math.max(1, event.fromRank());
+        int to = Math.min(size, event.toRank());
+        boolean resizedOutsideWindow = size > current.entries().size() && (!event.moved() || to < size);
+        if (resizedOutsideWindow || (size < current.entries().size() && !event.moved())) {
+            return null;
+        }
+        SortedMap<Integer, Long> positions = new TreeMap<>();
+        if (from <= to) {
+            if (to - from + 1 > MAX_PATCHED_ROWS) {
+                return null;
+            }
+            List<Long> window = rankingService.playersBetween(from, to);
+            for (int i = 0; i < window.size(); i++) {
+                positions.put(from + i, window.get(i));
+            }
+        }
+        for (Long playerId : event.playerIds()) {
+            int rank = rankingService.findRank(playerId);
+            if (rank > 0) {
+                positions.put(rank, playerId);
+            }
+        }
+        if (positions.size() > MAX_PATCHED_ROWS) {
+            return null;
+        }
+        Map<Long, Player> players = new HashMap<>();
+        playerRepository.findAllById(positions.values()).forEach(player -> players.put(player.getId(), player));
+        List<LeaderBoardSnapshot.Entry> entries = new ArrayList<>(current.entries().subList(0,
+                Math.min(size, current.entries().size())));
+        List<LeaderBoardSnapshot.Entry> changed = new ArrayList<>(positions.size());
+        for (Map.Entry<Integer, Long> position : positions.entrySet()) {
+            Player player = players.get(position.getValue());
+            int rank = position.getKey();
+            if (null == player || rank > entries.size() + 1) {
+                return null;
+            }
+            LeaderBoardSnapshot.Entry entry = entry(rank, player);
+            if (rank <= entries.size()) {
+                entries.set(rank - 1, entry);
+            } else {
+                entries.add(entry);
+            }
+            changed.add(entry);
+        }
+        return entries.size() == size ? new Patch(entries, changed) : null;
+    }
+
+    /**
+     * @param entries the whole patched leaderboard
+     * @param changed the entries that were read again, in rank order
+     */
+    private record Patch(List<LeaderBoardSnapshot.Entry> entries, List<LeaderBoardSnapshot.Entry> changed) {
+    }
+
+    private static LeaderBoardSnapshot.Entry entry(int rank, Player player) {
+        return new LeaderBoardSnapshot.Entry(rank, player.getId(), player.getFirstName(), player.getLastName(),
+                player.getEmail(), player.getNumberOfGamesPlayed(), player.getWins(), player.getLosses(),
+                player.getDraws(), player.getStreak());
+    }
+
+    public List<LeaderBoardSnapshot.Entry> window(Long playerId, int k) {
+        if (k < 0) {
+            throw new IllegalArgumentException("k must not be negative");
+        }
+        int rank = rankingService.findRank(playerId);
+        if (rank < 1) {
+            return List.of();
+        }
+        return range(Math.max(1, rank - k), (int) Math.min((long) rank + k, Integer.MAX_VALUE));
+    }
+
+    public List<LeaderBoardSnapshot.Entry> range(int fromRank, int toRank) {
+        if (fromRank < 1 || toRank < fromRank) {
+            throw new IllegalArgumentException("Ranks must start at 1 and run from low to high");
+        }
+        int to = Math.min(toRank, rankingService.ladderSize());
+        if (fromRank > to) {
+            return List.of();
+        }
+        // the ranking index names the first player; the rows below it come from one scan of the rank key index
+        Long first = rankingService.playerAt(fromRank);
+        return ladderMetrics.timeLeaderBoardRead("range", () -> {
+            List<Player> players = playerRepository.findFromRankOf(first, Limit.of(to - fromRank + 1));
+            List<LeaderBoardSnapshot.Entry> entries = new ArrayList<>(players.size());
+            for (int i = 0; i < players.size(); i++) {
+                entries.add(entry(fromRank + i, players.get(i)));
+            }
+            return entries;
+        });
+    }
+
+    public int rankOf(Long playerId) {
+        return rankingService.findRank(playerId);
+    }
+
+    public Optional<Player> playerAtRank(int rank) {
+        if (rank < 1 || rank > rankingService.ladderSize()) {
+            return Optional.empty();
+        }
+        Optional<Player> player = playerRepository.findById(rankingService.playerAt(rank));
+        player.ifPresent(found -> found.setRank(rank));
+        return player;
+    }
+
+    private static Comparator<LeaderBoardSnapshot.Entry> entryComparator(String property) {
+        Comparator<String> text = Comparator.nullsLast(String.CASE_INSENSITIVE_ORDER);
+        return switch (property) {
+            case "firstName" -> Comparator.comparing(LeaderBoardSnapshot.Entry::firstName, text);
+            case "lastName" -> Comparator.comparing(LeaderBoardSnapshot.Entry::lastName, text);
+            case "email" -> Comparator.comparing(LeaderBoardSnapshot.Entry::email, text);
+            case "numberOfGamesPlayed" -> Comparator.comparingLong(LeaderBoardSnapshot.Entry::numberOfGamesPlayed);
+            case "wins" -> Comparator.comparingLong(LeaderBoardSnapshot.Entry::wins);
+            case "losses" -> Comparator.comparingLong(LeaderBoardSnapshot.Entry::losses);
+            case "draws" -> Comparator.comparingLong(LeaderBoardSnapshot.Entry::draws);
+            case "streak" -> Comparator.comparingInt(LeaderBoardSnapshot.Entry::streak);
+            default -> throw new IllegalArgumentException("Cannot sort the leaderboard by " + property);
+        };
+    }
+
+    /**
+     * A snapshot read inside a transaction may contain that transaction's uncommitted rows, so it must not outlive
+     * a rollback.
+     */
+    private void discardOnRollback() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    if (STATUS_COMMITTED != status) {
+                        ladderVersion.incrementAndGet();
+                    }
+                }
+            });
+        }
     }
 }
@@ -1,42 +1,102 @@
 package com.netstock.chessadmin.service.impl;
 
+import com.netstock.chessadmin.dto.HeadToHeadDTO;
+import com.netstock.chessadmin.dto.MatchCursor;
 import com.netstock.chessadmin.dto.MatchDTO;
+import com.netstock.chessadmin.dto.MatchImportResult;
 import com.netstock.chessadmin.dto.PlayerDTO;
+import com.netstock.chessadmin.entity.HeadToHead;
 import com.netstock.chessadmin.entity.Match;
 import com.netstock.chessadmin.entity.Player;
+import com.netstock.chessadmin.entity.RankingEvent;
 import com.netstock.chessadmin.enums.MatchOutcome;
+import com.netstock.chessadmin.enums.RankingEventType;
+import com.netstock.chessadmin.mapper.MatchMapper;
+import com.netstock.chessadmin.mapper.PgnReader;
+import com.netstock.chessadmin.mapper.PlayerMapper;
+import com.netstock.chessadmin.ranking.HeadToHeadTally;
+import com.netstock.chessadmin.ranking.LadderChange;
+import com.netstock.chessadmin.ranking.LadderChangedEvent;
+import com.netstock.chessadmin.ranking.LadderMetrics;
+import com.netstock.chessadmin.ranking.LadderWriter;
+import com.netstock.chessadmin.ranking.MatchResult;
+import com.netstock.chessadmin.ranking.ResultTally;
+import com.netstock.chessadmin.repository.HeadToHeadRepository;
 import com.netstock.chessadmin.repository.MatchRepository;
 import com.netstock.chessadmin.repository.PlayerRepository;
+import com.netstock.chessadmin.repository.RankingEventRepository;
 import com.netstock.chessadmin.service.MatchService;
+import com.netstock.chessadmin.service.RankingService;
 import jakarta.validation.Valid;
-import org.jetbrains.annotations.NotNull;
-import org.modelmapper.ModelMapper;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.annotation.DependsOn;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.io.Reader;
+import java.time.Duration;
 import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
 import java.util.stream.Collectors;
 
+@Slf4j
 @Service
+@DependsOn({"idSequenceMigration", "headToHeadBaseline"})
 public class MatchServiceImpl implements MatchService {
+    private static final int STREAK_PAGE_SIZE = 64;
+    private static final int IMPORT_CHUNK_SIZE = 2_000;
+    private static final int REJECTED_GAMES_KEPT = 1_000;
+
     private final PlayerRepository playerRepository;
-    private final ModelMapper modelMapper;
+    private final PlayerMapper playerMapper;
+    private final MatchMapper matchMapper;
     private final MatchRepository matchRepository;
+    private final RankingEventRepository rankingEventRepository;
+    private final HeadToHeadRepository headToHeadRepository;
+    private final RankingService rankingService;
+    private final LadderWriter ladderWriter;
+    private final ApplicationEventPublisher eventPublisher;
+    private final LadderMetrics ladderMetrics;
 
     public MatchServiceImpl(
             PlayerRepository playerRepository,
-            ModelMapper modelMapper,
-            MatchRepository matchRepository) {
+            PlayerMapper playerMapper,
+            MatchMapper matchMapper,
+            MatchRepository matchRepository,
+            RankingEventRepository rankingEventRepository,
+            HeadToHeadRepository headToHeadRepository,
+            RankingService rankingService,
+            LadderWriter ladderWriter,
+            ApplicationEventPublisher eventPublisher,
+            LadderMetrics ladderMetrics) {
         this.playerRepository = playerRepository;
-        this.modelMapper = modelMapper;
+        this.playerMapper = playerMapper;
+        this.matchMapper = matchMapper;
         this.matchRepository = matchRepository;
+        this.rankingEventRepository = rankingEventRepository;
+        this.headToHeadRepository = headToHeadRepository;
+        this.rankingService = rankingService;
+        this.ladderWriter = ladderWriter;
+        this.eventPublisher = eventPublisher;
+        this.ladderMetrics = ladderMetrics;
     }
 
     public List<PlayerDTO> getMatchPlayers() {
-        return playerRepository.findAll().stream().map(player ->
-                modelMapper.map(player, PlayerDTO.class)).collect(Collectors.toList());
+        return playerRepository.findAll().stream().map(this::toDto).collect(Collectors.toList());
     }
 
     public List<MatchDTO> getAllMatches() {
@@ -44,34 +104,249 @@ public class MatchServiceImpl implements MatchService {
         return matches.stream().map(this::toDto).collect(Collectors.toList());
     }
 
+    @Transactional(readOnly = true)
+    public List<MatchDTO> getMatches(Pageable pageable) {
+        Pageable stable = PageRequest.of(pageable.getPageNumber(), pageable.getPageSize(),
+                pageable.getSort().and(Sort.by("id")));
+        return matchRepository.findAllBy(stable).stream().map(this::toDto).collect(Collectors.toList());
+    }
+
+    public long countMatches() {
+        return matchRepository.count();
+    }
+
     @Transactional
     public MatchDTO saveMatch(@Valid MatchDTO matchDTO) {
         Long playerOneId = matchDTO.getPlayerOne().getId();
         Long playerTwoId = matchDTO.getPlayerTwo().getId();
-        validatePlayersExists(playerOneId, playerTwoId);
-        Match saved = saveMatchEntity(matchDTO, playerOneId, playerTwoId);
+        ladderMetrics.timeMatchStage("validate", () -> validatePlayersExists(playerOneId, playerTwoId));
+        Match saved = ladderMetrics.timeMatchStage("insert", () -> saveMatchEntity(matchDTO));
         // Update ranks and players
-        updatePlayerRankings(matchDTO);
-        updatePlayersAfterMatch(matchDTO.getPlayerOne(), matchDTO.getPlayerTwo());
+        LadderChange change = ladderMetrics.timeMatchStage("rank", () -> updatePlayerRankings(matchDTO));
+        ladderMetrics.timeMatchStage("log",
+                () -> rankingEventRepository.save(RankingEvent.match(saved.getId(), change, saved.getCreatedAt())));
+        ladderMetrics.timeMatchStage("players", () -> updatePlayersAfterMatch(matchDTO, change));
+        ladderMetrics.timeMatchStage("headToHead", () -> headToHeadRepository.addResults(Map.of(
+                HeadToHead.Key.of(playerOneId, playerTwoId),
+                HeadToHeadTally.of(playerOneId, playerTwoId, matchDTO.getOutcome(), saved.getCreatedAt()))));
+        eventPublisher.publishEvent(new LadderChangedEvent(Set.copyOf(List.of(playerOneId, playerTwoId)),
+                change.fromRank(), change.toRank()));
         return toDto(saved);
     }
 
+    /**
+     * Saves a whole result sheet in one transaction. The results are applied to the ladder in list order, so each
+     * one sees the ranks left by the previous; the players are validated with one query and the moved rank keys
+     * and games played are written as JDBC batches instead of per match.
+     */
+    @Transactional
+    public List<MatchDTO> saveMatches(@Valid List<MatchDTO> matchDTOs) {
+        if (matchDTOs.isEmpty()) {
+            return List.of();
+        }
+        long started = System.nanoTime();
+        validatePlayersExist(matchDTOs);
+        Instant now = Instant.now();
+        // a match that says when it was played, such as an imported game, keeps that time
+        List<Instant> playedAt = matchDTOs.stream()
+                .map(matchDTO -> null != matchDTO.getCreatedAt() ? matchDTO.getCreatedAt() : now)
+                .toList();
+        List<Match> matches = new ArrayList<>(matchDTOs.size());
+        for (int i = 0; i < matchDTOs.size(); i++) {
+            matches.add(toEntity(matchDTOs.get(i), playedAt.get(i)));
+        }
+        List<Match> saved = matchRepository.saveAll(matches);
+        List<LadderChange> changes = rankingService.recordResults(matchDTOs.stream()
+                .map(matchDTO -> new MatchResult(
+                        matchDTO.getPlayerOne().getId(), matchDTO.getPlayerTwo().getId(), matchDTO.getOutcome()))
+                .toList());
+        List<RankingEvent> events = new ArrayList<>(saved.size());
+        for (int i = 0; i < saved.size(); i++) {
+            events.add(RankingEvent.match(saved.get(i).getId(), changes.get(i), now));
+        }
+        rankingEventRepository.appendAll(events);
+        Map<Long, ResultTally> results = new HashMap<>();
+        Map<HeadToHead.Key, HeadToHeadTally> headToHeads = new HashMap<>();
+        for (int i = 0; i < matchDTOs.size(); i++) {
+            MatchDTO matchDTO = matchDTOs.get(i);
+            LadderChange change = changes.get(i);
+            long playerOneId = matchDTO.getPlayerOne().getId();
+            long playerTwoId = matchDTO.getPlayerTwo().getId();
+            headToHeads.merge(HeadToHead.Key.of(playerOneId, playerTwoId),
+                    HeadToHeadTally.of(playerOneId, playerTwoId, matchDTO.getOutcome(), playedAt.get(i)),
+                    HeadToHeadTally::plus);
+            Map<Long, ResultTally> tally = tally(matchDTO, change);
+            tally.forEach((playerId, result) -> results.merge(playerId, result, ResultTally::then));
+            for (PlayerDTO player : List.of(matchDTO.getPlayerOne(), matchDTO.getPlayerTwo())) {
+                player.setRank(change.rankAfter(player.getId()));
+            }
+            addResults(matchDTO, tally);
+        }
+        playerRepository.addResults(results);
+        headToHeadRepository.addResults(headToHeads);
+        int fromRank = changes.stream().filter(change -> !change.isEmpty()).mapToInt(LadderChange::fromRank).min().orElse(0);
+        int toRank = changes.stream().filter(change -> !change.isEmpty()).mapToInt(LadderChange::toRank).max().orElse(-1);
+        eventPublisher.publishEvent(new LadderChangedEvent(results.keySet(), fromRank, toRank));
+        long elapsedMillis = Math.max(1, TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - started));
+        log.info("Saved {} matches in {} ms ({} matches/s)",
+                matchDTOs.size(), elapsedMillis, matchDTOs.size() * 1000L / elapsedMillis);
+        return saved.stream().map(this::toDto).collect(Collectors.toList());
+    }
+
+    public CompletableFuture<MatchDTO> submitMatch(MatchDTO matchDTO) {
+        return ladderWriter.submit("saveMatch", () -> saveMatch(matchDTO));
+    }
+
+    public CompletableFuture<List<MatchDTO>> submitMatches(List<MatchDTO> matchDTOs) {
+        return ladderWriter.submit("saveMatches", () -> saveMatches(matchDTOs));
+    }
+
     @Transactional
     public Optional<MatchDTO> findById(Long id) {
         return matchRepository.findByIdWithPlayers(id).map(this::toDto);
     }
 
+    /**
+     * Deletes the match and takes it back off both players' games played and result totals; the ladder itself is
+     * left as it is. The streaks and the pair's last played time are worked out again from the results that remain.
+     */
     @Transactional
     public void deleteMatch(Long id) {
+        Optional<Match> match = matchRepository.findById(id);
+        if (match.isEmpty()) {
+            return;
+        }
         matchRepository.deleteById(id);
+        MatchOutcome outcome = match.get().getOutcome();
+        boolean upset = rankingEventRepository.findFirstByMatchIdAndType(id, RankingEventType.MATCH)
+                .map(event -> ResultTally.isUpset(outcome, event.getPlayerOneRankBefore(), event.getPlayerTwoRankBefore()))
+                .orElse(false);
+        Map<Long, ResultTally> results = new HashMap<>();
+        Long playerOneId = match.get().getPlayerOneId();
+        Long playerTwoId = match.get().getPlayerTwoId();
+        if (null != playerOneId) {
+            results.put(playerOneId, ResultTally.of(outcome, true, upset).undone(currentStreak(playerOneId)));
+        }
+        if (null != playerTwoId) {
+            results.put(playerTwoId, ResultTally.of(outcome, false, upset).undone(currentStreak(playerTwoId)));
+        }
+        playerRepository.addResults(results);
+        if (null != playerOneId && null != playerTwoId) {
+            HeadToHead.Key pair = HeadToHead.Key.of(playerOneId, playerTwoId);
+            HeadToHeadTally tally = HeadToHeadTally.of(playerOneId, playerTwoId, outcome, null);
+            headToHeadRepository.removeResult(pair.getLowPlayerId(), pair.getHighPlayerId(),
+                    tally.lowPlayerWins(), tally.highPlayerWins(), tally.draws());
+        }
+        eventPublisher.publishEvent(new LadderChangedEvent(results.keySet()));
+    }
+
+    public CompletableFuture<Void> submitDeleteMatch(Long id) {
+        return ladderWriter.submit("deleteMatch", () -> {
+            deleteMatch(id);
+            return null;
+        });
     }
 
-    private Match saveMatchEntity(MatchDTO matchDTO, Long p1Id, Long p2Id) {
-        Match match = modelMapper.map(matchDTO, Match.class);
-        match.setPlayerOneId(p1Id);
-        match.setPlayerTwoId(p2Id);
-        match.setCreatedAt(Instant.now());
-        return matchRepository.save(match);
+    @Transactional(readOnly = true)
+    public List<MatchDTO> findMatchesForPlayer(Long playerId, MatchCursor cursor, int limit) {
+        if (limit <= 0) {
+            throw new IllegalArgumentException("limit must be positive");
+        }
+        return matchRepository.findMatchesForPlayer(playerId, cursor, limit).stream().map(this::toDto).toList();
+    }
+
+    /**
+     * Only one chunk of results and the tags of the current game are held in memory. The player index is read
+     * once up front, so players added during the import are not recognised.
+     */
+    public MatchImportResult importPgn(Reader pgn) {
+        long started = System.nanoTime();
+        PlayerNameIndex players = new PlayerNameIndex(playerRepository.findAllNames());
+        PgnReader reader = new PgnReader(pgn);
+        List<MatchDTO> chunk = new ArrayList<>(IMPORT_CHUNK_SIZE);
+        List<MatchImportResult.RejectedGame> rejected = new ArrayList<>();
+        long imported = 0;
+        long rejectedCount = 0;
+        LocalDate latest = null;
+        for (PgnReader.Game game = reader.next(); null != game; game = reader.next()) {
+            String reason = rejectReason(game, players, latest);
+            if (null != reason) {
+                if (rejected.size() < REJECTED_GAMES_KEPT) {
+                    rejected.add(new MatchImportResult.RejectedGame(game.line(), reason));
+                }
+                rejectedCount++;
+                continue;
+            }
+            if (null != game.date()) {
+                latest = game.date();
+            }
+            chunk.add(MatchDTO.builder()
+                    .playerOne(PlayerDTO.builder().id(players.find(game.white())).build())
+                    .playerTwo(PlayerDTO.builder().id(players.find(game.black())).build())
+                    .outcome(game.outcome())
+                    .createdAt(null != game.date() ? game.date().atStartOfDay(ZoneId.systemDefault()).toInstant() : null)
+                    .build());
+            if (chunk.size() == IMPORT_CHUNK_SIZE) {
+                imported += importChunk(chunk);
+            }
+        }
+        imported += importChunk(chunk);
+        Duration took = Duration.ofNanos(System.nanoTime() - started);
+        log.info("Imported {} PGN results in {} ms ({} rejected)", imported, took.toMillis(), rejectedCount);
+        return new MatchImportResult(imported, rejectedCount, rejected, took);
+    }
+
+    private static String rejectReason(PgnReader.Game game, PlayerNameIndex players, LocalDate latest) {
+        if (null == game.outcome()) {
+            return "no result (Result \"" + game.result() + "\")";
+        }
+        if (null == game.white() || null == game.black()) {
+            return "no White or Black tag";
+        }
+        String unknown = null == players.find(game.white()) ? game.white()
+                : null == players.find(game.black()) ? game.black() : null;
+        if (null != unknown) {
+            return players.isAmbiguous(unknown) ? "more than one player is called '" + unknown + "'"
+                    : "unknown player '" + unknown + "'";
+        }
+        if (players.find(game.white()).equals(players.find(game.black()))) {
+            return "a player cannot play themselves";
+        }
+        if (null != game.date() && null != latest && game.date().isBefore(latest)) {
+            return "dated " + game.date() + ", before " + latest + "; the file has to be in date order";
+        }
+        return null;
+    }
+
+    /**
+     * Applies the chunk on the ladder writer, in its own transaction, and waits so the file is read no faster
+     * than the ladder takes the results.
+     */
+    private int importChunk(List<MatchDTO> chunk) {
+        if (chunk.isEmpty()) {
+            return 0;
+        }
+        List<MatchDTO> results = List.copyOf(chunk);
+        chunk.clear();
+        submitMatches(results).join();
+        return results.size();
+    }
+
+    @Transactional(readOnly = true)
+    public HeadToHeadDTO getHeadToHead(Long playerOneId, Long playerTwoId) {
+        return headToHeadRepository.findById(HeadToHead.Key.of(playerOneId, playerTwoId))
+                .map(headToHead -> matchMapper.toDto(headToHead, playerOneId, playerTwoId))
+                .orElseGet(() -> HeadToHeadDTO.none(playerOneId, playerTwoId));
+    }
+
+    private Match saveMatchEntity(MatchDTO matchDTO) {
+        return matchRepository.save(toEntity(matchDTO, Instant.now()));
+    }
+
+    private Match toEntity(MatchDTO matchDTO, Instant createdAt) {
+        Match match = matchMapper.toEntity(matchDTO);
+        match.setCreatedAt(createdAt);
+        return match;
     }
 
     private void validatePlayersExists(Long playerOneId, Long playerTwoId) {
@@ -83,80 +358,101 @@ public class MatchServiceImpl implements MatchService {
         }
     }
 
-    private void updatePlayerRankings(MatchDTO matchDTO) {
-        if (higherRankedPlayerWon(matchDTO)) {
-            return;
-        }
-        if(matchDTO.getOutcome().equals(MatchOutcome.DRAW)) {
-            adjustRankingsForDraw(matchDTO);
-        } else {
-            adjustRankingsForUpset(matchDTO);
+    private void validatePlayersExist(List<MatchDTO> matchDTOs) {
+        Set<Long> playerIds = new HashSet<>();
+        for (MatchDTO matchDTO : matchDTOs) {
+            if (null == matchDTO.getPlayerOne().getId()) {
+                throw new IllegalArgumentException("playerOne does not exist");
+            }
+            if (null == matchDTO.getPlayerTwo().getId()) {
+                throw new IllegalArgumentException("playerTwo does not exist");
+            }
+            playerIds.add(matchDTO.getPlayerOne().getId());
+            playerIds.add(matchDTO.getPlayerTwo().getId());
         }
-    }
-
-    private void adjustRankingsForDraw(MatchDTO matchDTO) {
-        PlayerDTO higherRankedPlayer = getHigherRankedPlayer(matchDTO);
-        PlayerDTO lowerRankedPlayer = getLowerRankedPlayer(matchDTO);
-        int rankDifference = lowerRankedPlayer.getRank() - higherRankedPlayer.getRank();
-        if (rankDifference > 1) {
-            int newRank = lowerRankedPlayer.getRank() - 1;
-            playerRepository.incrementRankByOne(newRank);
-            lowerRankedPlayer.setRank(newRank);
+        playerIds.removeAll(playerRepository.findExistingIds(playerIds));
+        if (!playerIds.isEmpty()) {
+            throw new IllegalArgumentException("Players do not exist: " + playerIds);
         }
     }
 
-    private void updatePlayersAfterMatch(PlayerDTO lowerRankedPlayer, PlayerDTO higherRankedPlayer) {
-        Player playerOne = modelMapper.map(lowerRankedPlayer, Player.class);
-        Player playerTwo = modelMapper.map(higherRankedPlayer, Player.class);
-        playerOne.setNumberOfGamesPlayed(playerOne.getNumberOfGamesPlayed() + 1);
-        playerTwo.setNumberOfGamesPlayed(playerTwo.getNumberOfGamesPlayed() + 1);
-        playerRepository.save(playerOne);
-        playerRepository.save(playerTwo);
+    private LadderChange updatePlayerRankings(MatchDTO matchDTO) {
+        LadderChange change = rankingService.recordResult(
+                matchDTO.getPlayerOne().getId(), matchDTO.getPlayerTwo().getId(), matchDTO.getOutcome());
+        matchDTO.getPlayerOne().setRank(change.rankAfter(matchDTO.getPlayerOne().getId()));
+        matchDTO.getPlayerTwo().setRank(change.rankAfter(matchDTO.getPlayerTwo().getId()));
+        return change;
     }
 
-    private  void adjustRankingsForUpset(MatchDTO matchDTO) {
-        PlayerDTO higherRankedPlayer = getHigherRankedPlayer(matchDTO);
-        PlayerDTO lowerRankedPlayer = getLowerRankedPlayer(matchDTO);
-        int higherPlayerNewRank = higherRankedPlayer.getRank() + 1;
-        int lowerPlayerNewRank = getLowerRankedPlayerNewRank(higherRankedPlayer.getRank(), lowerRankedPlayer.getRank());
-        if (higherPlayerNewRank == lowerPlayerNewRank) {
-            ++higherPlayerNewRank;
-            playerRepository.incrementRanksFrom(higherPlayerNewRank, lowerRankedPlayer.getRank());
-        } else {
-            playerRepository.incrementRanksFrom(lowerPlayerNewRank, lowerRankedPlayer.getRank());
-        }
-        playerRepository.decrementRankByOne(higherPlayerNewRank);
-        lowerRankedPlayer.setRank(lowerPlayerNewRank);
-        higherRankedPlayer.setRank(higherPlayerNewRank);
+    private void updatePlayersAfterMatch(MatchDTO matchDTO, LadderChange change) {
+        Map<Long, ResultTally> tally = tally(matchDTO, change);
+        playerRepository.addResults(tally);
+        addResults(matchDTO, tally);
     }
 
-    private int getLowerRankedPlayerNewRank(int higherRank, int lowerRank) {
-        return lowerRank - (((lowerRank - higherRank) + 1 )/ 2) ;
+    /**
+     * What the match adds to each player's record; whether it was an upset is decided on the ranks it was played at.
+     */
+    private static Map<Long, ResultTally> tally(MatchDTO matchDTO, LadderChange change) {
+        long playerOneId = matchDTO.getPlayerOne().getId();
+        long playerTwoId = matchDTO.getPlayerTwo().getId();
+        boolean upset = ResultTally.isUpset(matchDTO.getOutcome(), change.rankBefore(playerOneId), change.rankBefore(playerTwoId));
+        Map<Long, ResultTally> results = new HashMap<>();
+        results.put(playerOneId, ResultTally.of(matchDTO.getOutcome(), true, upset));
+        results.merge(playerTwoId, ResultTally.of(matchDTO.getOutcome(), false, upset), ResultTally::then);
+        return results;
     }
 
-    private boolean higherRankedPlayerWon(MatchDTO matchDTO) {
-        return ((MatchOutcome.PLAYER_ONE_WON.equals(matchDTO.getOutcome()))
-                && (matchDTO.getPlayerOne().getRank() < matchDTO.getPlayerTwo().getRank()))
-                || ((MatchOutcome.PLAYER_TWO_WON.equals(matchDTO.getOutcome()))
-                && (matchDTO.getPlayerTwo().getRank() < matchDTO.getPlayerOne().getRank()));
+    private static void addResults(MatchDTO matchDTO, Map<Long, ResultTally> results) {
+        addResults(matchDTO.getPlayerOne(), results.get(matchDTO.getPlayerOne().getId()));
+        addResults(matchDTO.getPlayerTwo(), results.get(matchDTO.getPlayerTwo().getId()));
     }
 
-    @NotNull
-    private PlayerDTO getHigherRankedPlayer(MatchDTO matchDTO) {
-        return (matchDTO.getPlayerOne().getRank() > matchDTO.getPlayerTwo().getRank()) ?
-                matchDTO.getPlayerTwo() : matchDTO.getPlayerOne();
+    private static void addResults(PlayerDTO player, ResultTally tally) {
+        player.setNumberOfGamesPlayed(player.getNumberOfGamesPlayed() + tally.games());
+        player.setWins(player.getWins() + tally.wins());
+        player.setLosses(player.getLosses() + tally.losses());
+        player.setDraws(player.getDraws() + tally.draws());
+        player.setUpsetsScored(player.getUpsetsScored() + tally.upsetsScored());
+        player.setUpsetsSuffered(player.getUpsetsSuffered() + tally.upsetsSuffered());
+        player.setStreak(tally.streakAfter(player.getStreak()));
     }
 
-    private PlayerDTO getLowerRankedPlayer(MatchDTO matchDTO) {
-        return (matchDTO.getPlayerOne().getRank() > matchDTO.getPlayerTwo().getRank()) ?
-                matchDTO.getPlayerOne() : matchDTO.getPlayerTwo();
+    /**
+     * The player's streak going back from their most recent result, reading only as far as it reaches.
+     */
+    private int currentStreak(Long playerId) {
+        int streak = 0;
+        MatchCursor cursor = MatchCursor.NEWEST;
+        while (true) {
+            List<Match> page = matchRepository.findMatchesForPlayer(playerId, cursor, STREAK_PAGE_SIZE);
+            for (Match result : page) {
+                if (null == result.getOutcome()) {
+                    continue;
+                }
+                int step = ResultTally.of(result.getOutcome(), playerId.equals(result.getPlayerOneId()), false).streak();
+                if (0 == step || (0 != streak && Integer.signum(streak) != step)) {
+                    return streak;
+                }
+                streak += step;
+            }
+            if (page.size() < STREAK_PAGE_SIZE) {
+                return streak;
+            }
+            Match last = page.get(page.size() - 1);
+            cursor = new MatchCursor(last.getCreatedAt(), last.getId());
+        }
     }
 
     private MatchDTO toDto(Match match) {
         if (null == match) return null;
-        MatchDTO dto = modelMapper.map(match, MatchDTO.class);
-        if (null != match.getPlayerOne()) dto.setPlayerOne(modelMapper.map(match.getPlayerOne(), PlayerDTO.class));
-        if (null != match.getPlayerTwo()) dto.setPlayerTwo(modelMapper.map(match.getPlayerTwo(), PlayerDTO.class));
+        return matchMapper.toDto(match, toDto(match.getPlayerOne()), toDto(match.getPlayerTwo()));
+    }
+
+    private PlayerDTO toDto(Player player) {
+        if (null == player) return null;
+        PlayerDTO dto = playerMapper.toDto(player);
+        dto.setRank(rankingService.rankOf(player.getId()));
         return dto;
     }
 }
@@ -0,0 +1,57 @@
+package com.netstock.chessadmin.service.impl;
+
+import com.netstock.chessadmin.dto.PlayerName;
+
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.regex.Pattern;
+
+/**
+ * Looks players up by how an imported file names them: {@code "Last, First"} as PGN writes names, {@code "First
+ * Last"}, or their email. Case and runs of whitespace are ignored. A name shared by more than one player is
+ * ambiguous and matches none of them.
+ */
+class PlayerNameIndex {
+    private static final Long AMBIGUOUS = -1L;
+    private static final Pattern COMMA = Pattern.compile("\\s*,\\s*");
+    private static final Pattern WHITESPACE = Pattern.compile("\\s+");
+
+    private final Map<String, Long> playerIds = new HashMap<>();
+
+    PlayerNameIndex(Iterable<PlayerName> players) {
+        for (PlayerName player : players) {
+            if (null != player.email()) {
+                put(player.email(), player.id());
+            }
+            if (null != player.firstName() && null != player.lastName()) {
+                put(player.lastName() + ", " + player.firstName(), player.id());
+                put(player.firstName() + " " + player.lastName(), player.id());
+            }
+        }
+    }
+
+    /**
+     * The id of the one player known by the name, or null if there is none or more than one.
+     */
+    Long find(String name) {
+        if (null == name) {
+            return null;
+        }
+        Long playerId = playerIds.get(normalize(name));
+        return AMBIGUOUS.equals(playerId) ? null : playerId;
+    }
+
+    boolean isAmbiguous(String name) {
+        return null != name && AMBIGUOUS.equals(playerIds.get(normalize(name)));
+    }
+
+    private void put(String name, Long playerId) {
+        playerIds.merge(normalize(name), playerId, (known, added) -> known.equals(added) ? known : AMBIGUOUS);
+    }
+
+    private static String normalize(String name) {
+        String spaced = WHITESPACE.matcher(name.strip()).replaceAll(" ");
+        return COMMA.matcher(spaced).replaceAll(", ").toLowerCase(Locale.ROOT);
+    }
+}
@@ -0,0 +1,155 @@
+package com.netstock.chessadmin.service.impl;
+
+import com.netstock.chessadmin.dto.PlayerName;
+import com.netstock.chessadmin.repository.PlayerRepository;
+import com.netstock.chessadmin.service.PlayerSearchService;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.NavigableSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListSet;
+import java.util.regex.Pattern;
+
+/**
+ * Keeps one sorted set of {@code word + '\0' + id} keys, a key for every word of each player's first and last name
+ * plus their email. A search seeks to the first search word and walks the keys that start with it, so it reads
+ * about as many keys as it returns however many players there are; further words filter those candidates. The
+ * set is loaded from the database on first use and kept in step by {@link PlayerServiceImpl}.
+ */
+@Service
+public class PlayerSearchServiceImpl implements PlayerSearchService {
+    /**
+     * Most keys a search walks before returning what it has, for short words that match a large part of the ladder
+     * while later words match hardly any of it.
+     */
+    static final int MAX_CANDIDATES = 10_000;
+    private static final char SEPARATOR = '\0';
+    private static final Pattern WORDS = Pattern.compile("[\\s,]+");
+
+    private final PlayerRepository playerRepository;
+    private final NavigableSet<String> keys = new ConcurrentSkipListSet<>();
+    private final Map<Long, PlayerName> players = new ConcurrentHashMap<>();
+    private volatile boolean loaded;
+
+    public PlayerSearchServiceImpl(PlayerRepository playerRepository) {
+        this.playerRepository = playerRepository;
+    }
+
+    public List<PlayerName> search(String text, int limit) {
+        if (limit < 1) {
+            return List.of();
+        }
+        ensureLoaded();
+        List<String> terms = words(null == text ? "" : text);
+        String first = terms.isEmpty() ? "" : terms.get(0);
+        Map<Long, PlayerName> found = new LinkedHashMap<>();
+        int candidates = 0;
+        for (String key : keys.tailSet(first, true)) {
+            if (!key.startsWith(first) || ++candidates > MAX_CANDIDATES) {
+                break;
+            }
+            Long playerId = Long.valueOf(key.substring(key.lastIndexOf(SEPARATOR) + 1));
+            PlayerName player = players.get(playerId);
+            if (null != player && !found.containsKey(playerId) && matchesAll(player, terms)) {
+                found.put(playerId, player);
+                if (found.size() == limit) {
+                    break;
+                }
+            }
+        }
+        return new ArrayList<>(found.values());
+    }
+
+    public void putAll(Collection<PlayerName> changed) {
+        List<PlayerName> copy = List.copyOf(changed);
+        afterCommit(() -> {
+            synchronized (this) {
+                if (loaded) {
+                    copy.forEach(this::index);
+                }
+            }
+        });
+    }
+
+    public void remove(Long playerId) {
+        afterCommit(() -> {
+            synchronized (this) {
+                PlayerName removed = players.remove(playerId);
+                if (null != removed) {
+                    keysOf(removed).forEach(keys::remove);
+                }
+            }
+        });
+    }
+
+    private void ensureLoaded() {
+        if (loaded) {
+            return;
+        }
+        synchronized (this) {
+            if (!loaded) {
+                playerRepository.findAllNames().forEach(this::index);
+                loaded = true;
+            }
+        }
+    }
+
+    private void index(PlayerName player) {
+        PlayerName previous = players.put(player.id(), player);
+        if (null != previous) {
+            keysOf(previous).forEach(keys::remove);
+        }
+        keys.addAll(keysOf(player));
+    }
+
+    private static List<String> keysOf(PlayerName player) {
+        return tokens(player).stream().map(token -> token + SEPARATOR + player.id()).toList();
+    }
+
+    private static List<String> tokens(PlayerName player) {
+        List<String> tokens = new ArrayList<>();
+        if (null != player.firstName()) {
+            tokens.addAll(words(player.firstName()));
+        }
+        if (null != player.lastName()) {
+            tokens.addAll(words(player.lastName()));
+        }
+        if (null != player.email() && !player.email().isBlank()) {
+            tokens.add(player.email().strip().toLowerCase(Locale.ROOT));
+        }
+        return tokens;
+    }
+
+    private static boolean matchesAll(PlayerName player, List<String> terms) {
+        if (terms.size() < 2) {
+            return true;
+        }
+        List<String> tokens = tokens(player);
+        return terms.stream().allMatch(term -> tokens.stream().anyMatch(token -> token.startsWith(term)));
+    }
+
+    private static List<String> words(String text) {
+        return WORDS.splitAsStream(text.strip().toLowerCase(Locale.ROOT)).filter(word -> !word.isEmpty()).toList();
+    }
+
+    private static void afterCommit(Runnable change) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    change.run();
+                }
+            });
+        } else {
+            change.run();
+        }
+    }
+}
@@ -1,32 +1,91 @@
 package com.netstock.chessadmin.service.impl;
 
 import com.netstock.chessadmin.dto.PlayerDTO;
+import com.netstock.chessadmin.dto.PlayerImportResult;
+import com.netstock.chessadmin.dto.PlayerName;
 import com.netstock.chessadmin.entity.Player;
+import com.netstock.chessadmin.entity.RankingEvent;
+import com.netstock.chessadmin.mapper.PlayerCsv;
+import com.netstock.chessadmin.mapper.PlayerMapper;
+import com.netstock.chessadmin.ranking.LadderChangedEvent;
+import com.netstock.chessadmin.ranking.LadderMetrics;
+import com.netstock.chessadmin.ranking.LadderWriter;
+import com.netstock.chessadmin.repository.HeadToHeadRepository;
 import com.netstock.chessadmin.repository.MatchRepository;
 import com.netstock.chessadmin.repository.PlayerRepository;
+import com.netstock.chessadmin.repository.RankingEventRepository;
+import com.netstock.chessadmin.service.PlayerSearchService;
 import com.netstock.chessadmin.service.PlayerService;
+import com.netstock.chessadmin.service.RankingService;
 import jakarta.transaction.Transactional;
-import org.modelmapper.ModelMapper;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.annotation.DependsOn;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
 
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.Reader;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
 import java.util.stream.Collectors;
 
 @Service
+@DependsOn({"idSequenceMigration", "headToHeadBaseline"})
 public class PlayerServiceImpl implements PlayerService {
+    private static final int IMPORT_CHUNK_SIZE = 5_000;
+
     private final PlayerRepository playerRepository;
     private final MatchRepository matchRepository;
-    private final ModelMapper modelMapper;
+    private final RankingEventRepository rankingEventRepository;
+    private final HeadToHeadRepository headToHeadRepository;
+    private final PlayerMapper playerMapper;
+    private final RankingService rankingService;
+    private final LadderWriter ladderWriter;
+    private final ApplicationEventPublisher eventPublisher;
+    private final LadderMetrics ladderMetrics;
+    private final PlayerSearchService playerSearchService;
 
-    public PlayerServiceImpl(PlayerRepository playerRepository, MatchRepository matchRepository, ModelMapper modelMapper) {
+    public PlayerServiceImpl(PlayerRepository playerRepository, MatchRepository matchRepository,
+                             RankingEventRepository rankingEventRepository,
+                             HeadToHeadRepository headToHeadRepository, PlayerMapper playerMapper,
+                             RankingService rankingService, LadderWriter ladderWriter,
+                             ApplicationEventPublisher eventPublisher, LadderMetrics ladderMetrics,
+                             PlayerSearchService playerSearchService) {
         this.playerRepository = playerRepository;
         this.matchRepository = matchRepository;
-        this.modelMapper = modelMapper;
+        this.rankingEventRepository = rankingEventRepository;
+        this.headToHeadRepository = headToHeadRepository;
+        this.playerMapper = playerMapper;
+        this.rankingService = rankingService;
+        this.ladderWriter = ladderWriter;
+        this.eventPublisher = eventPublisher;
+        this.ladderMetrics = ladderMetrics;
+        this.playerSearchService = playerSearchService;
     }
 
     public List<PlayerDTO> getAllPlayers() {
-        return playerRepository.findAll().stream().map(player -> modelMapper.map(player, PlayerDTO.class)).collect(Collectors.toList());
+        return playerRepository.findAll().stream().map(this::toDto).collect(Collectors.toList());
+    }
+
+    public List<PlayerDTO> getPlayers(Pageable pageable) {
+        return playerRepository.findAll(toEntityPage(pageable)).stream().map(this::toDto).collect(Collectors.toList());
+    }
+
+    public long countPlayers() {
+        return playerRepository.count();
     }
 
     public void save(PlayerDTO playerDTO) {
@@ -38,28 +97,162 @@ public class PlayerServiceImpl implements PlayerService {
     }
 
     private void saveNewPlayer(PlayerDTO playerDTO) {
-        Player player = modelMapper.map(playerDTO, Player.class);
-        player.setRank(playerRepository.findHighestRank() + 1);
+        Player player = playerMapper.toEntity(playerDTO);
+        player.setRankKey(playerRepository.findHighestRankKey() + RankingService.RANK_KEY_GAP);
+        player.setCreatedAt(Instant.now());
         playerRepository.save(player);
+        int rank = rankingService.addPlayer(player.getId(), player.getRankKey());
+        rankingEventRepository.save(RankingEvent.playerAdded(player.getId(), rank, player.getCreatedAt()));
+        playerSearchService.putAll(List.of(nameOf(player)));
+        eventPublisher.publishEvent(new LadderChangedEvent(Set.of(player.getId()), rank, rank));
     }
 
     private void updatePlayer(PlayerDTO playerDTO) {
-        Player player = modelMapper.map(playerDTO, Player.class);
+        Player player = playerMapper.toEntity(playerDTO);
         Player existingPlayer = playerRepository.findById(playerDTO.getId()).orElseThrow(()-> new IllegalArgumentException("Update Player not found"));
         if (Objects.nonNull(existingPlayer)) {
-            player.setRank(existingPlayer.getRank());
+            player.setRankKey(existingPlayer.getRankKey());
+            player.setNumberOfGamesPlayed(existingPlayer.getNumberOfGamesPlayed());
+            player.setWins(existingPlayer.getWins());
+            player.setLosses(existingPlayer.getLosses());
+            player.setDraws(existingPlayer.getDraws());
+            player.setUpsetsScored(existingPlayer.getUpsetsScored());
+            player.setUpsetsSuffered(existingPlayer.getUpsetsSuffered());
+            player.setStreak(existingPlayer.getStreak());
+            player.setCreatedAt(existingPlayer.getCreatedAt());
+            // an edit made against an older version of the player fails instead of overwriting the newer one; that is
+            // not a race a retry can win, so it is not reported as an optimistic locking conflict
+            if (null == player.getVersion()) {
+                player.setVersion(existingPlayer.getVersion());
+            } else if (!player.getVersion().equals(existingPlayer.getVersion())) {
+                throw new IllegalStateException("The player was changed by someone else, reload it and try again");
+            }
             playerRepository.save(player);
+            playerSearchService.putAll(List.of(nameOf(player)));
+            eventPublisher.publishEvent(new LadderChangedEvent(Set.of(player.getId())));
         }
     }
 
     @Transactional
     public void delete(Long playerId) {
-        int highestRank = playerRepository.findHighestRank();
-        Player player = playerRepository.findById(playerId).orElse(null);
-        matchRepository.clearPlayerReferences(playerId);
-        playerRepository.deleteById(playerId);
-        if (Objects.nonNull(player) && player.getRank() > highestRank) {
-            playerRepository.decrementRanksFrom(player.getRank(), highestRank);
+        int rank = ladderMetrics.timePlayerDelete(() -> {
+            matchRepository.clearPlayerReferences(playerId);
+            headToHeadRepository.deleteByPlayer(playerId);
+            int removedFrom = rankingService.removePlayer(playerId);
+            if (removedFrom > 0) {
+                rankingEventRepository.save(RankingEvent.playerRemoved(playerId, removedFrom, Instant.now()));
+            }
+            playerRepository.deleteById(playerId);
+            return removedFrom;
+        });
+        playerSearchService.remove(playerId);
+        // everyone below closes up by one
+        eventPublisher.publishEvent(rank > 0
+                ? new LadderChangedEvent(Set.of(playerId), rank, Integer.MAX_VALUE)
+                : new LadderChangedEvent(Set.of(playerId)));
+    }
+
+    /**
+     * The rank keys are one contiguous block below the current bottom of the ladder, read once; players are
+     * inserted in chunks so only one chunk is held in memory.
+     */
+    @Transactional
+    public PlayerImportResult importPlayers(Reader csv) {
+        long started = System.nanoTime();
+        long rankKey = playerRepository.findHighestRankKey();
+        Instant createdAt = Instant.now();
+        List<PlayerImportResult.RejectedRow> rejected = new ArrayList<>();
+        List<Player> chunk = new ArrayList<>(IMPORT_CHUNK_SIZE);
+        Set<Long> imported = new HashSet<>();
+        BufferedReader reader = csv instanceof BufferedReader buffered ? buffered : new BufferedReader(csv);
+        try {
+            long lineNumber = 0;
+            String line;
+            while (null != (line = reader.readLine())) {
+                lineNumber++;
+                if (line.isBlank() || (1 == lineNumber && PlayerCsv.isHeader(line))) {
+                    continue;
+                }
+                try {
+                    Player player = playerMapper.toEntity(PlayerCsv.parse(line));
+                    rankKey += RankingService.RANK_KEY_GAP;
+                    player.setRankKey(rankKey);
+                    player.setCreatedAt(createdAt);
+                    chunk.add(player);
+                } catch (IllegalArgumentException e) {
+                    rejected.add(new PlayerImportResult.RejectedRow(lineNumber, e.getMessage()));
+                }
+                if (chunk.size() == IMPORT_CHUNK_SIZE) {
+                    insertChunk(chunk, imported);
+                }
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        insertChunk(chunk, imported);
+        if (!imported.isEmpty()) {
+            int bottom = rankingService.ladderSize();
+            eventPublisher.publishEvent(new LadderChangedEvent(imported, bottom - imported.size() + 1, bottom));
+        }
+        return new PlayerImportResult(imported.size(), rejected, Duration.ofNanos(System.nanoTime() - started));
+    }
+
+    private void insertChunk(List<Player> chunk, Set<Long> imported) {
+        playerRepository.insertAll(chunk);
+        List<RankingEvent> events = new ArrayList<>(chunk.size());
+        List<PlayerName> names = new ArrayList<>(chunk.size());
+        for (Player player : chunk) {
+            int rank = rankingService.addPlayer(player.getId(), player.getRankKey());
+            events.add(RankingEvent.playerAdded(player.getId(), rank, player.getCreatedAt()));
+            names.add(nameOf(player));
+            imported.add(player.getId());
         }
+        rankingEventRepository.appendAll(events);
+        playerSearchService.putAll(names);
+        chunk.clear();
+    }
+
+    public CompletableFuture<PlayerImportResult> submitImport(Path csv) {
+        return ladderWriter.submit("importPlayers", () -> {
+            try (Reader reader = Files.newBufferedReader(csv, StandardCharsets.UTF_8)) {
+                return importPlayers(reader);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        });
+    }
+
+    public CompletableFuture<Void> submitSave(PlayerDTO playerDTO) {
+        return ladderWriter.submit("savePlayer", () -> {
+            save(playerDTO);
+            return null;
+        });
+    }
+
+    public CompletableFuture<Void> submitDelete(Long playerId) {
+        return ladderWriter.submit("deletePlayer", () -> {
+            delete(playerId);
+            return null;
+        });
+    }
+
+    /**
+     * The dense rank is not stored, but sorts exactly like the rank key; id breaks ties so pages never overlap.
+     */
+    private static Pageable toEntityPage(Pageable pageable) {
+        Sort sort = Sort.by(pageable.getSort().stream()
+                .map(order -> "rank".equals(order.getProperty()) ? order.withProperty("rankKey") : order)
+                .toList());
+        return PageRequest.of(pageable.getPageNumber(), pageable.getPageSize(), sort.and(Sort.by("id")));
+    }
+
+    private static PlayerName nameOf(Player player) {
+        return new PlayerName(player.getId(), player.getFirstName(), player.getLastName(), player.getEmail());
+    }
+
+    private PlayerDTO toDto(Player player) {
+        PlayerDTO dto = playerMapper.toDto(player);
+        dto.setRank(rankingService.rankOf(player.getId()));
+        return dto;
     }
 }
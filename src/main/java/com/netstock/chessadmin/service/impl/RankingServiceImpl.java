@@ -0,0 +1,343 @@
+package com.netstock.chessadmin.service.impl;
+
+import com.netstock.chessadmin.enums.MatchOutcome;
+import com.netstock.chessadmin.ranking.LadderChange;
+import com.netstock.chessadmin.ranking.LadderMetrics;
+import com.netstock.chessadmin.ranking.MatchResult;
+import com.netstock.chessadmin.ranking.RankIndex;
+import com.netstock.chessadmin.ranking.RankKey;
+import com.netstock.chessadmin.ranking.RankingRules;
+import com.netstock.chessadmin.ranking.RankingRules.Placement;
+import com.netstock.chessadmin.repository.PlayerRepository;
+import com.netstock.chessadmin.service.RankingService;
+import org.springframework.context.annotation.DependsOn;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Stream;
+
+/**
+ * Keeps the ladder in an in-memory {@link RankIndex} so rank lookups and moves are O(log n).
+ * The persisted order is the sparse {@code rankKey}: a moved player gets a key between its new neighbours, so
+ * only the players that moved are written. When two neighbours have run out of room between them the keys of
+ * a small window around the move are spread out again.
+ * The index is loaded lazily from the database and dropped whenever a transaction that touched it rolls back.
+ * It is never loaded before {@link com.netstock.chessadmin.config.RankKeyMigration} has given every player a key.
+ * <p>
+ * Every transaction that changes the ladder first advances the persisted ladder version from the one the index was
+ * loaded at. When another instance has changed the ladder since, that fails as an optimistic locking conflict
+ * before anything computed from the stale order is written, and the retry reloads the index. Reads on an instance
+ * that does not write see another instance's changes only once its index is next reloaded.
+ */
+@Service
+@DependsOn({"rankKeyMigration", "rankingEventBaseline"})
+public class RankingServiceImpl implements RankingService {
+    private static final long MIN_RESPREAD_SPACING = 1L << 16;
+
+    private final PlayerRepository playerRepository;
+    private final LadderMetrics ladderMetrics;
+    private final RankIndex index = new RankIndex();
+    private final Map<Long, Long> rankKeys = new HashMap<>();
+    private long ladderVersion;
+    private boolean loaded;
+
+    public RankingServiceImpl(PlayerRepository playerRepository, LadderMetrics ladderMetrics) {
+        this.playerRepository = playerRepository;
+        this.ladderMetrics = ladderMetrics;
+    }
+
+    public synchronized int ladderSize() {
+        ensureLoaded();
+        return index.size();
+    }
+
+    public synchronized int rankOf(Long playerId) {
+        ensureLoaded(playerId);
+        return index.rankOf(playerId);
+    }
+
+    public synchronized int findRank(Long playerId) {
+        ensureLoaded();
+        return null != playerId && index.contains(playerId) ? index.rankOf(playerId) : 0;
+    }
+
+    public synchronized Long playerAt(int rank) {
+        ensureLoaded();
+        return index.playerAt(rank);
+    }
+
+    public synchronized List<Long> playersBetween(int fromRank, int toRank) {
+        ensureLoaded();
+        return index.playersBetween(fromRank, toRank);
+    }
+
+    @Transactional
+    public synchronized LadderChange recordResult(Long playerOneId, Long playerTwoId, MatchOutcome outcome) {
+        ensureLoaded(playerOneId, playerTwoId);
+        Set<Long> placed = new LinkedHashSet<>();
+        LadderChange change = move(playerOneId, playerTwoId, outcome, placed);
+        Map<Long, Long> written = Map.of();
+        if (!placed.isEmpty()) {
+            claimLadder();
+            written = assignKeys(placed);
+            written.forEach(playerRepository::updateRankKey);
+        }
+        ladderMetrics.recordKeysWritten(written.size());
+        return change;
+    }
+
+    @Transactional
+    public synchronized List<LadderChange> recordResults(List<MatchResult> results) {
+        ensureLoaded(results.stream()
+                .flatMap(result -> Stream.of(result.playerOneId(), result.playerTwoId()))
+                .toArray(Long[]::new));
+        Set<Long> placed = new LinkedHashSet<>();
+        List<LadderChange> changes = new ArrayList<>(results.size());
+        invalidateOnRollback();
+        for (MatchResult result : results) {
+            changes.add(move(result.playerOneId(), result.playerTwoId(), result.outcome(), placed));
+        }
+        Map<Long, Long> written = Map.of();
+        if (!placed.isEmpty()) {
+            claimLadder();
+            // players that only slid past the moved ones keep their order, so only the moved ones need new keys
+            written = assignKeys(placed);
+            playerRepository.updateRankKeys(written);
+        }
+        ladderMetrics.recordKeysWritten(written.size());
+        return changes;
+    }
+
+    public synchronized int addPlayer(Long playerId, long rankKey) {
+        if (!loaded) {
+            ensureLoaded();
+        }
+        if (!index.contains(playerId)) {
+            claimLadder();
+            index.append(playerId);
+            rankKeys.put(playerId, rankKey);
+        }
+        return index.rankOf(playerId);
+    }
+
+    /**
+     * Takes the player off the ladder. Nothing is written: the players below simply close up over the gap.
+     */
+    public synchronized int removePlayer(Long playerId) {
+        ensureLoaded(playerId);
+        if (!index.contains(playerId)) {
+            return 0;
+        }
+        int rank = index.rankOf(playerId);
+        claimLadder();
+        index.remove(playerId);
+        rankKeys.remove(playerId);
+        return rank;
+    }
+
+
+    public synchronized void invalidate() {
+        loaded = false;
+        index.clear();
+        rankKeys.clear();
+    }
+
+    private void ensureLoaded(Long... playerIds) {
+        boolean stale = !loaded;
+        for (Long playerId : playerIds) {
+            if (null == playerId) {
+                throw new IllegalArgumentException("Player id is required");
+            }
+            stale |= !index.contains(playerId);
+        }
+        if (stale) {
+            index.clear();
+            rankKeys.clear();
+            ladderVersion = playerRepository.findLadderVersion();
+            List<RankKey> ladder = playerRepository.findAllRankKeys();
+            index.appendAll(ladder.stream().map(RankKey::playerId).toList());
+            ladder.forEach(entry -> rankKeys.put(entry.playerId(), entry.rankKey()));
+            loaded = true;
+            invalidateOnRollback();
+        }
+    }
+
+    /**
+     * Advances the ladder version from the one the index was loaded at, once per transaction, before the
+     * transaction changes the ladder. Fails with an optimistic locking conflict, and drops the index, when another
+     * instance has advanced it since.
+     */
+    private void claimLadder() {
+        boolean inTransaction = TransactionSynchronizationManager.isSynchronizationActive();
+        if (inTransaction && TransactionSynchronizationManager.hasResource(this)) {
+            return;
+        }
+        invalidateOnRollback();
+        try {
+            playerRepository.advanceLadder(ladderVersion);
+        } catch (OptimisticLockingFailureException e) {
+            invalidate();
+            throw e;
+        }
+        ladderVersion++;
+        if (inTransaction) {
+            TransactionSynchronizationManager.bindResource(this, ladderVersion);
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    TransactionSynchronizationManager.unbindResourceIfPossible(RankingServiceImpl.this);
+                }
+            });
+        }
+    }
+
+    public void invalidateOnCompletion() {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            invalidate();
+            return;
+        }
+        // afterCommit runs before any after-commit event listener, so none of them reads the old index
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                invalidate();
+            }
+
+            @Override
+            public void afterCompletion(int status) {
+                if (STATUS_COMMITTED != status) {
+                    invalidate();
+                }
+            }
+        });
+    }
+
+    private void invalidateOnRollback() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    if (STATUS_COMMITTED != status) {
+                        invalidate();
+                    }
+                }
+            });
+        }
+    }
+
+    /**
+     * Applies one result to the index and adds the players it placed to {@code placed}. Keys are left alone.
+     */
+    private LadderChange move(long playerOneId, long playerTwoId, MatchOutcome outcome, Set<Long> placed) {
+        int playerOneRank = index.rankOf(playerOneId);
+        int playerTwoRank = index.rankOf(playerTwoId);
+        List<Placement> placements = RankingRules.placements(playerOneId, playerOneRank, playerTwoId, playerTwoRank, outcome);
+        if (placements.isEmpty()) {
+            return LadderChange.none(List.of(
+                    new LadderChange.Move(playerOneId, playerOneRank, playerOneRank),
+                    new LadderChange.Move(playerTwoId, playerTwoRank, playerTwoRank)));
+        }
+        RankingRules.apply(index, placements);
+        placements.forEach(placement -> placed.add(placement.playerId()));
+        return new LadderChange(List.of(
+                new LadderChange.Move(playerOneId, playerOneRank, index.rankOf(playerOneId)),
+                new LadderChange.Move(playerTwoId, playerTwoRank, index.rankOf(playerTwoId))),
+                Math.min(playerOneRank, playerTwoRank), Math.max(playerOneRank, playerTwoRank));
+    }
+
+    /**
+     * Gives the placed players keys that fit their current position, top to bottom, and returns every key that
+     * changed (player id -> rank key).
+     */
+    private Map<Long, Long> assignKeys(Set<Long> placed) {
+        // the placed players' old keys no longer fit their new position, drop them until they are reassigned
+        placed.forEach(rankKeys::remove);
+        Map<Long, Long> written = new LinkedHashMap<>();
+        placed.stream()
+                .sorted(Comparator.comparingInt(index::rankOf))
+                .forEach(playerId -> assignKey(playerId, written));
+        return written;
+    }
+
+    /**
+     * Gives the player a key halfway between its new neighbours, or respreads the neighbourhood when there is no
+     * room left between them.
+     */
+    private void assignKey(Long playerId, Map<Long, Long> written) {
+        int rank = index.rankOf(playerId);
+        long above = keyAbove(rank - 1);
+        Long below = keyBelow(rank + 1);
+        long limit = null == below ? above + 2 * RANK_KEY_GAP : below;
+        if (limit - above >= 2) {
+            setKey(playerId, above + (limit - above) / 2, written);
+        } else {
+            respread(rank, written);
+        }
+    }
+
+    /**
+     * Spreads the keys of the smallest window around {@code rank} whose bounding keys leave at least
+     * {@link #MIN_RESPREAD_SPACING} between players, doubling the window until they do. Reaching the bottom of the
+     * ladder always succeeds because the keys below the last player are unbounded.
+     */
+    private void respread(int rank, Map<Long, Long> written) {
+        int radius = 1;
+        while (true) {
+            int from = Math.max(1, rank - radius);
+            int to = Math.min(index.size(), rank + radius);
+            long above = keyAbove(from - 1);
+            Long below = keyBelow(to + 1);
+            long spacing = null == below ? RANK_KEY_GAP : (below - above) / (to - from + 2);
+            if (spacing >= MIN_RESPREAD_SPACING) {
+                List<Long> window = index.playersBetween(from, to);
+                for (int i = 0; i < window.size(); i++) {
+                    setKey(window.get(i), above + spacing * (i + 1), written);
+                }
+                return;
+            }
+            radius *= 2;
+        }
+    }
+
+    /**
+     * The key of the nearest player at or above {@code rank} that currently has one, or 0 above the top.
+     */
+    private long keyAbove(int rank) {
+        for (int r = rank; r >= 1; r--) {
+            Long rankKey = rankKeys.get(index.playerAt(r));
+            if (null != rankKey) {
+                return rankKey;
+            }
+        }
+        return 0L;
+    }
+
+    /**
+     * The key of the nearest player at or below {@code rank} that currently has one, or null below the bottom.
+     */
+    private Long keyBelow(int rank) {
+        for (int r = rank; r <= index.size(); r++) {
+            Long rankKey = rankKeys.get(index.playerAt(r));
+            if (null != rankKey) {
+                return rankKey;
+            }
+        }
+        return null;
+    }
+
+    private void setKey(Long playerId, long rankKey, Map<Long, Long> written) {
+        rankKeys.put(playerId, rankKey);
+        written.put(playerId, rankKey);
+    }
+}
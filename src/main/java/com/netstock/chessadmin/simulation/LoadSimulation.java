@@ -0,0 +1,222 @@
+package com.netstock.chessadmin.simulation;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.netstock.chessadmin.dto.MatchDTO;
+import com.netstock.chessadmin.dto.PlayerDTO;
+import com.netstock.chessadmin.enums.MatchOutcome;
+import com.netstock.chessadmin.ranking.RankKey;
+import com.netstock.chessadmin.repository.PlayerRepository;
+import com.netstock.chessadmin.service.MatchService;
+import com.netstock.chessadmin.service.PlayerService;
+import com.netstock.chessadmin.service.RankingService;
+import jakarta.persistence.EntityManagerFactory;
+import lombok.extern.slf4j.Slf4j;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.SplittableRandom;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Synthetic tournament: seeds a ladder of players through {@link PlayerService}, replays randomized results through
+ * {@link MatchService} from a pool of concurrent clients, checks the ladder is still consistent and writes a
+ * {@link LoadSimulationReport}. Results go through the ladder writer like those entered in the UI, so the latency
+ * includes the time spent queued behind other clients.
+ * Only runs with {@code chess.simulation.enabled=true}, and refuses to run against a ladder that already has players;
+ * point {@code spring.datasource.url} at an in-memory database for it.
+ */
+@Slf4j
+@Component
+@Order(100)
+@ConditionalOnProperty(name = "chess.simulation.enabled", havingValue = "true")
+public class LoadSimulation implements ApplicationRunner {
+    private final PlayerService playerService;
+    private final MatchService matchService;
+    private final RankingService rankingService;
+    private final PlayerRepository playerRepository;
+    private final EntityManagerFactory entityManagerFactory;
+    private final Settings settings;
+
+    record Settings(int players, int matches, int concurrency, double upsetRatio, double drawRatio, long seed,
+                    Path reportFile) {
+        Settings {
+            if (players < 2) {
+                throw new IllegalArgumentException("chess.simulation.players must be at least 2");
+            }
+            if (matches < 0 || concurrency < 1) {
+                throw new IllegalArgumentException("chess.simulation.matches and concurrency must be positive");
+            }
+            if (upsetRatio < 0 || drawRatio < 0 || upsetRatio + drawRatio > 1) {
+                throw new IllegalArgumentException("chess.simulation upset and draw ratios must add up to at most 1");
+            }
+        }
+    }
+
+    public LoadSimulation(PlayerService playerService, MatchService matchService, RankingService rankingService,
+                          PlayerRepository playerRepository, EntityManagerFactory entityManagerFactory,
+                          @Value("${chess.simulation.players:50000}") int players,
+                          @Value("${chess.simulation.matches:2000000}") int matches,
+                          @Value("${chess.simulation.concurrency:8}") int concurrency,
+                          @Value("${chess.simulation.upset-ratio:0.2}") double upsetRatio,
+                          @Value("${chess.simulation.draw-ratio:0.3}") double drawRatio,
+                          @Value("${chess.simulation.seed:42}") long seed,
+                          @Value("${chess.simulation.report-file:target/load-simulation-report.json}") Path reportFile) {
+        this.playerService = playerService;
+        this.matchService = matchService;
+        this.rankingService = rankingService;
+        this.playerRepository = playerRepository;
+        this.entityManagerFactory = entityManagerFactory;
+        this.settings = new Settings(players, matches, concurrency, upsetRatio, drawRatio, seed, reportFile);
+    }
+
+    @Override
+    public void run(ApplicationArguments args) throws Exception {
+        if (playerRepository.count() > 0) {
+            throw new IllegalStateException("Load simulation needs an empty ladder, point it at an in-memory database");
+        }
+        log.info("Load simulation: seeding {} players", settings.players());
+        long seedStart = System.nanoTime();
+        seedPlayers();
+        Duration seed = Duration.ofNanos(System.nanoTime() - seedStart);
+
+        log.info("Load simulation: replaying {} matches from {} clients", settings.matches(), settings.concurrency());
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        boolean statisticsWereEnabled = statistics.isStatisticsEnabled();
+        statistics.setStatisticsEnabled(true);
+        long statementsBefore = statistics.getPrepareStatementCount();
+        long[] latencyNanos = new long[settings.matches()];
+        long replayStart = System.nanoTime();
+        int failed = replayMatches(latencyNanos);
+        Duration replay = Duration.ofNanos(System.nanoTime() - replayStart);
+        long statements = statistics.getPrepareStatementCount() - statementsBefore;
+        statistics.setStatisticsEnabled(statisticsWereEnabled);
+
+        LoadSimulationReport report = LoadSimulationReport.of(settings, failed, seed, replay, latencyNanos,
+                statements, rankIntegrityViolations());
+        writeReport(report);
+        log.info("Load simulation finished: {}", report);
+    }
+
+    private void seedPlayers() {
+        for (int i = 1; i <= settings.players(); i++) {
+            playerService.submitSave(PlayerDTO.builder()
+                    .firstName("Sim" + i)
+                    .lastName("Player" + i)
+                    .email("sim" + i + "@example.com")
+                    .dateOfBirth(LocalDate.of(1990, 1, 1).plusDays(i % 10_000))
+                    .build()).join();
+        }
+    }
+
+    /**
+     * Every client takes the next match number until all have been played, and waits for each result before
+     * submitting the next. Returns the number of matches that failed.
+     */
+    private int replayMatches(long[] latencyNanos) throws InterruptedException {
+        AtomicInteger next = new AtomicInteger();
+        AtomicInteger failed = new AtomicInteger();
+        ExecutorService clients = Executors.newFixedThreadPool(settings.concurrency());
+        try {
+            List<Future<?>> running = new ArrayList<>();
+            for (int client = 0; client < settings.concurrency(); client++) {
+                SplittableRandom random = new SplittableRandom(settings.seed() + client);
+                running.add(clients.submit(() -> {
+                    for (int match = next.getAndIncrement(); match < settings.matches(); match = next.getAndIncrement()) {
+                        MatchDTO matchDTO = randomMatch(random);
+                        long start = System.nanoTime();
+                        try {
+                            matchService.submitMatch(matchDTO).join();
+                        } catch (RuntimeException e) {
+                            failed.incrementAndGet();
+                            log.debug("Simulated match {} failed", match, e);
+                        }
+                        latencyNanos[match] = System.nanoTime() - start;
+                    }
+                }));
+            }
+            for (Future<?> client : running) {
+                client.get();
+            }
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("Load simulation client failed", e.getCause());
+        } finally {
+            clients.shutdown();
+            clients.awaitTermination(1, TimeUnit.MINUTES);
+        }
+        return failed.get();
+    }
+
+    /**
+     * Two distinct players picked by their current rank; the outcome is drawn from the configured mix and expressed
+     * relative to who is ranked higher at the time of picking.
+     */
+    private MatchDTO randomMatch(SplittableRandom random) {
+        int ladderSize = rankingService.ladderSize();
+        int first = 1 + random.nextInt(ladderSize);
+        int second = 1 + random.nextInt(ladderSize - 1);
+        if (second >= first) {
+            ++second;
+        }
+        int higherRank = Math.min(first, second);
+        int lowerRank = Math.max(first, second);
+        double roll = random.nextDouble();
+        MatchOutcome outcome = roll < settings.upsetRatio() ? MatchOutcome.PLAYER_TWO_WON
+                : roll < settings.upsetRatio() + settings.drawRatio() ? MatchOutcome.DRAW
+                : MatchOutcome.PLAYER_ONE_WON;
+        return MatchDTO.builder()
+                .playerOne(PlayerDTO.builder().id(rankingService.playerAt(higherRank)).build())
+                .playerTwo(PlayerDTO.builder().id(rankingService.playerAt(lowerRank)).build())
+                .outcome(outcome)
+                .build();
+    }
+
+    /**
+     * Compares the in-memory ladder with the rank key order in the database, position by position.
+     */
+    private int rankIntegrityViolations() {
+        List<RankKey> ladder = playerRepository.findAllRankKeys();
+        int violations = Math.abs(ladder.size() - rankingService.ladderSize());
+        Set<Long> keys = new HashSet<>();
+        for (int i = 0; i < ladder.size(); i++) {
+            RankKey entry = ladder.get(i);
+            if (null == entry.rankKey() || !keys.add(entry.rankKey())
+                    || (i < rankingService.ladderSize() && !entry.playerId().equals(rankingService.playerAt(i + 1)))) {
+                ++violations;
+            }
+        }
+        return violations;
+    }
+
+    private void writeReport(LoadSimulationReport report) {
+        try {
+            Path file = settings.reportFile().toAbsolutePath();
+            Files.createDirectories(file.getParent());
+            new ObjectMapper().enable(SerializationFeature.INDENT_OUTPUT).writeValue(file.toFile(), report);
+            log.info("Load simulation report written to {}", file);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not write the load simulation report", e);
+        }
+    }
+}
@@ -0,0 +1,57 @@
+package com.netstock.chessadmin.simulation;
+
+import java.time.Duration;
+import java.util.Arrays;
+
+/**
+ * Outcome of one load simulation run, written as JSON so runs can be compared.
+ *
+ * @param sqlStatementsPerMatch JDBC statements prepared by Hibernate during the replay, per match
+ * @param rankIntegrityViolations players whose place in the in-memory ladder differs from the rank key order in the
+ *                                database, plus any duplicate rank keys; zero on a healthy run
+ */
+public record LoadSimulationReport(
+        int players,
+        int matches,
+        int failedMatches,
+        int concurrency,
+        double upsetRatio,
+        double drawRatio,
+        long seedMillis,
+        long replayMillis,
+        double matchesPerSecond,
+        double p50Millis,
+        double p99Millis,
+        double p999Millis,
+        double maxMillis,
+        double sqlStatementsPerMatch,
+        int rankIntegrityViolations) {
+
+    static LoadSimulationReport of(LoadSimulation.Settings settings, int failedMatches, Duration seed, Duration replay,
+                                   long[] latencyNanos, long sqlStatements, int rankIntegrityViolations) {
+        long[] sorted = latencyNanos.clone();
+        Arrays.sort(sorted);
+        int matches = settings.matches();
+        return new LoadSimulationReport(settings.players(), matches, failedMatches, settings.concurrency(),
+                settings.upsetRatio(), settings.drawRatio(), seed.toMillis(), replay.toMillis(),
+                replay.isZero() ? 0 : matches / (replay.toNanos() / 1e9),
+                toMillis(percentile(sorted, 0.50)), toMillis(percentile(sorted, 0.99)),
+                toMillis(percentile(sorted, 0.999)), toMillis(percentile(sorted, 1.0)),
+                matches == 0 ? 0 : (double) sqlStatements / matches, rankIntegrityViolations);
+    }
+
+    /**
+     * Nearest-rank percentile of already sorted values; 0 when there are none.
+     */
+    static long percentile(long[] sorted, double fraction) {
+        if (sorted.length == 0) {
+            return 0;
+        }
+        int index = (int) Math.ceil(fraction * sorted.length) - 1;
+        return sorted[Math.max(0, Math.min(index, sorted.length - 1))];
+    }
+
+    private static double toMillis(long nanos) {
+        return nanos / 1e6;
+    }
+}
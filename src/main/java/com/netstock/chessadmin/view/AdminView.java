@@ -0,0 +1,193 @@
+package com.netstock.chessadmin.view;
+
+import com.netstock.chessadmin.dto.MatchImportResult;
+import com.netstock.chessadmin.dto.PlayerImportResult;
+import com.netstock.chessadmin.mapper.PlayerCsv;
+import com.netstock.chessadmin.ranking.LadderRecompute;
+import com.netstock.chessadmin.ranking.LadderRecompute.Progress;
+import com.netstock.chessadmin.ranking.LadderRecompute.Status;
+import com.netstock.chessadmin.service.MatchService;
+import com.netstock.chessadmin.service.PlayerService;
+import com.vaadin.flow.component.AttachEvent;
+import com.vaadin.flow.component.DetachEvent;
+import com.vaadin.flow.component.UI;
+import com.vaadin.flow.component.button.Button;
+import com.vaadin.flow.component.html.H2;
+import com.vaadin.flow.component.html.Span;
+import com.vaadin.flow.component.notification.Notification;
+import com.vaadin.flow.component.orderedlayout.VerticalLayout;
+import com.vaadin.flow.component.progressbar.ProgressBar;
+import com.vaadin.flow.component.upload.Upload;
+import com.vaadin.flow.router.PageTitle;
+import com.vaadin.flow.router.Route;
+import com.vaadin.flow.server.streams.UploadEvent;
+import com.vaadin.flow.shared.Registration;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.time.Duration;
+import java.util.concurrent.CompletionException;
+import java.util.stream.Collectors;
+
+@PageTitle("Admin")
+@Route(value = "admin", layout = MainLayout.class)
+public class AdminView extends VerticalLayout {
+    private static final int POLL_INTERVAL_MILLIS = 500;
+    private static final int REJECTED_ROWS_SHOWN = 20;
+
+    private final LadderRecompute ladderRecompute;
+    private final PlayerService playerService;
+    private final MatchService matchService;
+    private final Button recompute = new Button("Recompute ladder from match history");
+    private final ProgressBar progressBar = new ProgressBar();
+    private final Span status = new Span();
+    private final Upload importPlayers = new Upload(this::importPlayers);
+    private final Span importStatus = new Span();
+    private final Upload importMatches = new Upload(this::importMatches);
+    private final Span matchImportStatus = new Span();
+    private Registration pollRegistration;
+
+    public AdminView(LadderRecompute ladderRecompute, PlayerService playerService, MatchService matchService) {
+        this.ladderRecompute = ladderRecompute;
+        this.playerService = playerService;
+        this.matchService = matchService;
+        setPadding(true);
+        setSpacing(true);
+        recompute.addClickListener(e -> startRecompute());
+        importPlayers.setAcceptedFileTypes("text/csv", ".csv");
+        importPlayers.setMaxFiles(1);
+        importMatches.setAcceptedFileTypes(".pgn");
+        importMatches.setMaxFiles(1);
+        add(new H2("Admin"), recompute, progressBar, status,
+                new Span("Import players, one per line: " + PlayerCsv.HEADER), importPlayers, importStatus,
+                new Span("Import results from PGN, in date order; players are matched by name or email"),
+                importMatches, matchImportStatus);
+        show(ladderRecompute.progress());
+    }
+
+    @Override
+    protected void onAttach(AttachEvent attachEvent) {
+        pollRegistration = attachEvent.getUI().addPollListener(e -> show(ladderRecompute.progress()));
+        if (Status.RUNNING == ladderRecompute.progress().status()) {
+            attachEvent.getUI().setPollInterval(POLL_INTERVAL_MILLIS);
+        }
+    }
+
+    @Override
+    protected void onDetach(DetachEvent detachEvent) {
+        pollRegistration.remove();
+        detachEvent.getUI().setPollInterval(-1);
+    }
+
+    private void startRecompute() {
+        try {
+            ladderRecompute.submit();
+        } catch (IllegalStateException e) {
+            Notification.show(e.getMessage());
+        }
+        getUI().ifPresent(ui -> ui.setPollInterval(POLL_INTERVAL_MILLIS));
+        show(ladderRecompute.progress());
+    }
+
+    /**
+     * Spools the upload to a temporary file the import on the ladder writer can read again if it is retried; the
+     * request waits for it to finish.
+     */
+    private void importPlayers(UploadEvent event) {
+        String text;
+        Path csv = null;
+        try {
+            csv = Files.createTempFile("players", ".csv");
+            try (InputStream upload = event.getInputStream()) {
+                Files.copy(upload, csv, StandardCopyOption.REPLACE_EXISTING);
+            }
+            text = describe(playerService.submitImport(csv).join());
+        } catch (CompletionException | IOException e) {
+            Throwable cause = e instanceof CompletionException && e.getCause() != null ? e.getCause() : e;
+            text = "Import failed, no players were added: " + cause.getMessage();
+        } finally {
+            deleteQuietly(csv);
+        }
+        String result = text;
+        event.getUI().access(() -> importStatus.setText(result));
+    }
+
+    /**
+     * Streams the upload through the PGN reader; each chunk of results is applied on the ladder writer as it is read.
+     */
+    private void importMatches(UploadEvent event) {
+        String text;
+        try (InputStreamReader pgn = new InputStreamReader(event.getInputStream(), StandardCharsets.UTF_8)) {
+            text = describe(matchService.importPgn(pgn));
+        } catch (CompletionException | IOException | UncheckedIOException e) {
+            Throwable cause = e instanceof CompletionException && e.getCause() != null ? e.getCause() : e;
+            text = "Import stopped, results read before the failure were kept: " + cause.getMessage();
+        }
+        String result = text;
+        event.getUI().access(() -> matchImportStatus.setText(result));
+    }
+
+    private static void deleteQuietly(Path file) {
+        if (null != file) {
+            try {
+                Files.deleteIfExists(file);
+            } catch (IOException e) {
+                file.toFile().deleteOnExit();
+            }
+        }
+    }
+
+    private static String describe(MatchImportResult result) {
+        String summary = String.format("Imported %d results in %s, %d games rejected", result.imported(),
+                format(result.took()), result.rejectedCount());
+        return result.rejected().isEmpty() ? summary : summary + ": " + result.rejected().stream()
+                .limit(REJECTED_ROWS_SHOWN)
+                .map(game -> "line " + game.line() + " " + game.reason())
+                .collect(Collectors.joining("; "));
+    }
+
+    private static String describe(PlayerImportResult result) {
+        String summary = String.format("Imported %d players in %s, %d lines rejected", result.imported(),
+                format(result.took()), result.rejected().size());
+        return result.rejected().isEmpty() ? summary : summary + ": " + result.rejected().stream()
+                .limit(REJECTED_ROWS_SHOWN)
+                .map(row -> "line " + row.line() + " " + row.reason())
+                .collect(Collectors.joining("; "));
+    }
+
+    private void show(Progress progress) {
+        boolean running = Status.RUNNING == progress.status();
+        recompute.setEnabled(!running);
+        progressBar.setVisible(Status.IDLE != progress.status());
+        progressBar.setIndeterminate(running && progress.total() == 0);
+        progressBar.setValue(progress.fraction());
+        status.setText(describe(progress));
+        if (!running) {
+            getUI().ifPresent(ui -> ui.setPollInterval(-1));
+        }
+    }
+
+    private static String describe(Progress progress) {
+        return switch (progress.status()) {
+            case IDLE -> "";
+            case RUNNING -> String.format("%d of %d matches, %s elapsed%s", progress.processed(), progress.total(),
+                    format(progress.elapsed()), progress.eta() == null ? "" : ", about " + format(progress.eta()) + " left");
+            case DONE -> String.format("Recomputed from %d matches in %s", progress.processed(),
+                    format(progress.elapsed()));
+            case FAILED -> String.format("Recompute failed after %d of %d matches, the ladder was not changed",
+                    progress.processed(), progress.total());
+        };
+    }
+
+    private static String format(Duration duration) {
+        return duration.toMinutes() > 0
+                ? String.format("%dm %ds", duration.toMinutes(), duration.toSecondsPart())
+                : String.format("%d.%ds", duration.toSeconds(), duration.toMillisPart() / 100);
+    }
+}
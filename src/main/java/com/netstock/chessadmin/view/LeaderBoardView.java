@@ -1,45 +1,105 @@
 package com.netstock.chessadmin.view;
 
-import com.netstock.chessadmin.entity.Player;
+import com.netstock.chessadmin.dto.LeaderBoardSnapshot;
 import com.netstock.chessadmin.service.LeaderBoardService;
+import com.vaadin.flow.component.AttachEvent;
+import com.vaadin.flow.component.DetachEvent;
+import com.vaadin.flow.component.UI;
 import com.vaadin.flow.component.grid.Grid;
+import com.vaadin.flow.component.grid.GridSortOrder;
 import com.vaadin.flow.component.html.H2;
 import com.vaadin.flow.component.orderedlayout.VerticalLayout;
+import com.vaadin.flow.data.provider.CallbackDataProvider;
 import com.vaadin.flow.router.PageTitle;
 import com.vaadin.flow.router.Route;
+import com.vaadin.flow.spring.data.VaadinSpringDataHelpers;
 
 import java.util.List;
+import java.util.function.Consumer;
 
+/**
+ * The leaderboard, kept current over server push. Rows are identified by rank, so while the grid is in rank order a
+ * ladder change only re-renders the rows it touched; any other order, or a ladder that changed size, reloads the
+ * visible page.
+ */
 @PageTitle("Leader Board")
 @Route(value = "leaderboard", layout = MainLayout.class)
 public class LeaderBoardView extends VerticalLayout {
 
     private final LeaderBoardService leaderBoardService;
-    private final Grid<Player> grid = new Grid<>(Player.class, false);
+    private final Grid<LeaderBoardSnapshot.Entry> grid = new Grid<>(LeaderBoardSnapshot.Entry.class, false);
+    private final CallbackDataProvider<LeaderBoardSnapshot.Entry, Void> dataProvider;
+    private final PlayersAround playersAround;
+    private Consumer<LeaderBoardSnapshot.Diff> diffListener;
 
     public LeaderBoardView(LeaderBoardService leaderBoardService) {
         this.leaderBoardService = leaderBoardService;
+        this.dataProvider = new CallbackDataProvider<>(
+                query -> leaderBoardService.getEntries(VaadinSpringDataHelpers.toSpringPageRequest(query)).stream(),
+                query -> leaderBoardService.snapshot().entries().size(),
+                LeaderBoardSnapshot.Entry::rank);
         setSizeFull();
         setPadding(true);
         setSpacing(true);
 
         add(new H2("Leader Board"));
         configureGrid();
-        refresh();
-        add(grid);
+        grid.setItems(dataProvider);
+        playersAround = new PlayersAround(leaderBoardService);
+        grid.asSingleSelect().addValueChangeListener(event -> {
+            if (event.getValue() != null) {
+                playersAround.show(event.getValue().playerId());
+            }
+        });
+        add(grid, playersAround);
     }
 
     private void configureGrid() {
-        grid.addColumn(Player::getRank).setHeader("Rank").setAutoWidth(true).setSortable(true);
-        grid.addColumn(Player::getFirstName).setHeader("First Name").setAutoWidth(true).setSortable(true);
-        grid.addColumn(Player::getLastName).setHeader("Last Name").setAutoWidth(true).setSortable(true);
-        grid.addColumn(player -> player.getEmail() == null ? "" : player.getEmail()).setHeader("Email").setAutoWidth(true);
-        grid.addColumn(Player::getNumberOfGamesPlayed).setHeader("Games").setAutoWidth(true).setSortable(true);
+        grid.addColumn(LeaderBoardSnapshot.Entry::rank).setHeader("Rank").setAutoWidth(true).setSortProperty("rank")
+                .setKey("rank");
+        grid.addColumn(LeaderBoardSnapshot.Entry::firstName).setHeader("First Name").setAutoWidth(true).setSortProperty("firstName");
+        grid.addColumn(LeaderBoardSnapshot.Entry::lastName).setHeader("Last Name").setAutoWidth(true).setSortProperty("lastName");
+        grid.addColumn(entry -> entry.email() == null ? "" : entry.email()).setHeader("Email").setAutoWidth(true);
+        grid.addColumn(LeaderBoardSnapshot.Entry::numberOfGamesPlayed).setHeader("Games").setAutoWidth(true).setSortProperty("numberOfGamesPlayed");
+        grid.addColumn(LeaderBoardSnapshot.Entry::wins).setHeader("W").setAutoWidth(true).setSortProperty("wins");
+        grid.addColumn(LeaderBoardSnapshot.Entry::draws).setHeader("D").setAutoWidth(true).setSortProperty("draws");
+        grid.addColumn(LeaderBoardSnapshot.Entry::losses).setHeader("L").setAutoWidth(true).setSortProperty("losses");
+        grid.addColumn(entry -> formatStreak(entry.streak())).setHeader("Streak").setAutoWidth(true).setSortProperty("streak");
         grid.setSizeFull();
     }
 
-    private void refresh() {
-        List<Player> players = leaderBoardService.loadPlayersSortedByRank();
-        grid.setItems(players);
+    static String formatStreak(int streak) {
+        if (streak == 0) {
+            return "";
+        }
+        return (streak > 0 ? "W" : "L") + Math.abs(streak);
+    }
+
+    @Override
+    protected void onAttach(AttachEvent attachEvent) {
+        UI ui = attachEvent.getUI();
+        diffListener = diff -> ui.access(() -> apply(diff));
+        leaderBoardService.addDiffListener(diffListener);
+        // changes made while detached were not pushed
+        dataProvider.refreshAll();
+    }
+
+    @Override
+    protected void onDetach(DetachEvent detachEvent) {
+        leaderBoardService.removeDiffListener(diffListener);
+    }
+
+    private void apply(LeaderBoardSnapshot.Diff diff) {
+        playersAround.apply(diff);
+        if (diff.full() || !sortedByRank()) {
+            dataProvider.refreshAll();
+            return;
+        }
+        diff.changed().forEach(dataProvider::refreshItem);
+    }
+
+    private boolean sortedByRank() {
+        List<GridSortOrder<LeaderBoardSnapshot.Entry>> sortOrder = grid.getSortOrder();
+        return sortOrder.isEmpty() || "rank".equals(sortOrder.get(0).getSorted().getKey());
     }
 }
@@ -26,6 +26,7 @@ public class MainLayout extends AppLayout {
         menuLayout.add(new RouterLink("Players", PlayerView.class));
         menuLayout.add(new RouterLink("Matches", MatchView.class));
         menuLayout.add(new RouterLink("Leader Board", LeaderBoardView.class));
+        menuLayout.add(new RouterLink("Admin", AdminView.class));
         addToDrawer(menuLayout);
     }
 }
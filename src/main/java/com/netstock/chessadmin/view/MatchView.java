@@ -1,12 +1,18 @@
 package com.netstock.chessadmin.view;
 
+import com.netstock.chessadmin.dto.HeadToHeadDTO;
 import com.netstock.chessadmin.dto.PlayerDTO;
+import com.netstock.chessadmin.dto.PlayerName;
 import com.netstock.chessadmin.enums.MatchOutcome;
 import com.netstock.chessadmin.dto.MatchDTO;
 import com.netstock.chessadmin.service.MatchService;
+import com.netstock.chessadmin.service.PlayerSearchService;
+import com.vaadin.flow.component.HasValue;
 import com.vaadin.flow.component.button.Button;
+import com.vaadin.flow.component.combobox.ComboBox;
 import com.vaadin.flow.component.formlayout.FormLayout;
 import com.vaadin.flow.component.grid.Grid;
+import com.vaadin.flow.component.html.Span;
 import com.vaadin.flow.component.orderedlayout.HorizontalLayout;
 import com.vaadin.flow.component.orderedlayout.VerticalLayout;
 import com.vaadin.flow.component.select.Select;
@@ -15,36 +21,46 @@ import com.vaadin.flow.data.binder.Setter;
 import com.vaadin.flow.function.ValueProvider;
 import com.vaadin.flow.router.PageTitle;
 import com.vaadin.flow.router.Route;
+import com.vaadin.flow.spring.data.VaadinSpringDataHelpers;
 import org.jetbrains.annotations.NotNull;
 
-import java.util.List;
+import java.time.ZoneId;
+import java.time.format.DateTimeFormatter;
+import java.util.Objects;
 
 @PageTitle("Matches")
 @Route(value = "match", layout = MainLayout.class)
 public class MatchView extends VerticalLayout {
+    private static final DateTimeFormatter LAST_PLAYED =
+            DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm").withZone(ZoneId.systemDefault());
 
     private final MatchService matchService;
-    private final Select<PlayerDTO> playerOne;
-    private final Select<PlayerDTO> playerTwo;
+    private final PlayerSearchService playerSearchService;
+    private final ComboBox<PlayerDTO> playerOne;
+    private final ComboBox<PlayerDTO> playerTwo;
     private final Select<MatchOutcome> outCome;
     private final Button save = new Button("Save");
     private final Button clear = new Button("Clear");
     private final Button delete = new Button("Delete");
+    private final Span headToHead = new Span();
     private final Binder<MatchDTO> binder;
     private final Grid<MatchDTO> grid = getConfigedGrid();
 
-    public MatchView(MatchService matchService) {
+    public MatchView(MatchService matchService, PlayerSearchService playerSearchService) {
+        this.playerSearchService = playerSearchService;
         this.binder = new Binder<>(MatchDTO.class);
         this.playerOne = getPlayerSelectInput("Player One", MatchDTO::getPlayerOne, MatchDTO::setPlayerOne);
         this.playerTwo = getPlayerSelectInput("Player Two", MatchDTO::getPlayerTwo, MatchDTO::setPlayerTwo);
         this.outCome = getOutcomeSelectInput();
         this.matchService = matchService;
-        grid.setItems(matchService.getAllMatches());
+        grid.setItems(query -> matchService.getMatches(VaadinSpringDataHelpers.toSpringPageRequest(query)).stream(),
+                query -> (int) matchService.countMatches());
         FormLayout form = new FormLayout(playerOne, playerTwo, outCome);
-        add(grid, form);
+        add(grid, form, headToHead);
         initButtons();
+        initHeadToHead();
         setSizeFull();
-        populateDropDowns();
+        this.outCome.setItems(MatchOutcome.values());
     }
 
     @NotNull
@@ -57,17 +73,19 @@ public class MatchView extends VerticalLayout {
     }
 
     private void addOutcomeToGrid(Grid<MatchDTO> grid) {
-        grid.addColumn(this::getOutcomeName).setHeader("Outcome").setAutoWidth(true);
+        grid.addColumn(this::getOutcomeName).setHeader("Outcome").setAutoWidth(true).setSortProperty("outcome");
     }
 
     private void addPlayerTwoToGrid(Grid<MatchDTO> grid) {
         grid.addColumn(match ->
-                getPlayerName(match.getPlayerTwo())).setHeader("Player Two").setAutoWidth(true);
+                getPlayerName(match.getPlayerTwo())).setHeader("Player Two").setAutoWidth(true)
+                .setSortProperty("playerTwo.firstName", "playerTwo.lastName");
     }
 
     private void addPlayerOneToGrid(Grid<MatchDTO> grid) {
         grid.addColumn(match ->
-                getPlayerName(match.getPlayerOne())).setHeader("Player One").setAutoWidth(true);
+                getPlayerName(match.getPlayerOne())).setHeader("Player One").setAutoWidth(true)
+                .setSortProperty("playerOne.firstName", "playerOne.lastName");
     }
 
     private String getOutcomeName(@NotNull MatchDTO matchDTO) {
@@ -87,14 +105,33 @@ public class MatchView extends VerticalLayout {
         return value == null ? "" : value;
     }
 
+    /**
+     * Players are looked up as the user types, a page at a time, instead of every player being sent to the browser.
+     */
     @NotNull
-    private Select<PlayerDTO> getPlayerSelectInput(String name, ValueProvider<MatchDTO, PlayerDTO> getter, Setter<MatchDTO, PlayerDTO> setter) {
-        Select<PlayerDTO> playerSelect = getNewSelectField(name, getter, setter);
+    private ComboBox<PlayerDTO> getPlayerSelectInput(String name, ValueProvider<MatchDTO, PlayerDTO> getter, Setter<MatchDTO, PlayerDTO> setter) {
+        ComboBox<PlayerDTO> playerSelect = new ComboBox<>(name);
+        playerSelect.setErrorMessage(name + " is required");
+        bindRequired(playerSelect, name, getter, setter);
+        playerSelect.setPlaceholder("Type a name or email");
         playerSelect.setItemLabelGenerator(matchPlayerDTO -> matchPlayerDTO.getFirstName() + " "
                 + matchPlayerDTO.getLastName());
+        playerSelect.setItems(query -> playerSearchService
+                .search(query.getFilter().orElse(""), query.getOffset() + query.getLimit()).stream()
+                .skip(query.getOffset())
+                .map(MatchView::toPlayerDto));
         return playerSelect;
     }
 
+    private static PlayerDTO toPlayerDto(PlayerName player) {
+        return PlayerDTO.builder()
+                .id(player.id())
+                .firstName(player.firstName())
+                .lastName(player.lastName())
+                .email(player.email())
+                .build();
+    }
+
     @NotNull
     private Select<MatchOutcome> getOutcomeSelectInput() {
         Select<MatchOutcome> outcomeSelect = getNewSelectField("Outcome", MatchDTO::getOutcome, MatchDTO::setOutcome);
@@ -102,11 +139,26 @@ public class MatchView extends VerticalLayout {
         return outcomeSelect;
     }
 
-    private void populateDropDowns() {
-        List<PlayerDTO> matchPlayerDTOList = matchService.getMatchPlayers();
-        this.playerOne.setItems(matchPlayerDTOList);
-        this.playerTwo.setItems(matchPlayerDTOList);
-        this.outCome.setItems(MatchOutcome.values());
+    private void initHeadToHead() {
+        playerOne.addValueChangeListener(e -> showHeadToHead());
+        playerTwo.addValueChangeListener(e -> showHeadToHead());
+    }
+
+    private void showHeadToHead() {
+        PlayerDTO one = playerOne.getValue();
+        PlayerDTO two = playerTwo.getValue();
+        if (null == one || null == two || Objects.equals(one.getId(), two.getId())) {
+            headToHead.setText("");
+            return;
+        }
+        HeadToHeadDTO record = matchService.getHeadToHead(one.getId(), two.getId());
+        if (record.games() == 0) {
+            headToHead.setText("Head to head: first meeting");
+            return;
+        }
+        headToHead.setText(String.format("Head to head: %s %d - %d %s, %d drawn, last played %s",
+                one.getFirstName(), record.playerOneWins(), record.playerTwoWins(), two.getFirstName(), record.draws(),
+                null == record.lastPlayedAt() ? "-" : LAST_PLAYED.format(record.lastPlayedAt())));
     }
 
     private void initButtons() {
@@ -122,20 +174,25 @@ public class MatchView extends VerticalLayout {
     @NotNull
     private <T> Select<T> getNewSelectField(String inputName, ValueProvider<MatchDTO, T> getter, Setter<MatchDTO, T> setter) {
         Select<T> field = new Select<>();
-        field.setRequiredIndicatorVisible(true);
         field.setLabel(inputName);
         field.setErrorMessage(inputName + " is required");
+        bindRequired(field, inputName, getter, setter);
+        return field;
+    }
+
+    private <T> void bindRequired(HasValue<?, T> field, String inputName, ValueProvider<MatchDTO, T> getter,
+                                  Setter<MatchDTO, T> setter) {
+        field.setRequiredIndicatorVisible(true);
         binder.forField(field)
                 .asRequired(inputName + " is required")
                 .bind(getter, setter);
-        return field;
     }
 
     private void saveMatch() {
         if (binder.validate().isOk()) {
-            matchService.saveMatch(getMatchFromView());
+            matchService.submitMatch(getMatchFromView()).join();
             resetView();
-            grid.setItems(matchService.getAllMatches());
+            grid.getDataProvider().refreshAll();
         }
     }
 
@@ -157,8 +214,8 @@ public class MatchView extends VerticalLayout {
     private void deleteSelected() {
         MatchDTO selected = grid.asSingleSelect().getValue();
         if (selected != null && selected.getId() != null) {
-            matchService.deleteMatch(selected.getId());
-            grid.setItems(matchService.getAllMatches());
+            matchService.submitDeleteMatch(selected.getId()).join();
+            grid.getDataProvider().refreshAll();
             resetView();
         } else if (selected != null) {
             resetView();
@@ -6,6 +6,7 @@ import com.vaadin.flow.component.button.Button;
 import com.vaadin.flow.component.datepicker.DatePicker;
 import com.vaadin.flow.component.formlayout.FormLayout;
 import com.vaadin.flow.component.grid.Grid;
+import com.vaadin.flow.component.notification.Notification;
 import com.vaadin.flow.component.orderedlayout.HorizontalLayout;
 import com.vaadin.flow.component.orderedlayout.VerticalLayout;
 import com.vaadin.flow.component.textfield.EmailField;
@@ -14,11 +15,13 @@ import com.vaadin.flow.data.binder.Binder;
 import com.vaadin.flow.function.ValueProvider;
 import com.vaadin.flow.router.PageTitle;
 import com.vaadin.flow.router.Route;
+import com.vaadin.flow.spring.data.VaadinSpringDataHelpers;
 import org.jetbrains.annotations.NotNull;
 import com.vaadin.flow.data.binder.Setter;
 
 import java.time.LocalDate;
 import java.util.Objects;
+import java.util.concurrent.CompletionException;
 
 @PageTitle("Players")
 @Route(value = "", layout = MainLayout.class)
@@ -35,6 +38,7 @@ public class PlayerView extends VerticalLayout {
     private final Button delete = new Button("Delete");
     private final Binder<PlayerDTO> binder;
     private Long selectedId;
+    private Long selectedVersion;
 
     public PlayerView(PlayerService personService) {
         this.binder = new Binder<>(PlayerDTO.class);
@@ -44,7 +48,8 @@ public class PlayerView extends VerticalLayout {
         this.dateOfBirth = getDateField(PlayerDTO::getDateOfBirth, PlayerDTO::setDateOfBirth);
         this.playerService = personService;
         grid.setColumns("firstName", "lastName", "email", "dateOfBirth", "rank");
-        grid.setItems(personService.getAllPlayers());
+        grid.setItems(query -> personService.getPlayers(VaadinSpringDataHelpers.toSpringPageRequest(query)).stream(),
+                query -> (int) personService.countPlayers());
         FormLayout form = new FormLayout(firstName, lastName, email, dateOfBirth);
         add(grid, form);
         initButtons();
@@ -102,9 +107,14 @@ public class PlayerView extends VerticalLayout {
             PlayerDTO person = getPlayerFromView();
             if (Objects.nonNull(selectedId)) {
                 person.setId(selectedId);
+                person.setVersion(selectedVersion);
             }
-            playerService.save(person);
-            grid.setItems(playerService.getAllPlayers());
+            try {
+                playerService.submitSave(person).join();
+            } catch (CompletionException e) {
+                Notification.show(null != e.getCause() ? e.getCause().getMessage() : e.getMessage());
+            }
+            grid.getDataProvider().refreshAll();
             resetView();
         }
     }
@@ -116,6 +126,7 @@ public class PlayerView extends VerticalLayout {
         dateOfBirth.clear();
         binder.setBean(new PlayerDTO());
         selectedId = null;
+        selectedVersion = null;
     }
 
     private PlayerDTO getPlayerFromView() {
@@ -130,8 +141,12 @@ public class PlayerView extends VerticalLayout {
     private void deleteSelected() {
         PlayerDTO selected = grid.asSingleSelect().getValue();
         if (selected != null) {
-            playerService.delete(selected.getId());
-            grid.setItems(playerService.getAllPlayers());
+            try {
+                playerService.submitDelete(selected.getId()).join();
+            } catch (CompletionException e) {
+                Notification.show(null != e.getCause() ? e.getCause().getMessage() : e.getMessage());
+            }
+            grid.getDataProvider().refreshAll();
             resetView();
         }
     }
@@ -146,6 +161,7 @@ public class PlayerView extends VerticalLayout {
                 email.setValue(selected.getEmail());
                 dateOfBirth.setValue(selected.getDateOfBirth());
                 selectedId = selected.getId();
+                selectedVersion = selected.getVersion();
             }
         });
     }
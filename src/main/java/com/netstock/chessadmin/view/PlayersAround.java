@@ -0,0 +1,86 @@
+package com.netstock.chessadmin.view;
+
+import com.netstock.chessadmin.dto.LeaderBoardSnapshot;
+import com.netstock.chessadmin.service.LeaderBoardService;
+import com.vaadin.flow.component.grid.Grid;
+import com.vaadin.flow.component.html.H3;
+import com.vaadin.flow.component.orderedlayout.VerticalLayout;
+
+import java.util.List;
+
+/**
+ * The players ranked just above and below one player, with that player's row selected. Only the window is read,
+ * so it costs the same on any size of ladder. Pushed ladder changes are followed from the shared leaderboard
+ * snapshot, and only when they touch the window shown.
+ */
+public class PlayersAround extends VerticalLayout {
+    static final int PLAYERS_EITHER_SIDE = 5;
+
+    private final LeaderBoardService leaderBoardService;
+    private final H3 title = new H3();
+    private final Grid<LeaderBoardSnapshot.Entry> grid = new Grid<>(LeaderBoardSnapshot.Entry.class, false);
+    private Long playerId;
+    private List<LeaderBoardSnapshot.Entry> window = List.of();
+
+    public PlayersAround(LeaderBoardService leaderBoardService) {
+        this.leaderBoardService = leaderBoardService;
+        setPadding(false);
+        grid.addColumn(LeaderBoardSnapshot.Entry::rank).setHeader("Rank").setAutoWidth(true);
+        grid.addColumn(entry -> entry.firstName() + " " + entry.lastName()).setHeader("Player").setAutoWidth(true);
+        grid.addColumn(LeaderBoardSnapshot.Entry::numberOfGamesPlayed).setHeader("Games").setAutoWidth(true);
+        grid.addColumn(entry -> LeaderBoardView.formatStreak(entry.streak())).setHeader("Streak").setAutoWidth(true);
+        grid.setAllRowsVisible(true);
+        add(title, grid);
+        setVisible(false);
+    }
+
+    public void show(Long playerId) {
+        this.playerId = playerId;
+        refresh();
+    }
+
+    /**
+     * Reads the window again around the same player, who may have moved since.
+     */
+    public void refresh() {
+        display(null == playerId ? List.of() : leaderBoardService.window(playerId, PLAYERS_EITHER_SIDE));
+    }
+
+    /**
+     * Follows a committed ladder change. A change that left every row shown alone does nothing; otherwise the
+     * window is cut from the current snapshot, which every session shares, instead of being read again.
+     */
+    public void apply(LeaderBoardSnapshot.Diff diff) {
+        if (null == playerId || (!diff.full() && diff.changed().stream().noneMatch(this::shown))) {
+            return;
+        }
+        List<LeaderBoardSnapshot.Entry> entries = leaderBoardService.snapshot().entries();
+        int rank = leaderBoardService.rankOf(playerId);
+        if (rank < 1) {
+            display(List.of());
+            return;
+        }
+        if (rank > entries.size() || !playerId.equals(entries.get(rank - 1).playerId())) {
+            // the snapshot and the ranking index disagree while another change is on its way; read the window
+            refresh();
+            return;
+        }
+        display(entries.subList(Math.max(0, rank - 1 - PLAYERS_EITHER_SIDE),
+                Math.min(entries.size(), rank + PLAYERS_EITHER_SIDE)));
+    }
+
+    private boolean shown(LeaderBoardSnapshot.Entry changed) {
+        return !window.isEmpty() && changed.rank() >= window.get(0).rank()
+                && changed.rank() <= window.get(window.size() - 1).rank();
+    }
+
+    private void display(List<LeaderBoardSnapshot.Entry> entries) {
+        window = entries;
+        setVisible(!entries.isEmpty());
+        grid.setItems(entries);
+        entries.stream().filter(entry -> entry.playerId().equals(playerId)).findFirst().ifPresent(current -> {
+            title.setText("Around " + current.firstName() + " " + current.lastName());
+            grid.select(current);
+        });
+    }
+}
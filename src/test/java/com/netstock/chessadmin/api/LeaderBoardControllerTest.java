@@ -0,0 +1,108 @@
+package com.netstock.chessadmin.api;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.netstock.chessadmin.dto.LeaderBoardSnapshot;
+import com.netstock.chessadmin.service.LeaderBoardService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.hamcrest.Matchers.matchesPattern;
+import static org.mockito.Mockito.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+@ExtendWith(MockitoExtension.class)
+class LeaderBoardControllerTest {
+
+    @Mock
+    LeaderBoardService leaderBoardService;
+
+    MockMvc mockMvc;
+
+    @BeforeEach
+    void setUp() {
+        mockMvc = start();
+    }
+
+    private MockMvc start() {
+        return MockMvcBuilders
+                .standaloneSetup(new LeaderBoardController(leaderBoardService, new ObjectMapper()))
+                .build();
+    }
+
+    private static String etagOf(MockMvc mockMvc, String path) throws Exception {
+        return mockMvc.perform(get(path)).andReturn().getResponse().getHeader("ETag");
+    }
+
+    private static LeaderBoardSnapshot.Entry entry(int rank, long playerId) {
+        return new LeaderBoardSnapshot.Entry(rank, playerId, "P" + playerId, "L", null, 0, 0, 0, 0, 0);
+    }
+
+    @Test
+    void page_is_tagged_with_the_ladder_version_and_a_matching_poll_gets_304_without_a_read() throws Exception {
+        when(leaderBoardService.version()).thenReturn(5L);
+        when(leaderBoardService.snapshot()).thenReturn(new LeaderBoardSnapshot(5,
+                List.of(entry(1, 7L), entry(2, 3L), entry(3, 9L))));
+
+        String etag = mockMvc.perform(get("/api/leaderboard").param("page", "1").param("size", "2"))
+                .andExpect(status().isOk())
+                .andExpect(header().string("ETag", matchesPattern("\"[0-9a-z]+-5\"")))
+                .andExpect(jsonPath("$.version").value(5))
+                .andExpect(jsonPath("$.total").value(3))
+                .andExpect(jsonPath("$.entries[0].playerId").value(9))
+                .andReturn().getResponse().getHeader("ETag");
+        mockMvc.perform(get("/api/leaderboard").param("page", "1").param("size", "2").header("If-None-Match", etag))
+                .andExpect(status().isNotModified());
+
+        verify(leaderBoardService, times(1)).snapshot();
+    }
+
+    @Test
+    void changed_ladder_answers_an_old_tag_with_the_new_rows() throws Exception {
+        when(leaderBoardService.version()).thenReturn(5L, 6L);
+        when(leaderBoardService.snapshot()).thenReturn(new LeaderBoardSnapshot(5, List.of(entry(1, 7L), entry(2, 3L))),
+                new LeaderBoardSnapshot(6, List.of(entry(1, 3L), entry(2, 7L))));
+        String old = etagOf(mockMvc, "/api/leaderboard/ranks?from=1&to=1");
+
+        mockMvc.perform(get("/api/leaderboard/ranks").param("from", "1").param("to", "1").header("If-None-Match", old))
+                .andExpect(status().isOk())
+                .andExpect(header().string("ETag", matchesPattern("\"[0-9a-z]+-6\"")))
+                .andExpect(jsonPath("$.entries.length()").value(1))
+                .andExpect(jsonPath("$.entries[0].playerId").value(3));
+    }
+
+    @Test
+    void tags_of_another_instance_or_an_earlier_run_at_the_same_version_do_not_match() throws Exception {
+        when(leaderBoardService.version()).thenReturn(1L);
+        when(leaderBoardService.snapshot()).thenReturn(new LeaderBoardSnapshot(1, List.of(entry(1, 7L))));
+        String etag = etagOf(mockMvc, "/api/leaderboard");
+        MockMvc restarted = start();
+
+        assertThat(etagOf(restarted, "/api/leaderboard")).isNotEqualTo(etag);
+        restarted.perform(get("/api/leaderboard").header("If-None-Match", etag))
+                .andExpect(status().isOk());
+    }
+
+    @Test
+    void player_is_found_by_rank_and_unknown_players_and_wide_ranges_are_rejected() throws Exception {
+        when(leaderBoardService.version()).thenReturn(5L);
+        when(leaderBoardService.snapshot()).thenReturn(new LeaderBoardSnapshot(5, List.of(entry(1, 7L), entry(2, 3L))));
+        when(leaderBoardService.rankOf(3L)).thenReturn(2);
+
+        mockMvc.perform(get("/api/leaderboard/players/3"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.rank").value(2));
+        mockMvc.perform(get("/api/leaderboard/players/4"))
+                .andExpect(status().isNotFound());
+        mockMvc.perform(get("/api/leaderboard/ranks").param("from", "1").param("to", "501"))
+                .andExpect(status().isBadRequest());
+    }
+}
@@ -0,0 +1,81 @@
+package com.netstock.chessadmin.integration;
+
+import com.netstock.chessadmin.entity.Match;
+import com.netstock.chessadmin.entity.Player;
+import com.netstock.chessadmin.enums.ExportFormat;
+import com.netstock.chessadmin.enums.MatchOutcome;
+import com.netstock.chessadmin.repository.MatchRepository;
+import com.netstock.chessadmin.repository.PlayerRepository;
+import com.netstock.chessadmin.service.ExportService;
+import com.netstock.chessadmin.service.RankingService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.time.LocalDate;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest
+@Transactional
+public class ExportServiceTest {
+
+    @Autowired
+    ExportService exportService;
+
+    @Autowired
+    PlayerRepository playerRepository;
+
+    @Autowired
+    MatchRepository matchRepository;
+
+    private Player a;
+    private Player b;
+
+    @BeforeEach
+    void setUp() {
+        matchRepository.deleteAll();
+        playerRepository.deleteAll();
+        a = new Player();
+        a.setFirstName("Ann, Jr"); a.setLastName("One"); a.setEmail("a@e.com"); a.setDateOfBirth(LocalDate.of(1990,1,1)); a.setRankKey(2 * RankingService.RANK_KEY_GAP); a.setWins(1);
+        b = new Player();
+        b.setFirstName("Bob"); b.setLastName("Two"); b.setEmail("b@e.com"); b.setDateOfBirth(LocalDate.of(1991,2,3)); b.setRankKey(RankingService.RANK_KEY_GAP);
+        playerRepository.save(a);
+        playerRepository.save(b);
+        Match m = new Match();
+        m.setOutcome(MatchOutcome.PLAYER_ONE_WON);
+        m.setPlayerOneId(a.getId());
+        m.setPlayerTwoId(b.getId());
+        m.setCreatedAt(Instant.parse("2025-01-01T10:00:00Z"));
+        matchRepository.save(m);
+    }
+
+    @Test
+    void exportPlayers_writes_csv_in_rank_order_with_counted_ranks() throws Exception {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        exportService.exportPlayers(ExportFormat.CSV, out);
+
+        assertThat(out.toString(StandardCharsets.UTF_8).split("\n")).containsExactly(
+                "rank,id,firstName,lastName,email,dateOfBirth,gamesPlayed,wins,draws,losses,streak",
+                "1," + b.getId() + ",Bob,Two,b@e.com,1991-02-03,0,0,0,0,0",
+                "2," + a.getId() + ",\"Ann, Jr\",One,a@e.com,1990-01-01,0,1,0,0,0");
+    }
+
+    @Test
+    void exportMatches_writes_one_json_object_per_line_with_player_names() throws Exception {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        exportService.exportMatches(ExportFormat.NDJSON, out);
+
+        String[] lines = out.toString(StandardCharsets.UTF_8).split("\n");
+        assertThat(lines).hasSize(1);
+        assertThat(lines[0]).contains("\"outcome\":\"PLAYER_ONE_WON\"", "\"playerOneFirstName\":\"Ann, Jr\"",
+                "\"playerTwoLastName\":\"Two\"", "\"createdAt\":\"2025-01-01T10:00:00Z\"");
+    }
+}
@@ -1,9 +1,11 @@
 package com.netstock.chessadmin.integration;
 
+import com.netstock.chessadmin.dto.LeaderBoardSnapshot;
 import com.netstock.chessadmin.entity.Player;
 import com.netstock.chessadmin.repository.MatchRepository;
 import com.netstock.chessadmin.repository.PlayerRepository;
 import com.netstock.chessadmin.service.LeaderBoardService;
+import com.netstock.chessadmin.service.RankingService;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -11,6 +13,7 @@ import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDate;
+import java.util.ArrayList;
 import java.util.List;
 
 import static org.assertj.core.api.Assertions.assertThat;
@@ -28,6 +31,9 @@ public class LeaderBoardServiceTest {
     @Autowired
     MatchRepository matchRepository;
 
+    @Autowired
+    RankingService rankingService;
+
     @BeforeEach
     void setUp() {
         matchRepository.deleteAll();
@@ -42,7 +48,7 @@ public class LeaderBoardServiceTest {
             p.setLastName("L"+i);
             p.setEmail("p"+i+"@e.com");
             p.setDateOfBirth(LocalDate.of(1990,1,1));
-            p.setRank(i);
+            p.setRankKey(i * RankingService.RANK_KEY_GAP);
             p.setNumberOfGamesPlayed(0);
             playerRepository.save(p);
         }
@@ -53,5 +59,49 @@ public class LeaderBoardServiceTest {
             assertThat(loaded.get(i).getRank()).isLessThan(loaded.get(i+1).getRank());
         }
     }
-}
 
+    @Test
+    void snapshot_matches_the_ladder_order() {
+        for (int i = 3; i >= 1; i--) {
+            Player p = new Player();
+            p.setFirstName("P"+i);
+            p.setLastName("L"+i);
+            p.setEmail("p"+i+"@e.com");
+            p.setDateOfBirth(LocalDate.of(1990,1,1));
+            p.setRankKey(i * RankingService.RANK_KEY_GAP);
+            p.setNumberOfGamesPlayed(0);
+            playerRepository.save(p);
+        }
+
+        LeaderBoardSnapshot snapshot = leaderBoardService.snapshot();
+
+        assertThat(snapshot.entries()).extracting(LeaderBoardSnapshot.Entry::firstName).containsExactly("P1", "P2", "P3");
+        assertThat(snapshot.entries()).extracting(LeaderBoardSnapshot.Entry::rank).containsExactly(1, 2, 3);
+        assertThat(leaderBoardService.snapshot()).isSameAs(snapshot);
+    }
+
+    @Test
+    void window_and_range_read_the_players_around_a_rank() {
+        List<Long> ids = new ArrayList<>();
+        for (int i = 1; i <= 6; i++) {
+            Player p = new Player();
+            p.setFirstName("P"+i);
+            p.setLastName("L"+i);
+            p.setEmail("p"+i+"@e.com");
+            p.setDateOfBirth(LocalDate.of(1990,1,1));
+            p.setRankKey(i * RankingService.RANK_KEY_GAP);
+            p.setNumberOfGamesPlayed(0);
+            ids.add(playerRepository.save(p).getId());
+        }
+        rankingService.invalidate();
+
+        assertThat(leaderBoardService.window(ids.get(3), 1))
+                .extracting(LeaderBoardSnapshot.Entry::firstName).containsExactly("P3", "P4", "P5");
+        assertThat(leaderBoardService.window(ids.get(0), 2))
+                .extracting(LeaderBoardSnapshot.Entry::rank).containsExactly(1, 2, 3);
+        assertThat(leaderBoardService.range(5, 10))
+                .extracting(LeaderBoardSnapshot.Entry::playerId).containsExactly(ids.get(4), ids.get(5));
+        assertThat(leaderBoardService.range(7, 8)).isEmpty();
+        assertThat(leaderBoardService.window(-1L, 5)).isEmpty();
+    }
+}
@@ -0,0 +1,126 @@
+package com.netstock.chessadmin.integration;
+
+import com.netstock.chessadmin.dto.MatchCursor;
+import com.netstock.chessadmin.entity.Match;
+import com.netstock.chessadmin.entity.Player;
+import com.netstock.chessadmin.enums.MatchOutcome;
+import com.netstock.chessadmin.repository.MatchRepository;
+import com.netstock.chessadmin.repository.PlayerRepository;
+import com.netstock.chessadmin.service.RankingService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.data.domain.Limit;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DataJpaTest
+class MatchRepositoryTest {
+
+    @Autowired
+    MatchRepository matchRepository;
+
+    @Autowired
+    PlayerRepository playerRepository;
+
+    @Autowired
+    TestEntityManager entityManager;
+
+    private final List<Long> matchIds = new ArrayList<>();
+    private Long playerOneId;
+
+    @BeforeEach
+    void setUp() {
+        matchRepository.deleteAll();
+        playerRepository.deleteAll();
+        Player a = new Player();
+        a.setFirstName("A"); a.setLastName("One"); a.setEmail("a@e.com"); a.setDateOfBirth(LocalDate.of(1990,1,1)); a.setRankKey(RankingService.RANK_KEY_GAP);
+        Player b = new Player();
+        b.setFirstName("B"); b.setLastName("Two"); b.setEmail("b@e.com"); b.setDateOfBirth(LocalDate.of(1990,1,1)); b.setRankKey(2 * RankingService.RANK_KEY_GAP);
+        playerRepository.save(a);
+        playerRepository.save(b);
+        playerOneId = a.getId();
+
+        // five matches, the last two share a timestamp so the id has to break the tie
+        Instant start = Instant.parse("2025-01-01T10:00:00Z");
+        for (int i = 0; i < 5; i++) {
+            Match m = new Match();
+            m.setOutcome(MatchOutcome.DRAW);
+            m.setPlayerOneId(a.getId());
+            m.setPlayerTwoId(b.getId());
+            m.setCreatedAt(start.plusSeconds(Math.min(i, 3)));
+            matchIds.add(matchRepository.save(m).getId());
+        }
+        // the matches were saved by id only; reading them back from the database is what fills in the players
+        entityManager.flush();
+        entityManager.clear();
+    }
+
+    @Test
+    void newest_pages_follow_the_createdAt_id_cursor() {
+        List<Match> first = matchRepository.findNewestPage(Limit.of(2));
+        Match cursor = first.get(1);
+        List<Match> second = matchRepository.findNewestPageBefore(cursor.getCreatedAt(), cursor.getId(), Limit.of(2));
+        cursor = second.get(1);
+        List<Match> last = matchRepository.findNewestPageBefore(cursor.getCreatedAt(), cursor.getId(), Limit.of(2));
+
+        assertThat(first.stream().map(Match::getId)).containsExactly(matchIds.get(4), matchIds.get(3));
+        assertThat(second.stream().map(Match::getId)).containsExactly(matchIds.get(2), matchIds.get(1));
+        assertThat(last.stream().map(Match::getId)).containsExactly(matchIds.get(0));
+        assertThat(first.get(0).getPlayerOne().getFirstName()).isEqualTo("A");
+    }
+
+    @Test
+    void findMatchesForPlayer_pages_through_both_sides_newest_first() {
+        Player c = new Player();
+        c.setFirstName("C"); c.setLastName("Three"); c.setEmail("c@e.com"); c.setDateOfBirth(LocalDate.of(1990,1,1)); c.setRankKey(3 * RankingService.RANK_KEY_GAP);
+        playerRepository.save(c);
+        // c plays a as player one, between and after the matches a played as player one
+        List<Long> asPlayerTwo = new ArrayList<>();
+        for (String at : List.of("2025-01-01T10:00:01Z", "2025-01-01T10:00:03Z", "2025-01-01T11:00:00Z")) {
+            Match m = new Match();
+            m.setOutcome(MatchOutcome.PLAYER_ONE_WON);
+            m.setPlayerOneId(c.getId());
+            m.setPlayerTwoId(playerOneId);
+            m.setCreatedAt(Instant.parse(at));
+            asPlayerTwo.add(matchRepository.save(m).getId());
+        }
+        entityManager.flush();
+        entityManager.clear();
+
+        List<Long> seen = new ArrayList<>();
+        MatchCursor cursor = MatchCursor.NEWEST;
+        List<Match> page;
+        do {
+            page = matchRepository.findMatchesForPlayer(playerOneId, cursor, 3);
+            assertThat(page).hasSizeLessThanOrEqualTo(3);
+            page.forEach(match -> seen.add(match.getId()));
+            if (!page.isEmpty()) {
+                Match last = page.get(page.size() - 1);
+                cursor = new MatchCursor(last.getCreatedAt(), last.getId());
+            }
+        } while (page.size() == 3);
+
+        // equal timestamps are ordered by id, newest first, whichever side the player was on
+        assertThat(seen).containsExactly(asPlayerTwo.get(2), asPlayerTwo.get(1), matchIds.get(4), matchIds.get(3),
+                matchIds.get(2), asPlayerTwo.get(0), matchIds.get(1), matchIds.get(0));
+        assertThat(matchRepository.findMatchesForPlayer(c.getId(), null, 10)).hasSize(3)
+                .allSatisfy(match -> assertThat(match.getPlayerTwo().getFirstName()).isEqualTo("A"));
+    }
+
+    @Test
+    void streamAllWithPlayers_streams_oldest_first_with_players() {
+        try (Stream<Match> matches = matchRepository.streamAllWithPlayers()) {
+            assertThat(matches.peek(match -> assertThat(match.getPlayerTwo().getFirstName()).isEqualTo("B"))
+                    .map(Match::getId)).containsExactlyElementsOf(matchIds);
+        }
+    }
+}
@@ -1,18 +1,22 @@
 package com.netstock.chessadmin.integration;
 
+import com.netstock.chessadmin.dto.HeadToHeadDTO;
 import com.netstock.chessadmin.dto.MatchDTO;
 import com.netstock.chessadmin.dto.PlayerDTO;
 import com.netstock.chessadmin.entity.Match;
 import com.netstock.chessadmin.entity.Player;
+import com.netstock.chessadmin.mapper.PlayerMapper;
 import com.netstock.chessadmin.enums.MatchOutcome;
 import com.netstock.chessadmin.repository.MatchRepository;
 import com.netstock.chessadmin.repository.PlayerRepository;
 import com.netstock.chessadmin.service.MatchService;
+import com.netstock.chessadmin.service.RankingService;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
-import org.modelmapper.ModelMapper;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDate;
@@ -35,7 +39,10 @@ public class MatchServiceTest {
     MatchService matchService;
 
     @Autowired
-    ModelMapper modelMapper;
+    RankingService rankingService;
+
+    @Autowired
+    PlayerMapper playerMapper;
 
     @BeforeEach
     void cleanDb() {
@@ -51,7 +58,7 @@ public class MatchServiceTest {
             p.setLastName("L" + i);
             p.setEmail("p" + i + "@e.com");
             p.setDateOfBirth(LocalDate.of(1990, 1, 1));
-            p.setRank(i);
+            p.setRankKey(i * RankingService.RANK_KEY_GAP);
             p.setNumberOfGamesPlayed(0);
             playerRepository.save(p);
         }
@@ -64,8 +71,8 @@ public class MatchServiceTest {
         Player p1 = players.get(0); // rank 1
         Player p15 = players.get(14); // rank 15
 
-        PlayerDTO dto1 = modelMapper.map(p1, PlayerDTO.class);
-        PlayerDTO dto15 = modelMapper.map(p15, PlayerDTO.class);
+        PlayerDTO dto1 = playerMapper.toDto(p1);
+        PlayerDTO dto15 = playerMapper.toDto(p15);
 
         MatchDTO matchDTO = MatchDTO.builder().playerOne(dto15).playerTwo(dto1).outcome(MatchOutcome.PLAYER_ONE_WON).build();
 
@@ -78,8 +85,15 @@ public class MatchServiceTest {
         Player updated15 = playerRepository.findById(p15.getId()).orElseThrow();
         assertThat(updated1.getNumberOfGamesPlayed()).isEqualTo(1);
         assertThat(updated15.getNumberOfGamesPlayed()).isEqualTo(1);
-        // ranks should be unique
-        long distinct = after.stream().map(Player::getRank).distinct().count();
+        // and the result is on both records, as an upset
+        assertThat(updated15.getWins()).isEqualTo(1);
+        assertThat(updated15.getUpsetsScored()).isEqualTo(1);
+        assertThat(updated15.getStreak()).isEqualTo(1);
+        assertThat(updated1.getLosses()).isEqualTo(1);
+        assertThat(updated1.getUpsetsSuffered()).isEqualTo(1);
+        assertThat(updated1.getStreak()).isEqualTo(-1);
+        // rank keys should be unique
+        long distinct = after.stream().map(Player::getRankKey).distinct().count();
         assertThat(distinct).isEqualTo(after.size());
     }
 
@@ -90,16 +104,16 @@ public class MatchServiceTest {
         Player p10 = players.get(9); // rank 10
         Player p11 = players.get(10); // rank 11
 
-        PlayerDTO dto10 = modelMapper.map(p10, PlayerDTO.class);
-        PlayerDTO dto11 = modelMapper.map(p11, PlayerDTO.class);
+        PlayerDTO dto10 = playerMapper.toDto(p10);
+        PlayerDTO dto11 = playerMapper.toDto(p11);
 
         MatchDTO match = MatchDTO.builder().playerOne(dto10).playerTwo(dto11).outcome(MatchOutcome.DRAW).build();
         matchService.saveMatch(match);
 
         Player re10 = playerRepository.findById(p10.getId()).orElseThrow();
         Player re11 = playerRepository.findById(p11.getId()).orElseThrow();
-        assertThat(re10.getRank()).isEqualTo(10);
-        assertThat(re11.getRank()).isEqualTo(11);
+        assertThat(rankingService.rankOf(re10.getId())).isEqualTo(10);
+        assertThat(rankingService.rankOf(re11.getId())).isEqualTo(11);
     }
 
     @Test
@@ -109,20 +123,20 @@ public class MatchServiceTest {
         Player p5 = players.get(4); // rank 5
         Player p12 = players.get(11); // rank 12
 
-        PlayerDTO dto5 = modelMapper.map(p5, PlayerDTO.class);
-        PlayerDTO dto12 = modelMapper.map(p12, PlayerDTO.class);
+        PlayerDTO dto5 = playerMapper.toDto(p5);
+        PlayerDTO dto12 = playerMapper.toDto(p12);
 
         MatchDTO match = MatchDTO.builder().playerOne(dto5).playerTwo(dto12).outcome(MatchOutcome.DRAW).build();
         matchService.saveMatch(match);
 
         Player re5 = playerRepository.findById(p5.getId()).orElseThrow();
         Player re12 = playerRepository.findById(p12.getId()).orElseThrow();
-        assertThat(re5.getRank()).isEqualTo(5);
-        assertThat(re12.getRank()).isEqualTo(11);
+        assertThat(rankingService.rankOf(re5.getId())).isEqualTo(5);
+        assertThat(rankingService.rankOf(re12.getId())).isEqualTo(11);
 
-        // ensure ranks remain unique
+        // ensure rank keys remain unique
         List<Player> after = playerRepository.findAllOrderByRankAsc();
-        long distinct = after.stream().map(Player::getRank).distinct().count();
+        long distinct = after.stream().map(Player::getRankKey).distinct().count();
         assertThat(distinct).isEqualTo(after.size());
     }
 
@@ -133,16 +147,16 @@ public class MatchServiceTest {
         Player p3 = players.get(2); // rank 3
         Player p8 = players.get(7); // rank 8
 
-        PlayerDTO dto3 = modelMapper.map(p3, PlayerDTO.class);
-        PlayerDTO dto8 = modelMapper.map(p8, PlayerDTO.class);
+        PlayerDTO dto3 = playerMapper.toDto(p3);
+        PlayerDTO dto8 = playerMapper.toDto(p8);
 
         MatchDTO match = MatchDTO.builder().playerOne(dto3).playerTwo(dto8).outcome(MatchOutcome.PLAYER_ONE_WON).build();
         matchService.saveMatch(match);
 
         Player re3 = playerRepository.findById(p3.getId()).orElseThrow();
         Player re8 = playerRepository.findById(p8.getId()).orElseThrow();
-        assertThat(re3.getRank()).isEqualTo(3);
-        assertThat(re8.getRank()).isEqualTo(8);
+        assertThat(rankingService.rankOf(re3.getId())).isEqualTo(3);
+        assertThat(rankingService.rankOf(re8.getId())).isEqualTo(8);
     }
 
     @Test
@@ -152,8 +166,8 @@ public class MatchServiceTest {
         Player p4 = players.get(3); // rank 4
         Player p14 = players.get(13); // rank 14
 
-        PlayerDTO dto4 = modelMapper.map(p4, PlayerDTO.class);
-        PlayerDTO dto14 = modelMapper.map(p14, PlayerDTO.class);
+        PlayerDTO dto4 = playerMapper.toDto(p4);
+        PlayerDTO dto14 = playerMapper.toDto(p14);
 
         MatchDTO match = MatchDTO.builder().playerOne(dto14).playerTwo(dto4).outcome(MatchOutcome.PLAYER_ONE_WON).build();
         matchService.saveMatch(match);
@@ -164,19 +178,72 @@ public class MatchServiceTest {
         int expectedHigherNew = 4 + 1; // 5
         int expectedLowerNew = 14 - (((14 - 4) + 1) / 2); // per service formula
 
-        assertThat(after4.getRank()).isEqualTo(expectedHigherNew);
-        assertThat(after14.getRank()).isEqualTo(expectedLowerNew);
+        assertThat(rankingService.rankOf(after4.getId())).isEqualTo(expectedHigherNew);
+        assertThat(rankingService.rankOf(after14.getId())).isEqualTo(expectedLowerNew);
 
-        // ensure ranks unique
+        // ensure rank keys unique
         List<Player> after = playerRepository.findAllOrderByRankAsc();
-        long distinct = after.stream().map(Player::getRank).distinct().count();
+        long distinct = after.stream().map(Player::getRankKey).distinct().count();
         assertThat(distinct).isEqualTo(after.size());
 
+        // only the two players got new keys, the ones they jumped over slid without being written
+        Player p10 = players.get(9);
+        assertThat(playerRepository.findById(p10.getId()).orElseThrow().getRankKey()).isEqualTo(p10.getRankKey());
+        assertThat(rankingService.rankOf(p10.getId())).isEqualTo(11);
+        assertThat(after.stream().map(Player::getId).toList())
+                .isEqualTo(rankingService.playersBetween(1, after.size()));
+
         // matches played incremented
         assertThat(after4.getNumberOfGamesPlayed()).isEqualTo(1);
         assertThat(after14.getNumberOfGamesPlayed()).isEqualTo(1);
     }
 
+    @Test
+    void saveMatches_applies_each_result_to_the_ladder_left_by_the_previous_one() {
+        seedPlayers(20);
+        List<Player> players = playerRepository.findAllOrderByRankAsc();
+        PlayerDTO dto1 = playerMapper.toDto(players.get(0)); // rank 1
+        PlayerDTO dto4 = playerMapper.toDto(players.get(3)); // rank 4
+        PlayerDTO dto14 = playerMapper.toDto(players.get(13)); // rank 14
+
+        // 14 beats 4 and lands on 9, then from 9 beats the leader and lands on 5
+        List<MatchDTO> saved = matchService.saveMatches(List.of(
+                MatchDTO.builder().playerOne(dto14).playerTwo(dto4).outcome(MatchOutcome.PLAYER_ONE_WON).build(),
+                MatchDTO.builder().playerOne(dto14).playerTwo(dto1).outcome(MatchOutcome.PLAYER_ONE_WON).build()));
+
+        assertThat(saved).hasSize(2).allSatisfy(match -> assertThat(match.getId()).isNotNull());
+        assertThat(matchRepository.count()).isEqualTo(2);
+        assertThat(rankingService.rankOf(dto14.getId())).isEqualTo(5);
+        assertThat(rankingService.rankOf(dto1.getId())).isEqualTo(2);
+        assertThat(rankingService.rankOf(dto4.getId())).isEqualTo(6);
+
+        List<Player> after = playerRepository.findAllOrderByRankAsc();
+        assertThat(after.stream().map(Player::getId).toList())
+                .isEqualTo(rankingService.playersBetween(1, after.size()));
+        assertThat(playerRepository.findById(dto14.getId()).orElseThrow().getNumberOfGamesPlayed()).isEqualTo(2);
+        assertThat(playerRepository.findById(dto1.getId()).orElseThrow().getNumberOfGamesPlayed()).isEqualTo(1);
+        assertThat(playerRepository.findById(dto4.getId()).orElseThrow().getNumberOfGamesPlayed()).isEqualTo(1);
+    }
+
+    @Test
+    void getMatches_pages_with_players_and_sorts_on_player_name() {
+        seedPlayers(6);
+        List<Player> players = playerRepository.findAllOrderByRankAsc();
+        for (int i = 0; i < 5; i++) {
+            // P2 vs P1, P3 vs P2 ... so player one's first name orders the matches
+            matchService.saveMatch(MatchDTO.builder()
+                    .playerOne(playerMapper.toDto(players.get(i + 1)))
+                    .playerTwo(playerMapper.toDto(players.get(i)))
+                    .outcome(MatchOutcome.DRAW).build());
+        }
+
+        List<MatchDTO> page = matchService.getMatches(PageRequest.of(1, 2, Sort.by(Sort.Order.desc("playerOne.firstName"))));
+
+        assertThat(matchService.countMatches()).isEqualTo(5);
+        assertThat(page).extracting(match -> match.getPlayerOne().getFirstName()).containsExactly("P4", "P3");
+        assertThat(page).allSatisfy(match -> assertThat(match.getPlayerTwo()).isNotNull());
+    }
+
     @Test
     void saveMatch_returnsDto_and_findById_returnsMatchWithPlayers() {
         // seed minimal players
@@ -185,7 +252,7 @@ public class MatchServiceTest {
         pA.setLastName("One");
         pA.setEmail("a@e.com");
         pA.setDateOfBirth(LocalDate.of(1990,1,1));
-        pA.setRank(1);
+        pA.setRankKey(RankingService.RANK_KEY_GAP);
         pA.setNumberOfGamesPlayed(0);
         playerRepository.save(pA);
 
@@ -194,12 +261,12 @@ public class MatchServiceTest {
         pB.setLastName("Two");
         pB.setEmail("b@e.com");
         pB.setDateOfBirth(LocalDate.of(1990,1,1));
-        pB.setRank(2);
+        pB.setRankKey(2 * RankingService.RANK_KEY_GAP);
         pB.setNumberOfGamesPlayed(0);
         playerRepository.save(pB);
 
-        PlayerDTO dto1 = modelMapper.map(pA, PlayerDTO.class);
-        PlayerDTO dto2 = modelMapper.map(pB, PlayerDTO.class);
+        PlayerDTO dto1 = playerMapper.toDto(pA);
+        PlayerDTO dto2 = playerMapper.toDto(pB);
 
         MatchDTO toSave = MatchDTO.builder().playerOne(dto1).playerTwo(dto2).outcome(MatchOutcome.PLAYER_ONE_WON).build();
 
@@ -224,7 +291,7 @@ public class MatchServiceTest {
         pA.setLastName("One");
         pA.setEmail("a@e.com");
         pA.setDateOfBirth(LocalDate.of(1990,1,1));
-        pA.setRank(1);
+        pA.setRankKey(RankingService.RANK_KEY_GAP);
         pA.setNumberOfGamesPlayed(0);
         playerRepository.save(pA);
 
@@ -233,12 +300,12 @@ public class MatchServiceTest {
         pB.setLastName("Two");
         pB.setEmail("b@e.com");
         pB.setDateOfBirth(LocalDate.of(1990,1,1));
-        pB.setRank(2);
+        pB.setRankKey(2 * RankingService.RANK_KEY_GAP);
         pB.setNumberOfGamesPlayed(0);
         playerRepository.save(pB);
 
-        PlayerDTO dto1 = modelMapper.map(pA, PlayerDTO.class);
-        PlayerDTO dto2 = modelMapper.map(pB, PlayerDTO.class);
+        PlayerDTO dto1 = playerMapper.toDto(pA);
+        PlayerDTO dto2 = playerMapper.toDto(pB);
 
         MatchDTO saved = matchService.saveMatch(MatchDTO.builder().playerOne(dto1).playerTwo(dto2).outcome(MatchOutcome.PLAYER_ONE_WON).build());
         Long matchId = saved.getId();
@@ -252,6 +319,54 @@ public class MatchServiceTest {
         assertThat(playerRepository.findById(pB.getId())).isPresent();
     }
 
+    @Test
+    void deleteMatch_takes_the_result_back_off_both_players() {
+        seedPlayers(2);
+        List<Player> players = playerRepository.findAllOrderByRankAsc();
+        PlayerDTO first = playerMapper.toDto(players.get(0));
+        PlayerDTO second = playerMapper.toDto(players.get(1));
+        matchService.saveMatch(MatchDTO.builder().playerOne(first).playerTwo(second).outcome(MatchOutcome.PLAYER_ONE_WON).build());
+        MatchDTO last = matchService.saveMatch(MatchDTO.builder().playerOne(first).playerTwo(second).outcome(MatchOutcome.PLAYER_ONE_WON).build());
+
+        matchService.deleteMatch(last.getId());
+
+        Player winner = playerRepository.findById(first.getId()).orElseThrow();
+        Player loser = playerRepository.findById(second.getId()).orElseThrow();
+        assertThat(winner.getNumberOfGamesPlayed()).isEqualTo(1);
+        assertThat(winner.getWins()).isEqualTo(1);
+        assertThat(winner.getStreak()).isEqualTo(1);
+        assertThat(loser.getLosses()).isEqualTo(1);
+        assertThat(loser.getStreak()).isEqualTo(-1);
+    }
+
+    @Test
+    void headToHead_counts_both_orders_of_a_pairing_and_follows_deletes() {
+        seedPlayers(2);
+        List<Player> players = playerRepository.findAllOrderByRankAsc();
+        PlayerDTO first = playerMapper.toDto(players.get(0));
+        PlayerDTO second = playerMapper.toDto(players.get(1));
+        matchService.saveMatch(MatchDTO.builder().playerOne(first).playerTwo(second).outcome(MatchOutcome.PLAYER_ONE_WON).build());
+        matchService.saveMatches(List.of(
+                MatchDTO.builder().playerOne(second).playerTwo(first).outcome(MatchOutcome.PLAYER_ONE_WON).build(),
+                MatchDTO.builder().playerOne(second).playerTwo(first).outcome(MatchOutcome.DRAW).build()));
+        MatchDTO last = matchService.saveMatch(MatchDTO.builder().playerOne(second).playerTwo(first).outcome(MatchOutcome.PLAYER_TWO_WON).build());
+
+        HeadToHeadDTO record = matchService.getHeadToHead(first.getId(), second.getId());
+        assertThat(record.playerOneWins()).isEqualTo(2);
+        assertThat(record.playerTwoWins()).isEqualTo(1);
+        assertThat(record.draws()).isEqualTo(1);
+        assertThat(record.lastPlayedAt()).isNotNull();
+
+        matchService.deleteMatch(last.getId());
+
+        HeadToHeadDTO afterDelete = matchService.getHeadToHead(second.getId(), first.getId());
+        assertThat(afterDelete.playerOneWins()).isEqualTo(1);
+        assertThat(afterDelete.playerTwoWins()).isEqualTo(1);
+        assertThat(afterDelete.draws()).isEqualTo(1);
+        // falls back to the latest match left between them
+        assertThat(afterDelete.lastPlayedAt()).isNotNull().isBeforeOrEqualTo(record.lastPlayedAt());
+    }
+
     @Test
     void savedMatch_entity_contains_playerIds_and_createdAt() {
         Player pA = new Player();
@@ -259,7 +374,7 @@ public class MatchServiceTest {
         pA.setLastName("One");
         pA.setEmail("a@e.com");
         pA.setDateOfBirth(LocalDate.of(1990,1,1));
-        pA.setRank(1);
+        pA.setRankKey(RankingService.RANK_KEY_GAP);
         pA.setNumberOfGamesPlayed(0);
         playerRepository.save(pA);
 
@@ -268,12 +383,12 @@ public class MatchServiceTest {
         pB.setLastName("Two");
         pB.setEmail("b@e.com");
         pB.setDateOfBirth(LocalDate.of(1990,1,1));
-        pB.setRank(2);
+        pB.setRankKey(2 * RankingService.RANK_KEY_GAP);
         pB.setNumberOfGamesPlayed(0);
         playerRepository.save(pB);
 
-        PlayerDTO dto1 = modelMapper.map(pA, PlayerDTO.class);
-        PlayerDTO dto2 = modelMapper.map(pB, PlayerDTO.class);
+        PlayerDTO dto1 = playerMapper.toDto(pA);
+        PlayerDTO dto2 = playerMapper.toDto(pB);
 
         MatchDTO saved = matchService.saveMatch(MatchDTO.builder().playerOne(dto1).playerTwo(dto2).outcome(MatchOutcome.PLAYER_ONE_WON).build());
         assertThat(saved.getId()).isNotNull();
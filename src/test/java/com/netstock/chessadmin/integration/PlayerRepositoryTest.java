@@ -1,14 +1,24 @@
 package com.netstock.chessadmin.integration;
 
 import com.netstock.chessadmin.entity.Player;
+import com.netstock.chessadmin.ranking.RankKey;
 import com.netstock.chessadmin.repository.PlayerRepository;
+import com.netstock.chessadmin.service.RankingService;
+import jakarta.persistence.Cache;
+import jakarta.persistence.EntityManager;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.data.domain.Limit;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import java.time.LocalDate;
 import java.util.List;
+import java.util.stream.Stream;
 
 import static org.assertj.core.api.Assertions.assertThat;
 
@@ -18,6 +28,12 @@ class PlayerRepositoryTest {
     @Autowired
     PlayerRepository playerRepository;
 
+    @Autowired
+    EntityManager entityManager;
+
+    @Autowired
+    PlatformTransactionManager transactionManager;
+
     @BeforeEach
     void setUp() {
         playerRepository.deleteAll();
@@ -27,7 +43,7 @@ class PlayerRepositoryTest {
             p.setLastName("Last" + i);
             p.setEmail("p" + i + "@example.com");
             p.setDateOfBirth(LocalDate.of(1990, 1, i));
-            p.setRank(i);
+            p.setRankKey(i * RankingService.RANK_KEY_GAP);
             p.setNumberOfGamesPlayed(0);
             playerRepository.save(p);
         }
@@ -37,24 +53,66 @@ class PlayerRepositoryTest {
     void findAllOrderByRankAsc_returns_sorted() {
         List<Player> players = playerRepository.findAllOrderByRankAsc();
         assertThat(players).hasSize(5);
-        assertThat(players.get(0).getRank()).isEqualTo(1);
-        assertThat(players.get(4).getRank()).isEqualTo(5);
+        assertThat(players.get(0).getFirstName()).isEqualTo("First1");
+        assertThat(players.get(4).getFirstName()).isEqualTo("First5");
     }
 
     @Test
-    void incrementRanksFrom_shifts_range_up() {
-        // shift ranks 3..5 up by 1 -> players with rank 3..4 become 4..5 (stop exclusive)
-        playerRepository.incrementRanksFrom(3, 6);
+    void updateRankKey_moves_player_between_its_new_neighbours() {
+        // move the player ranked 5th between the 1st and the 2nd
+        Player p5 = playerRepository.findAllOrderByRankAsc().get(4);
+        playerRepository.updateRankKey(p5.getId(), RankingService.RANK_KEY_GAP + RankingService.RANK_KEY_GAP / 2);
         List<Player> players = playerRepository.findAllOrderByRankAsc();
-        assertThat(players.stream().map(Player::getRank)).containsExactly(1,2,4,5,6);
+        assertThat(players.stream().map(Player::getFirstName))
+                .containsExactly("First1", "First5", "First2", "First3", "First4");
     }
 
     @Test
-    void updatePlayerRankById_updates_specific_player() {
-        Player p3 = playerRepository.findAllOrderByRankAsc().get(2);
-        playerRepository.updatePlayerRankById(p3.getId(), 10);
-        Player updated = playerRepository.findById(p3.getId()).orElseThrow();
-        assertThat(updated.getRank()).isEqualTo(10);
+    void findAllRankKeys_returns_ids_in_ladder_order() {
+        List<Player> players = playerRepository.findAllOrderByRankAsc();
+        assertThat(playerRepository.findAllRankKeys().stream().map(RankKey::playerId))
+                .containsExactlyElementsOf(players.stream().map(Player::getId).toList());
+        assertThat(playerRepository.findHighestRankKey()).isEqualTo(5 * RankingService.RANK_KEY_GAP);
     }
-}
 
+    @Test
+    void findPageAfterRankKey_walks_the_ladder_by_keyset() {
+        List<Player> first = playerRepository.findPageAfterRankKey(0, Limit.of(2));
+        List<Player> second = playerRepository.findPageAfterRankKey(first.get(1).getRankKey(), Limit.of(2));
+        List<Player> last = playerRepository.findPageAfterRankKey(second.get(1).getRankKey(), Limit.of(2));
+
+        assertThat(first.stream().map(Player::getFirstName)).containsExactly("First1", "First2");
+        assertThat(second.stream().map(Player::getFirstName)).containsExactly("First3", "First4");
+        assertThat(last.stream().map(Player::getFirstName)).containsExactly("First5");
+    }
+
+    @Test
+    void streamAllOrderByRankAsc_streams_the_ladder_in_order() {
+        try (Stream<Player> players = playerRepository.streamAllOrderByRankAsc()) {
+            assertThat(players.map(Player::getFirstName))
+                    .containsExactly("First1", "First2", "First3", "First4", "First5");
+        }
+    }
+
+    @Test
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    void rank_key_writes_evict_only_the_players_they_wrote_from_the_second_level_cache() {
+        // players inserted by a transaction are only cached once it has committed, so this test commits as it goes
+        List<Player> players = playerRepository.findAllOrderByRankAsc();
+        Long moved = players.get(4).getId();
+        Long untouched = players.get(0).getId();
+        Cache cache = entityManager.getEntityManagerFactory().getCache();
+        cache.evictAll();
+        assertThat(playerRepository.existsById(moved)).isTrue();
+        assertThat(playerRepository.existsById(untouched)).isTrue();
+        assertThat(cache.contains(Player.class, moved)).isTrue();
+
+        new TransactionTemplate(transactionManager).executeWithoutResult(status ->
+                playerRepository.updateRankKey(moved, RankingService.RANK_KEY_GAP / 2));
+
+        assertThat(cache.contains(Player.class, moved)).isFalse();
+        assertThat(cache.contains(Player.class, untouched)).isTrue();
+        assertThat(playerRepository.findById(moved).orElseThrow().getRankKey()).isEqualTo(RankingService.RANK_KEY_GAP / 2);
+        playerRepository.deleteAll();
+    }
+}
@@ -1,22 +1,27 @@
 package com.netstock.chessadmin.integration;
 
 import com.netstock.chessadmin.dto.PlayerDTO;
+import com.netstock.chessadmin.dto.PlayerImportResult;
 import com.netstock.chessadmin.entity.Match;
 import com.netstock.chessadmin.entity.Player;
+import com.netstock.chessadmin.mapper.PlayerCsv;
+import com.netstock.chessadmin.mapper.PlayerMapper;
 import com.netstock.chessadmin.repository.MatchRepository;
 import com.netstock.chessadmin.repository.PlayerRepository;
 import com.netstock.chessadmin.service.PlayerService;
+import com.netstock.chessadmin.service.RankingService;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
-import org.modelmapper.ModelMapper;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.io.StringReader;
 import java.time.LocalDate;
 import java.util.List;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
 
 @SpringBootTest
 @Transactional
@@ -32,7 +37,7 @@ public class PlayerServiceTest {
     MatchRepository matchRepository;
 
     @Autowired
-    ModelMapper modelMapper;
+    PlayerMapper playerMapper;
 
     @BeforeEach
     void setUp() {
@@ -63,9 +68,9 @@ public class PlayerServiceTest {
     void deletePlayer_clears_match_references_and_deletes_player() {
         // create two players
         Player a = new Player();
-        a.setFirstName("A"); a.setLastName("One"); a.setEmail("a@e.com"); a.setDateOfBirth(LocalDate.of(1990,1,1)); a.setRank(1); a.setNumberOfGamesPlayed(0);
+        a.setFirstName("A"); a.setLastName("One"); a.setEmail("a@e.com"); a.setDateOfBirth(LocalDate.of(1990,1,1)); a.setRankKey(RankingService.RANK_KEY_GAP); a.setNumberOfGamesPlayed(0);
         Player b = new Player();
-        b.setFirstName("B"); b.setLastName("Two"); b.setEmail("b@e.com"); b.setDateOfBirth(LocalDate.of(1990,1,1)); b.setRank(2); b.setNumberOfGamesPlayed(0);
+        b.setFirstName("B"); b.setLastName("Two"); b.setEmail("b@e.com"); b.setDateOfBirth(LocalDate.of(1990,1,1)); b.setRankKey(2 * RankingService.RANK_KEY_GAP); b.setNumberOfGamesPlayed(0);
         playerRepository.save(a);
         playerRepository.save(b);
 
@@ -87,5 +92,62 @@ public class PlayerServiceTest {
         assertThat(playerRepository.existsById(a.getId())).isFalse();
         assertThat(matchRepository.existsByPlayerOneIdOrPlayerTwoId(a.getId(), a.getId())).isFalse();
     }
-}
 
+    @Test
+    void updatePlayer_keeps_a_match_played_while_the_form_was_open() {
+        Player a = new Player();
+        a.setFirstName("A"); a.setLastName("One"); a.setEmail("a@e.com"); a.setDateOfBirth(LocalDate.of(1990,1,1)); a.setRankKey(RankingService.RANK_KEY_GAP); a.setNumberOfGamesPlayed(0);
+        playerRepository.save(a);
+        PlayerDTO edited = playerMapper.toDto(a);
+        edited.setFirstName("Edited");
+
+        // a match is played while the edit form is open; it does not make the form stale
+        playerRepository.incrementGamesPlayed(List.of(a.getId()));
+
+        playerService.save(edited);
+        playerRepository.flush();
+        Player current = playerRepository.findById(a.getId()).orElseThrow();
+        assertThat(current.getFirstName()).isEqualTo("Edited");
+        assertThat(current.getNumberOfGamesPlayed()).isEqualTo(1);
+    }
+
+    @Test
+    void updatePlayer_with_stale_version_is_rejected_instead_of_overwriting() {
+        Player a = new Player();
+        a.setFirstName("A"); a.setLastName("One"); a.setEmail("a@e.com"); a.setDateOfBirth(LocalDate.of(1990,1,1)); a.setRankKey(RankingService.RANK_KEY_GAP); a.setNumberOfGamesPlayed(0);
+        playerRepository.saveAndFlush(a);
+        PlayerDTO stale = playerMapper.toDto(a);
+        stale.setFirstName("Stale");
+        PlayerDTO first = playerMapper.toDto(a);
+        first.setFirstName("First");
+
+        // someone else saves an edit of the same player first
+        playerService.save(first);
+        playerRepository.flush();
+
+        // a stale form is not a race a retry could win, so it is not an optimistic locking conflict
+        assertThrows(IllegalStateException.class, () -> playerService.save(stale));
+        assertThat(playerRepository.findById(a.getId()).orElseThrow().getFirstName()).isEqualTo("First");
+    }
+
+    @Test
+    void importPlayers_appends_valid_lines_below_the_ladder_and_reports_the_rest() {
+        Player a = new Player();
+        a.setFirstName("A"); a.setLastName("One"); a.setEmail("a@e.com"); a.setDateOfBirth(LocalDate.of(1990,1,1)); a.setRankKey(RankingService.RANK_KEY_GAP); a.setNumberOfGamesPlayed(0);
+        playerRepository.save(a);
+        String csv = PlayerCsv.HEADER + "\n"
+                + "Ann,Lee,ann@e.com,1991-02-03\n"
+                + "Bob,,bob@e.com,1990-01-01\n"
+                + "\"Cy, Jr\",Ray,cy@e.com,1989-12-31\n"
+                + "Dee,Fox,dee@e.com,31/12/1989\n";
+
+        PlayerImportResult result = playerService.importPlayers(new StringReader(csv));
+
+        assertThat(result.imported()).isEqualTo(2);
+        assertThat(result.rejected()).extracting(PlayerImportResult.RejectedRow::line).containsExactly(3L, 5L);
+        assertThat(result.rejected().get(0).reason()).isEqualTo("lastName is missing");
+        List<Player> ladder = playerRepository.findAllOrderByRankAsc();
+        assertThat(ladder).extracting(Player::getFirstName).containsExactly("A", "Ann", "Cy, Jr");
+        assertThat(ladder.get(2).getRankKey() - ladder.get(1).getRankKey()).isEqualTo(RankingService.RANK_KEY_GAP);
+    }
+}
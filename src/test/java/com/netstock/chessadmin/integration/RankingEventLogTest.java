@@ -0,0 +1,106 @@
+package com.netstock.chessadmin.integration;
+
+import com.netstock.chessadmin.dto.MatchDTO;
+import com.netstock.chessadmin.dto.PlayerDTO;
+import com.netstock.chessadmin.entity.RankingEvent;
+import com.netstock.chessadmin.enums.MatchOutcome;
+import com.netstock.chessadmin.enums.RankingEventType;
+import com.netstock.chessadmin.ranking.LadderReplay;
+import com.netstock.chessadmin.repository.MatchRepository;
+import com.netstock.chessadmin.repository.PlayerRepository;
+import com.netstock.chessadmin.repository.RankingEventRepository;
+import com.netstock.chessadmin.service.MatchService;
+import com.netstock.chessadmin.service.PlayerService;
+import com.netstock.chessadmin.service.RankingService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest
+@Transactional
+public class RankingEventLogTest {
+
+    @Autowired
+    PlayerService playerService;
+
+    @Autowired
+    MatchService matchService;
+
+    @Autowired
+    RankingService rankingService;
+
+    @Autowired
+    LadderReplay ladderReplay;
+
+    @Autowired
+    RankingEventRepository rankingEventRepository;
+
+    @Autowired
+    PlayerRepository playerRepository;
+
+    @Autowired
+    MatchRepository matchRepository;
+
+    @BeforeEach
+    void setUp() {
+        rankingEventRepository.deleteAll();
+        matchRepository.deleteAll();
+        playerRepository.deleteAll();
+        rankingService.invalidate();
+        for (int i = 1; i <= 8; i++) {
+            playerService.save(PlayerDTO.builder().firstName("P" + i).lastName("L" + i).email("p" + i + "@e.com")
+                    .dateOfBirth(LocalDate.of(1990, 1, 1)).build());
+        }
+    }
+
+    private PlayerDTO atRank(int rank) {
+        return PlayerDTO.builder().id(rankingService.playerAt(rank)).build();
+    }
+
+    private List<Long> currentLadder() {
+        return rankingService.playersBetween(1, rankingService.ladderSize());
+    }
+
+    @Test
+    void every_ladder_change_is_logged_with_the_ranks_before_and_after() {
+        Long winnerId = rankingService.playerAt(7);
+        Long loserId = rankingService.playerAt(1);
+
+        matchService.saveMatch(MatchDTO.builder().playerOne(atRank(7)).playerTwo(atRank(1))
+                .outcome(MatchOutcome.PLAYER_ONE_WON).build());
+
+        List<RankingEvent> log = rankingEventRepository.findAll();
+        assertThat(log).hasSize(9);
+        assertThat(log.subList(0, 8)).allMatch(event -> event.getType() == RankingEventType.PLAYER_ADDED);
+        RankingEvent match = log.get(8);
+        assertThat(match.getType()).isEqualTo(RankingEventType.MATCH);
+        assertThat(match.getPlayerOneId()).isEqualTo(winnerId);
+        assertThat(match.getPlayerOneRankBefore()).isEqualTo(7);
+        assertThat(match.getPlayerOneRankAfter()).isEqualTo(rankingService.rankOf(winnerId));
+        assertThat(match.getPlayerTwoId()).isEqualTo(loserId);
+        assertThat(match.getPlayerTwoRankAfter()).isEqualTo(2);
+    }
+
+    @Test
+    void replaying_the_log_rebuilds_the_current_ladder() {
+        matchService.saveMatch(MatchDTO.builder().playerOne(atRank(8)).playerTwo(atRank(2))
+                .outcome(MatchOutcome.PLAYER_ONE_WON).build());
+        matchService.saveMatches(List.of(
+                MatchDTO.builder().playerOne(atRank(3)).playerTwo(atRank(6)).outcome(MatchOutcome.DRAW).build(),
+                MatchDTO.builder().playerOne(atRank(1)).playerTwo(atRank(5)).outcome(MatchOutcome.PLAYER_TWO_WON).build()));
+        playerService.delete(rankingService.playerAt(4));
+
+        LadderReplay.Result result = ladderReplay.replay();
+
+        assertThat(result.ladder()).isEqualTo(currentLadder());
+        assertThat(result.events()).isEqualTo(12);
+        assertThat(result.divergences()).isZero();
+    }
+}
@@ -0,0 +1,59 @@
+package com.netstock.chessadmin.mapper;
+
+import com.netstock.chessadmin.dto.HeadToHeadDTO;
+import com.netstock.chessadmin.dto.MatchDTO;
+import com.netstock.chessadmin.dto.PlayerDTO;
+import com.netstock.chessadmin.entity.HeadToHead;
+import com.netstock.chessadmin.entity.Match;
+import com.netstock.chessadmin.enums.MatchOutcome;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class MatchMapperTest {
+
+    private final MatchMapper matchMapper = new MatchMapper();
+
+    @Test
+    void toEntity_sets_the_player_foreign_keys_only() {
+        MatchDTO dto = MatchDTO.builder().playerOne(PlayerDTO.builder().id(1L).build())
+                .playerTwo(PlayerDTO.builder().id(2L).build()).outcome(MatchOutcome.DRAW).build();
+
+        Match match = matchMapper.toEntity(dto);
+
+        assertThat(match.getPlayerOneId()).isEqualTo(1L);
+        assertThat(match.getPlayerTwoId()).isEqualTo(2L);
+        assertThat(match.getOutcome()).isEqualTo(MatchOutcome.DRAW);
+        assertThat(match.getPlayerOne()).isNull();
+        assertThat(match.getPlayerTwo()).isNull();
+    }
+
+    @Test
+    void toDto_uses_the_players_it_is_given() {
+        Match match = new Match();
+        match.setId(9L);
+        match.setOutcome(MatchOutcome.PLAYER_TWO_WON);
+        PlayerDTO one = PlayerDTO.builder().id(1L).rank(4).build();
+        PlayerDTO two = PlayerDTO.builder().id(2L).rank(2).build();
+
+        MatchDTO dto = matchMapper.toDto(match, one, two);
+
+        assertThat(dto.getId()).isEqualTo(9L);
+        assertThat(dto.getOutcome()).isEqualTo(MatchOutcome.PLAYER_TWO_WON);
+        assertThat(dto.getPlayerOne()).isSameAs(one);
+        assertThat(dto.getPlayerTwo()).isSameAs(two);
+    }
+
+    @Test
+    void toDto_turns_a_head_to_head_row_around_to_the_order_asked_for() {
+        HeadToHead row = new HeadToHead();
+        row.setLowPlayerId(1L);
+        row.setHighPlayerId(2L);
+        row.setLowPlayerWins(5);
+        row.setHighPlayerWins(2);
+        row.setDraws(1);
+
+        assertThat(matchMapper.toDto(row, 1L, 2L)).isEqualTo(new HeadToHeadDTO(1L, 2L, 5, 2, 1, null));
+        assertThat(matchMapper.toDto(row, 2L, 1L)).isEqualTo(new HeadToHeadDTO(2L, 1L, 2, 5, 1, null));
+    }
+}
@@ -0,0 +1,56 @@
+package com.netstock.chessadmin.mapper;
+
+import com.netstock.chessadmin.enums.MatchOutcome;
+import org.junit.jupiter.api.Test;
+
+import java.io.StringReader;
+import java.time.LocalDate;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class PgnReaderTest {
+
+    private static final String PGN = """
+            [Event "Club championship"]
+            [Date "2019.03.02"]
+            [White "Carlsen, Magnus"]
+            [Black "Nepo \\"Ian\\""]
+            [Result "1-0"]
+
+            1. e4 e5 2. Nf3 Nc6
+            3. Bb5 a6 1-0
+
+            [Date "2019.??.??"]
+            [White "A"]
+            [Black "B"]
+            [Result "1/2-1/2"]
+            1. d4 d5 1/2-1/2
+            [White "B"]
+            [Black "A"]
+            [Result "*"]
+
+            *
+            """;
+
+    @Test
+    void next_reads_the_tags_of_each_game_and_skips_the_moves() {
+        PgnReader reader = new PgnReader(new StringReader(PGN));
+
+        PgnReader.Game first = reader.next();
+        PgnReader.Game second = reader.next();
+        PgnReader.Game third = reader.next();
+
+        assertThat(first.line()).isEqualTo(1);
+        assertThat(first.white()).isEqualTo("Carlsen, Magnus");
+        assertThat(first.black()).isEqualTo("Nepo \"Ian\"");
+        assertThat(first.outcome()).isEqualTo(MatchOutcome.PLAYER_ONE_WON);
+        assertThat(first.date()).isEqualTo(LocalDate.of(2019, 3, 2));
+        assertThat(second.line()).isEqualTo(10);
+        assertThat(second.outcome()).isEqualTo(MatchOutcome.DRAW);
+        assertThat(second.date()).isNull();
+        assertThat(third.line()).isEqualTo(15);
+        assertThat(third.white()).isEqualTo("B");
+        assertThat(third.outcome()).isNull();
+        assertThat(reader.next()).isNull();
+    }
+}
@@ -0,0 +1,37 @@
+package com.netstock.chessadmin.mapper;
+
+import com.netstock.chessadmin.dto.PlayerDTO;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class PlayerCsvTest {
+
+    @Test
+    void parse_reads_quoted_fields_and_trims_the_rest() {
+        PlayerDTO player = PlayerCsv.parse("\"O'Neil, \"\"Jr\"\"\", Smith ,js@e.com,1990-05-06");
+
+        assertThat(player.getFirstName()).isEqualTo("O'Neil, \"Jr\"");
+        assertThat(player.getLastName()).isEqualTo("Smith");
+        assertThat(player.getEmail()).isEqualTo("js@e.com");
+        assertThat(player.getDateOfBirth()).isEqualTo(LocalDate.of(1990, 5, 6));
+        assertThat(player.getId()).isNull();
+    }
+
+    @Test
+    void parse_rejects_lines_that_are_not_a_player() {
+        assertThrows(IllegalArgumentException.class, () -> PlayerCsv.parse("A,B,a@e.com"));
+        assertThrows(IllegalArgumentException.class, () -> PlayerCsv.parse("A,B,not-an-email,1990-01-01"));
+        assertThrows(IllegalArgumentException.class, () -> PlayerCsv.parse("A,B,a@e.com,01/01/1990"));
+        assertThrows(IllegalArgumentException.class, () -> PlayerCsv.parse("\"A,B,a@e.com,1990-01-01"));
+    }
+
+    @Test
+    void isHeader_ignores_case_and_quotes() {
+        assertThat(PlayerCsv.isHeader("\"FIRSTNAME\",\"lastname\",\"email\",\"dateOfBirth\"")).isTrue();
+        assertThat(PlayerCsv.isHeader("Ann,Lee,ann@e.com,1991-02-03")).isFalse();
+    }
+}
@@ -0,0 +1,51 @@
+package com.netstock.chessadmin.mapper;
+
+import com.netstock.chessadmin.dto.PlayerDTO;
+import com.netstock.chessadmin.entity.Player;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class PlayerMapperTest {
+
+    private final PlayerMapper playerMapper = new PlayerMapper();
+
+    @Test
+    void toDto_copies_every_field_the_form_and_grids_show() {
+        Player player = new Player();
+        player.setId(3L);
+        player.setFirstName("Jane");
+        player.setLastName("Smith");
+        player.setEmail("jane@example.com");
+        player.setDateOfBirth(LocalDate.of(1990, 1, 1));
+        player.setNumberOfGamesPlayed(7);
+        player.setWins(4);
+        player.setLosses(2);
+        player.setDraws(1);
+        player.setUpsetsScored(1);
+        player.setStreak(-2);
+        player.setRankKey(42L);
+        player.setVersion(2L);
+
+        PlayerDTO dto = playerMapper.toDto(player);
+
+        assertThat(dto).isEqualTo(new PlayerDTO(3L, "Jane", "Smith", "jane@example.com",
+                LocalDate.of(1990, 1, 1), 0, 7, 4, 2, 1, 1, 0, -2, 2L));
+    }
+
+    @Test
+    void toEntity_leaves_the_rank_key_to_the_ladder() {
+        PlayerDTO dto = PlayerDTO.builder().id(3L).firstName("Jane").lastName("Smith").email("jane@example.com")
+                .dateOfBirth(LocalDate.of(1990, 1, 1)).version(2L).build();
+
+        Player player = playerMapper.toEntity(dto);
+
+        assertThat(player.getId()).isEqualTo(3L);
+        assertThat(player.getFirstName()).isEqualTo("Jane");
+        assertThat(player.getEmail()).isEqualTo("jane@example.com");
+        assertThat(player.getVersion()).isEqualTo(2L);
+        assertThat(player.getRankKey()).isNull();
+    }
+}
@@ -0,0 +1,35 @@
+package com.netstock.chessadmin.ranking;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class LadderMetricsTest {
+
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+    private final LadderMetrics metrics = new LadderMetrics(registry);
+
+    @Test
+    void match_stages_are_timed_separately() {
+        String saved = metrics.timeMatchStage("insert", () -> "saved");
+        metrics.timeMatchStage("rank", () -> { });
+        metrics.timeMatchStage("rank", () -> { });
+
+        assertThat(saved).isEqualTo("saved");
+        assertThat(registry.timer("chess.match.save", "stage", "insert").count()).isEqualTo(1);
+        assertThat(registry.timer("chess.match.save", "stage", "rank").count()).isEqualTo(2);
+    }
+
+    @Test
+    void keys_written_are_recorded_as_a_distribution() {
+        metrics.recordKeysWritten(2);
+        metrics.recordKeysWritten(0);
+        metrics.recordKeysWritten(7);
+
+        var keysWritten = registry.summary("chess.ranking.keys.written");
+        assertThat(keysWritten.count()).isEqualTo(3);
+        assertThat(keysWritten.max()).isEqualTo(7);
+        assertThat(keysWritten.totalAmount()).isEqualTo(9);
+    }
+}
@@ -0,0 +1,156 @@
+package com.netstock.chessadmin.ranking;
+
+import com.netstock.chessadmin.enums.MatchOutcome;
+import com.netstock.chessadmin.enums.RankingEventType;
+import com.netstock.chessadmin.repository.MatchRepository;
+import com.netstock.chessadmin.repository.PlayerRepository;
+import com.netstock.chessadmin.repository.RankingEventRepository;
+import com.netstock.chessadmin.service.RankingService;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+
+import java.time.Instant;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ForkJoinPool;
+import java.util.stream.IntStream;
+import java.util.stream.LongStream;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class LadderRecomputeTest {
+    private static final Instant T0 = Instant.parse("2025-01-01T10:00:00Z");
+
+    @Mock
+    MatchRepository matchRepository;
+
+    @Mock
+    PlayerRepository playerRepository;
+
+    @Mock
+    RankingEventRepository rankingEventRepository;
+
+    @Mock
+    RankingService rankingService;
+
+    @Mock
+    LadderWriter ladderWriter;
+
+    @Mock
+    ApplicationEventPublisher eventPublisher;
+
+    @InjectMocks
+    LadderRecompute ladderRecompute;
+
+    private static Instant at(int minutes) {
+        return T0.plusSeconds(60L * minutes);
+    }
+
+    @Test
+    void recompute_interleaves_joins_with_matches_and_writes_the_ladder_once() {
+        when(matchRepository.count()).thenReturn(3L);
+        when(playerRepository.findAllRankKeys()).thenReturn(List.of(new RankKey(1L, 1L), new RankKey(2L, 2L),
+                new RankKey(3L, 3L), new RankKey(4L, 4L)));
+        when(playerRepository.findAllInJoinOrder()).thenReturn(List.of(new PlayerJoin(1L, at(0)),
+                new PlayerJoin(2L, at(1)), new PlayerJoin(3L, at(2)), new PlayerJoin(4L, at(5))));
+        when(matchRepository.streamResultsInPlayOrder()).thenReturn(Stream.of(
+                // upset: 3 climbs over 1, who drops below 3
+                new PlayedMatch(3L, 1L, MatchOutcome.PLAYER_ONE_WON, at(3)),
+                // the opponent has been deleted since
+                new PlayedMatch(null, 2L, MatchOutcome.DRAW, at(4)),
+                // 4 has joined at the bottom by now, and moves up one on the draw
+                new PlayedMatch(4L, 2L, MatchOutcome.DRAW, at(6))));
+
+        LadderRecompute.Result result = ladderRecompute.recompute();
+
+        assertThat(result.players()).isEqualTo(4);
+        assertThat(result.matches()).isEqualTo(3);
+        assertThat(result.skipped()).isEqualTo(1);
+        assertThat(result.moved()).isEqualTo(4);
+        Map<Long, Long> rankKeys = new LinkedHashMap<>();
+        rankKeys.put(2L, RankingService.RANK_KEY_GAP);
+        rankKeys.put(3L, 2 * RankingService.RANK_KEY_GAP);
+        rankKeys.put(4L, 3 * RankingService.RANK_KEY_GAP);
+        rankKeys.put(1L, 4 * RankingService.RANK_KEY_GAP);
+        verify(playerRepository).updateRankKeys(rankKeys);
+        // other instances' indexes are stale now
+        verify(playerRepository).advanceLadder();
+        verify(playerRepository).setResults(Map.of(
+                1L, ResultTally.of(MatchOutcome.PLAYER_ONE_WON, false, true),
+                2L, ResultTally.of(MatchOutcome.DRAW, false, false).then(ResultTally.of(MatchOutcome.DRAW, false, false)),
+                3L, ResultTally.of(MatchOutcome.PLAYER_ONE_WON, true, true),
+                4L, ResultTally.of(MatchOutcome.DRAW, true, false)));
+        verify(rankingEventRepository).appendAll(argThat(events -> events.size() == 5
+                && events.get(0).getType() == RankingEventType.LADDER_RESET
+                && events.get(1).getPlayerOneId() == 2L && events.get(4).getPlayerOneRankAfter() == 4));
+        verify(rankingService).invalidateOnCompletion();
+        verify(eventPublisher).publishEvent(LadderChangedEvent.wholeLadder(Set.of(1L, 2L, 3L, 4L)));
+        assertThat(ladderRecompute.progress().status()).isEqualTo(LadderRecompute.Status.DONE);
+    }
+
+    @Test
+    void match_dated_before_its_players_were_created_brings_them_on_with_it() {
+        when(matchRepository.count()).thenReturn(1L);
+        when(playerRepository.findAllRankKeys()).thenReturn(List.of(new RankKey(1L, 1L), new RankKey(2L, 2L),
+                new RankKey(3L, 3L)));
+        when(playerRepository.findAllInJoinOrder()).thenReturn(List.of(new PlayerJoin(1L, at(10)),
+                new PlayerJoin(2L, at(10)), new PlayerJoin(3L, at(10))));
+        // a game imported with its PGN date, from before the players were added
+        when(matchRepository.streamResultsInPlayOrder()).thenReturn(Stream.of(
+                new PlayedMatch(1L, 3L, MatchOutcome.PLAYER_ONE_WON, at(0))));
+
+        LadderRecompute.Result result = ladderRecompute.recompute();
+
+        assertThat(result.skipped()).isZero();
+        Map<Long, Long> rankKeys = new LinkedHashMap<>();
+        rankKeys.put(1L, RankingService.RANK_KEY_GAP);
+        rankKeys.put(3L, 2 * RankingService.RANK_KEY_GAP);
+        rankKeys.put(2L, 3 * RankingService.RANK_KEY_GAP);
+        verify(playerRepository).updateRankKeys(rankKeys);
+    }
+
+    @Test
+    void tallies_split_across_slices_match_a_sequential_pass() {
+        MatchOutcome[] outcomes = MatchOutcome.values();
+        long[] playerIds = LongStream.range(0, 5000).map(i -> i % 7 == 0 ? -1 : i % 4).toArray();
+        ResultTally[] results = IntStream.range(0, playerIds.length)
+                .mapToObj(i -> ResultTally.of(outcomes[(i * 31 / 11) % outcomes.length], i % 2 == 0, i % 5 == 0))
+                .toArray(ResultTally[]::new);
+
+        Map<Long, ResultTally> tallies = ForkJoinPool.commonPool()
+                .invoke(new LadderRecompute.Tally(playerIds, results, 0, playerIds.length));
+
+        Map<Long, ResultTally> expected = new LinkedHashMap<>();
+        for (int i = 0; i < playerIds.length; i++) {
+            if (playerIds[i] >= 0) {
+                expected.merge(playerIds[i], results[i], ResultTally::then);
+            }
+        }
+        assertThat(tallies).isEqualTo(expected);
+    }
+
+    @Test
+    void submit_rejects_a_second_recompute_while_one_is_running() {
+        when(ladderWriter.submit(eq("recomputeLadder"), any())).thenReturn(new CompletableFuture<>());
+
+        ladderRecompute.submit();
+
+        assertThrows(IllegalStateException.class, () -> ladderRecompute.submit());
+        assertThat(ladderRecompute.progress().status()).isEqualTo(LadderRecompute.Status.RUNNING);
+    }
+}
@@ -0,0 +1,111 @@
+package com.netstock.chessadmin.ranking;
+
+import com.netstock.chessadmin.entity.RankingEvent;
+import com.netstock.chessadmin.repository.PlayerRepository;
+import com.netstock.chessadmin.repository.RankingEventRepository;
+import com.netstock.chessadmin.service.RankingService;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.function.Consumer;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doAnswer;
+
+@ExtendWith(MockitoExtension.class)
+class LadderReplayTest {
+    private static final Instant NOW = Instant.parse("2025-01-01T10:00:00Z");
+
+    @Mock
+    RankingEventRepository rankingEventRepository;
+
+    @Mock
+    PlayerRepository playerRepository;
+
+    @Mock
+    RankingService rankingService;
+
+    @Mock
+    LadderWriter ladderWriter;
+
+    @Mock
+    ApplicationEventPublisher eventPublisher;
+
+    @InjectMocks
+    LadderReplay ladderReplay;
+
+    private void givenLog(RankingEvent... events) {
+        doAnswer(invocation -> {
+            Consumer<RankingEvent> consumer = invocation.getArgument(0);
+            List.of(events).forEach(consumer);
+            return null;
+        }).when(rankingEventRepository).forEachInOrder(any());
+    }
+
+    private static RankingEvent match(long playerOneId, int oneBefore, int oneAfter,
+                                      long playerTwoId, int twoBefore, int twoAfter) {
+        return RankingEvent.match(null, new LadderChange(List.of(
+                new LadderChange.Move(playerOneId, oneBefore, oneAfter),
+                new LadderChange.Move(playerTwoId, twoBefore, twoAfter)), 0, 0), NOW);
+    }
+
+    @Test
+    void replays_joins_results_and_departures_in_log_order() {
+        givenLog(
+                RankingEvent.playerAdded(1L, 1, NOW),
+                RankingEvent.playerAdded(2L, 2, NOW),
+                RankingEvent.playerAdded(3L, 3, NOW),
+                RankingEvent.playerAdded(4L, 4, NOW),
+                RankingEvent.playerAdded(5L, 5, NOW),
+                // 5 beats 1: 1 drops to 2, 5 jumps half the distance to 3
+                match(5L, 5, 3, 1L, 1, 2),
+                // draw: 4 moves up one past 5
+                match(2L, 1, 1, 4L, 5, 4),
+                RankingEvent.playerRemoved(1L, 2, NOW));
+
+        LadderReplay.Result result = ladderReplay.replay();
+
+        assertThat(result.ladder()).containsExactly(2L, 5L, 4L, 3L);
+        assertThat(result.events()).isEqualTo(8);
+        assertThat(result.divergences()).isZero();
+    }
+
+    @Test
+    void counts_events_whose_recorded_ranks_do_not_match_the_replay() {
+        givenLog(
+                RankingEvent.playerAdded(1L, 1, NOW),
+                RankingEvent.playerAdded(2L, 2, NOW),
+                RankingEvent.playerAdded(3L, 3, NOW),
+                // recorded as if 3 was on rank 2
+                match(3L, 2, 1, 1L, 1, 2),
+                // player 9 never joined
+                match(9L, 4, 4, 2L, 3, 3));
+
+        LadderReplay.Result result = ladderReplay.replay();
+
+        assertThat(result.divergences()).isEqualTo(2);
+        assertThat(result.ladder()).containsExactly(3L, 1L, 2L);
+    }
+
+    @Test
+    void a_ladder_reset_starts_over_from_the_players_added_after_it() {
+        givenLog(
+                RankingEvent.playerAdded(1L, 1, NOW),
+                RankingEvent.playerAdded(2L, 2, NOW),
+                RankingEvent.ladderReset(NOW),
+                RankingEvent.playerAdded(2L, 1, NOW),
+                RankingEvent.playerAdded(1L, 2, NOW));
+
+        LadderReplay.Result result = ladderReplay.replay();
+
+        assertThat(result.ladder()).containsExactly(2L, 1L);
+        assertThat(result.divergences()).isZero();
+    }
+}
@@ -0,0 +1,130 @@
+package com.netstock.chessadmin.ranking;
+
+import com.netstock.chessadmin.service.RankingService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+class LadderWriterTest {
+
+    private final RankingService rankingService = mock(RankingService.class);
+    private LadderWriter writer;
+
+    private LadderWriter start(int capacity) {
+        writer = new LadderWriter(mock(PlatformTransactionManager.class),
+                new OptimisticRetry(new SimpleMeterRegistry(), 3, Duration.ZERO), rankingService, capacity);
+        writer.start();
+        return writer;
+    }
+
+    @AfterEach
+    void stop() {
+        writer.stop();
+    }
+
+    @Test
+    void runs_submissions_one_at_a_time_in_order_on_one_thread() {
+        LadderWriter writer = start(1024);
+        List<Integer> applied = Collections.synchronizedList(new ArrayList<>());
+        List<Thread> threads = Collections.synchronizedList(new ArrayList<>());
+
+        List<CompletableFuture<Integer>> results = new ArrayList<>();
+        for (int i = 0; i < 200; i++) {
+            int n = i;
+            results.add(writer.submit("test", () -> {
+                applied.add(n);
+                threads.add(Thread.currentThread());
+                return n;
+            }));
+        }
+
+        assertThat(results.get(199).join()).isEqualTo(199);
+        assertThat(applied).isSortedAccordingTo(Integer::compare).hasSize(200);
+        assertThat(threads).allMatch(thread -> thread == threads.get(0));
+    }
+
+    @Test
+    void failure_completes_only_that_future() {
+        LadderWriter writer = start(16);
+
+        CompletableFuture<Object> failed = writer.submit("test", () -> {
+            throw new IllegalArgumentException("playerOne does not exist");
+        });
+        CompletableFuture<String> next = writer.submit("test", () -> "ok");
+
+        CompletionException thrown = assertThrows(CompletionException.class, failed::join);
+        assertThat(thrown).hasCauseInstanceOf(IllegalArgumentException.class);
+        assertThat(next.join()).isEqualTo("ok");
+    }
+
+    @Test
+    void full_buffer_rejects_instead_of_blocking_the_caller() throws InterruptedException {
+        LadderWriter writer = start(1);
+        CountDownLatch running = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        CompletableFuture<Boolean> busy = writer.submit("test", () -> {
+            running.countDown();
+            try {
+                return release.await(5, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                throw new IllegalStateException(e);
+            }
+        });
+        assertThat(running.await(5, TimeUnit.SECONDS)).isTrue();
+
+        CompletableFuture<String> queued = writer.submit("test", () -> "queued");
+        CompletableFuture<String> rejected = writer.submit("test", () -> "rejected");
+
+        CompletionException thrown = assertThrows(CompletionException.class, rejected::join);
+        assertThat(thrown).hasCauseInstanceOf(RejectedExecutionException.class);
+        release.countDown();
+        assertThat(busy.join()).isTrue();
+        assertThat(queued.join()).isEqualTo("queued");
+    }
+
+    @Test
+    void submission_from_the_writer_thread_runs_inline() {
+        LadderWriter writer = start(1);
+
+        String nested = writer.submit("test", () -> writer.submit("test", () -> "inner").join()).join();
+
+        assertThat(nested).isEqualTo("inner");
+    }
+
+    @Test
+    void lost_optimistic_lock_is_retried_in_a_new_transaction() {
+        LadderWriter writer = start(16);
+        AtomicInteger attempts = new AtomicInteger();
+
+        String result = writer.submit("test", () -> {
+            if (attempts.incrementAndGet() < 3) {
+                throw new ObjectOptimisticLockingFailureException(Object.class, 1L);
+            }
+            return "applied";
+        }).join();
+
+        assertThat(result).isEqualTo("applied");
+        assertThat(attempts).hasValue(3);
+        // each retry starts from a freshly loaded ladder
+        verify(rankingService, times(2)).invalidate();
+    }
+}
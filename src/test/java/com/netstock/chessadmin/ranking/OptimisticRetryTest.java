@@ -0,0 +1,77 @@
+package com.netstock.chessadmin.ranking;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class OptimisticRetryTest {
+
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+    private final OptimisticRetry retry = new OptimisticRetry(registry, 3, Duration.ofMillis(1));
+
+    @Test
+    void succeeds_after_conflicts_and_counts_them() {
+        AtomicInteger attempts = new AtomicInteger();
+
+        String result = retry.execute("saveMatch", () -> {
+            if (attempts.incrementAndGet() < 3) {
+                throw new ObjectOptimisticLockingFailureException(Object.class, 1L);
+            }
+            return "saved";
+        });
+
+        assertThat(result).isEqualTo("saved");
+        assertThat(registry.counter("chess.write.conflicts", "operation", "saveMatch").count()).isEqualTo(2);
+        assertThat(registry.counter("chess.write.retries", "operation", "saveMatch").count()).isEqualTo(2);
+        assertThat(registry.timer("chess.write.latency", "operation", "saveMatch", "outcome", "success").count())
+                .isEqualTo(1);
+    }
+
+    @Test
+    void gives_up_after_max_attempts() {
+        AtomicInteger attempts = new AtomicInteger();
+
+        assertThrows(ObjectOptimisticLockingFailureException.class, () -> retry.execute("savePlayer", () -> {
+            attempts.incrementAndGet();
+            throw new ObjectOptimisticLockingFailureException(Object.class, 1L);
+        }));
+
+        assertThat(attempts).hasValue(3);
+        assertThat(registry.counter("chess.write.conflicts", "operation", "savePlayer").count()).isEqualTo(3);
+        assertThat(registry.counter("chess.write.retries", "operation", "savePlayer").count()).isEqualTo(2);
+        assertThat(registry.timer("chess.write.latency", "operation", "savePlayer", "outcome", "conflict").count())
+                .isEqualTo(1);
+    }
+
+    @Test
+    void runs_the_conflict_hook_before_each_retry_only() {
+        AtomicInteger attempts = new AtomicInteger();
+        AtomicInteger dropped = new AtomicInteger();
+
+        assertThrows(ObjectOptimisticLockingFailureException.class, () -> retry.execute("saveMatch", () -> {
+            attempts.incrementAndGet();
+            throw new ObjectOptimisticLockingFailureException(Object.class, 1L);
+        }, dropped::incrementAndGet));
+
+        assertThat(attempts).hasValue(3);
+        assertThat(dropped).hasValue(2);
+    }
+
+    @Test
+    void other_failures_are_not_retried() {
+        AtomicInteger attempts = new AtomicInteger();
+
+        assertThrows(IllegalArgumentException.class, () -> retry.execute("saveMatch", () -> {
+            attempts.incrementAndGet();
+            throw new IllegalArgumentException("playerOne does not exist");
+        }));
+
+        assertThat(attempts).hasValue(1);
+    }
+}
@@ -0,0 +1,89 @@
+package com.netstock.chessadmin.ranking;
+
+import com.netstock.chessadmin.enums.MatchOutcome;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class RankIndexTest {
+
+    @Test
+    void append_and_lookups_are_consistent() {
+        RankIndex index = new RankIndex();
+        for (long id = 100; id < 110; id++) {
+            index.append(id);
+        }
+
+        assertThat(index.size()).isEqualTo(10);
+        assertThat(index.rankOf(100L)).isEqualTo(1);
+        assertThat(index.rankOf(109L)).isEqualTo(10);
+        assertThat(index.playerAt(4)).isEqualTo(103L);
+        assertThat(index.playersBetween(3, 5)).containsExactly(102L, 103L, 104L);
+        assertThat(index.playersBetween(9, 20)).containsExactly(108L, 109L);
+    }
+
+    @Test
+    void move_shifts_the_players_in_between() {
+        RankIndex index = new RankIndex();
+        for (long id = 1; id <= 5; id++) {
+            index.append(id);
+        }
+
+        index.move(5L, 2);
+
+        assertThat(index.playersBetween(1, 5)).containsExactly(1L, 5L, 2L, 3L, 4L);
+        assertThat(index.rankOf(4L)).isEqualTo(5);
+    }
+
+    @Test
+    void unknown_player_is_rejected() {
+        RankIndex index = new RankIndex();
+        index.append(1L);
+
+        assertThrows(IllegalArgumentException.class, () -> index.rankOf(2L));
+        assertThrows(IllegalArgumentException.class, () -> index.append(1L));
+        assertThrows(IndexOutOfBoundsException.class, () -> index.playerAt(2));
+    }
+
+    @Test
+    void random_moves_match_a_plain_list() {
+        Random random = new Random(42);
+        RankIndex index = new RankIndex();
+        List<Long> expected = new ArrayList<>();
+        for (long id = 1; id <= 500; id++) {
+            index.append(id);
+            expected.add(id);
+        }
+        for (int i = 0; i < 2_000; i++) {
+            long id = expected.get(random.nextInt(expected.size()));
+            int newRank = 1 + random.nextInt(expected.size());
+            index.move(id, newRank);
+            expected.remove(id);
+            expected.add(newRank - 1, id);
+        }
+
+        assertThat(index.playersBetween(1, index.size())).isEqualTo(expected);
+        for (int rank = 1; rank <= expected.size(); rank += 37) {
+            assertThat(index.rankOf(expected.get(rank - 1))).isEqualTo(rank);
+        }
+    }
+
+    @Test
+    void rules_upset_moves_winner_half_way_and_loser_down_one() {
+        RankIndex index = new RankIndex();
+        for (long id = 1; id <= 16; id++) {
+            index.append(id);
+        }
+
+        RankingRules.apply(index, RankingRules.placements(14L, 14, 4L, 4, MatchOutcome.PLAYER_ONE_WON));
+
+        assertThat(index.rankOf(4L)).isEqualTo(5);
+        assertThat(index.rankOf(14L)).isEqualTo(9);
+        assertThat(index.playersBetween(4, 10)).containsExactly(5L, 4L, 6L, 7L, 8L, 14L, 9L);
+    }
+}
@@ -0,0 +1,75 @@
+package com.netstock.chessadmin.ranking;
+
+import com.netstock.chessadmin.enums.MatchOutcome;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ResultTallyTest {
+    private static final ResultTally WIN = ResultTally.of(MatchOutcome.PLAYER_ONE_WON, true, false);
+    private static final ResultTally UPSET_WIN = ResultTally.of(MatchOutcome.PLAYER_TWO_WON, false, true);
+    private static final ResultTally LOSS = ResultTally.of(MatchOutcome.PLAYER_ONE_WON, false, false);
+    private static final ResultTally DRAW = ResultTally.of(MatchOutcome.DRAW, true, false);
+    private static final ResultTally NO_RESULT = ResultTally.of(null, true, false);
+
+    @Test
+    void a_run_of_wins_carries_on_a_winning_streak_and_replaces_a_losing_one() {
+        ResultTally twoWins = WIN.then(UPSET_WIN);
+
+        assertThat(twoWins.wins()).isEqualTo(2);
+        assertThat(twoWins.upsetsScored()).isEqualTo(1);
+        assertThat(twoWins.streakAfter(3)).isEqualTo(5);
+        assertThat(twoWins.streakAfter(-4)).isEqualTo(2);
+        assertThat(twoWins.streakAfter(0)).isEqualTo(2);
+    }
+
+    @Test
+    void a_draw_or_a_change_of_direction_starts_the_streak_over() {
+        assertThat(DRAW.streakAfter(4)).isZero();
+        assertThat(WIN.then(LOSS).streakAfter(4)).isEqualTo(-1);
+        assertThat(LOSS.then(DRAW).then(WIN).then(WIN).streakAfter(-6)).isEqualTo(2);
+    }
+
+    @Test
+    void a_match_without_an_outcome_counts_as_a_game_only() {
+        assertThat(NO_RESULT.games()).isEqualTo(1);
+        assertThat(WIN.then(NO_RESULT).streakAfter(1)).isEqualTo(2);
+        assertThat(NO_RESULT.streakAfter(-2)).isEqualTo(-2);
+    }
+
+    @Test
+    void then_is_associative_so_runs_can_be_tallied_apart() {
+        ResultTally[] results = {WIN, LOSS, LOSS, DRAW, WIN, NO_RESULT, WIN, UPSET_WIN, LOSS};
+        for (int split = 0; split <= results.length; split++) {
+            ResultTally left = ResultTally.NONE;
+            ResultTally right = ResultTally.NONE;
+            ResultTally whole = ResultTally.NONE;
+            for (int i = 0; i < results.length; i++) {
+                whole = whole.then(results[i]);
+                if (i < split) {
+                    left = left.then(results[i]);
+                } else {
+                    right = right.then(results[i]);
+                }
+            }
+            assertThat(left.then(right)).isEqualTo(whole);
+        }
+    }
+
+    @Test
+    void upsets_are_wins_by_the_lower_ranked_player() {
+        assertThat(ResultTally.isUpset(MatchOutcome.PLAYER_ONE_WON, 8, 3)).isTrue();
+        assertThat(ResultTally.isUpset(MatchOutcome.PLAYER_TWO_WON, 8, 3)).isFalse();
+        assertThat(ResultTally.isUpset(MatchOutcome.DRAW, 8, 3)).isFalse();
+    }
+
+    @Test
+    void undone_takes_the_counters_back_and_sets_the_given_streak() {
+        ResultTally undone = UPSET_WIN.undone(-2);
+
+        assertThat(undone.games()).isEqualTo(-1);
+        assertThat(undone.wins()).isEqualTo(-1);
+        assertThat(undone.upsetsScored()).isEqualTo(-1);
+        assertThat(undone.streakAfter(7)).isEqualTo(-2);
+    }
+}
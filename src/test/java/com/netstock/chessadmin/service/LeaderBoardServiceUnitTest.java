@@ -0,0 +1,142 @@
+package com.netstock.chessadmin.service;
+
+import com.netstock.chessadmin.dto.LeaderBoardSnapshot;
+import com.netstock.chessadmin.entity.Player;
+import com.netstock.chessadmin.ranking.LadderChangedEvent;
+import com.netstock.chessadmin.ranking.LadderMetrics;
+import com.netstock.chessadmin.repository.PlayerRepository;
+import com.netstock.chessadmin.service.impl.LeaderBoardServiceImpl;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Spy;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class LeaderBoardServiceUnitTest {
+
+    @Mock
+    PlayerRepository playerRepository;
+
+    @Mock
+    RankingService rankingService;
+
+    @Spy
+    LadderMetrics ladderMetrics = new LadderMetrics(new SimpleMeterRegistry());
+
+    @InjectMocks
+    LeaderBoardServiceImpl leaderBoardService;
+
+    private static Player player(long id, String firstName) {
+        Player player = new Player();
+        player.setId(id);
+        player.setFirstName(firstName);
+        return player;
+    }
+
+    @Test
+    void snapshot_is_loaded_once_and_shared_until_the_ladder_changes() {
+        when(playerRepository.findAllOrderByRankAsc()).thenReturn(List.of(player(7L, "A"), player(3L, "B")));
+
+        LeaderBoardSnapshot first = leaderBoardService.snapshot();
+        LeaderBoardSnapshot second = leaderBoardService.snapshot();
+
+        assertThat(second).isSameAs(first);
+        assertThat(first.entries()).extracting(LeaderBoardSnapshot.Entry::rank).containsExactly(1, 2);
+        assertThat(first.entries()).extracting(LeaderBoardSnapshot.Entry::playerId).containsExactly(7L, 3L);
+        verify(playerRepository, times(1)).findAllOrderByRankAsc();
+    }
+
+    @Test
+    void committed_change_rebuilds_with_a_higher_version() {
+        when(playerRepository.findAllOrderByRankAsc())
+                .thenReturn(List.of(player(7L, "A"), player(3L, "B")))
+                .thenReturn(List.of(player(3L, "B"), player(7L, "A")));
+        LeaderBoardSnapshot before = leaderBoardService.snapshot();
+
+        leaderBoardService.onLadderChanged(new LadderChangedEvent(Set.of(3L, 7L)));
+        LeaderBoardSnapshot after = leaderBoardService.snapshot();
+
+        assertThat(after.version()).isGreaterThan(before.version());
+        assertThat(after.entries()).extracting(LeaderBoardSnapshot.Entry::playerId).containsExactly(3L, 7L);
+        // the old snapshot is immutable and still valid for whoever holds it
+        assertThat(before.entries()).extracting(LeaderBoardSnapshot.Entry::playerId).containsExactly(7L, 3L);
+    }
+
+    @Test
+    void change_within_a_window_is_patched_and_pushed_as_the_rows_it_touched() {
+        when(playerRepository.findAllOrderByRankAsc()).thenReturn(List.of(player(7L, "A"), player(3L, "B"), player(5L, "C")));
+        LeaderBoardSnapshot before = leaderBoardService.snapshot();
+        List<LeaderBoardSnapshot.Diff> diffs = new ArrayList<>();
+        leaderBoardService.addDiffListener(diffs::add);
+        // the player on 3 beat the player on 2 and they swapped
+        when(rankingService.ladderSize()).thenReturn(3);
+        when(rankingService.playersBetween(2, 3)).thenReturn(List.of(5L, 3L));
+        when(rankingService.findRank(3L)).thenReturn(3);
+        when(rankingService.findRank(5L)).thenReturn(2);
+        when(playerRepository.findAllById(any())).thenReturn(List.of(player(3L, "B"), player(5L, "C")));
+
+        leaderBoardService.onLadderChanged(new LadderChangedEvent(Set.of(3L, 5L), 2, 3));
+        LeaderBoardSnapshot after = leaderBoardService.snapshot();
+
+        assertThat(after.version()).isGreaterThan(before.version());
+        assertThat(after.entries()).extracting(LeaderBoardSnapshot.Entry::playerId).containsExactly(7L, 5L, 3L);
+        assertThat(after.entries().get(0)).isSameAs(before.entries().get(0));
+        assertThat(diffs).singleElement().satisfies(diff -> {
+            assertThat(diff.full()).isFalse();
+            assertThat(diff.version()).isEqualTo(after.version());
+            assertThat(diff.changed()).extracting(LeaderBoardSnapshot.Entry::rank).containsExactly(2, 3);
+            assertThat(diff.changed()).extracting(LeaderBoardSnapshot.Entry::playerId).containsExactly(5L, 3L);
+        });
+        verify(playerRepository, times(1)).findAllOrderByRankAsc();
+    }
+
+    @Test
+    void getEntries_pages_the_snapshot_in_either_rank_direction_and_by_name() {
+        when(playerRepository.findAllOrderByRankAsc())
+                .thenReturn(List.of(player(1L, "d"), player(2L, "b"), player(3L, "a"), player(4L, "c"), player(5L, "e")));
+
+        assertThat(leaderBoardService.getEntries(PageRequest.of(1, 2)))
+                .extracting(LeaderBoardSnapshot.Entry::playerId).containsExactly(3L, 4L);
+        assertThat(leaderBoardService.getEntries(PageRequest.of(0, 2, Sort.by(Sort.Order.desc("rank")))))
+                .extracting(LeaderBoardSnapshot.Entry::rank).containsExactly(5, 4);
+        assertThat(leaderBoardService.getEntries(PageRequest.of(2, 2, Sort.by(Sort.Order.desc("rank")))))
+                .extracting(LeaderBoardSnapshot.Entry::rank).containsExactly(1);
+        assertThat(leaderBoardService.getEntries(PageRequest.of(0, 3, Sort.by("firstName"))))
+                .extracting(LeaderBoardSnapshot.Entry::firstName).containsExactly("a", "b", "c");
+        verify(playerRepository, times(1)).findAllOrderByRankAsc();
+    }
+
+    @Test
+    void sorted_order_is_made_once_per_snapshot_and_made_again_after_a_change() {
+        when(playerRepository.findAllOrderByRankAsc())
+                .thenReturn(List.of(player(1L, "c"), player(2L, "a"), player(3L, "b")))
+                .thenReturn(List.of(player(1L, "c"), player(2L, "z"), player(3L, "b")));
+        PageRequest firstPage = PageRequest.of(0, 2, Sort.by("firstName"));
+
+        List<LeaderBoardSnapshot.Entry> first = leaderBoardService.getEntries(firstPage);
+        assertThat(leaderBoardService.getEntries(PageRequest.of(1, 2, Sort.by("firstName"))))
+                .extracting(LeaderBoardSnapshot.Entry::firstName).containsExactly("c");
+        assertThat(leaderBoardService.getEntries(firstPage).get(0)).isSameAs(first.get(0));
+        verify(ladderMetrics, times(1)).timeLeaderBoardRead(eq("sortSnapshot"), any());
+
+        leaderBoardService.onLadderChanged(new LadderChangedEvent(Set.of(2L)));
+
+        assertThat(leaderBoardService.getEntries(firstPage))
+                .extracting(LeaderBoardSnapshot.Entry::firstName).containsExactly("b", "c");
+        verify(ladderMetrics, times(2)).timeLeaderBoardRead(eq("sortSnapshot"), any());
+    }
+}
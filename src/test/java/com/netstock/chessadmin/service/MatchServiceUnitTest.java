@@ -1,24 +1,54 @@
 package com.netstock.chessadmin.service;
 
+import com.netstock.chessadmin.dto.HeadToHeadDTO;
+import com.netstock.chessadmin.dto.MatchCursor;
 import com.netstock.chessadmin.dto.MatchDTO;
+import com.netstock.chessadmin.dto.MatchImportResult;
 import com.netstock.chessadmin.dto.PlayerDTO;
+import com.netstock.chessadmin.dto.PlayerName;
+import com.netstock.chessadmin.entity.HeadToHead;
 import com.netstock.chessadmin.entity.Match;
 import com.netstock.chessadmin.entity.Player;
+import com.netstock.chessadmin.entity.RankingEvent;
 import com.netstock.chessadmin.enums.MatchOutcome;
+import com.netstock.chessadmin.enums.RankingEventType;
+import com.netstock.chessadmin.mapper.MatchMapper;
+import com.netstock.chessadmin.mapper.PlayerMapper;
+import com.netstock.chessadmin.ranking.HeadToHeadTally;
+import com.netstock.chessadmin.ranking.LadderChange;
+import com.netstock.chessadmin.ranking.LadderChangedEvent;
+import com.netstock.chessadmin.ranking.LadderMetrics;
+import com.netstock.chessadmin.ranking.LadderWriter;
+import com.netstock.chessadmin.ranking.MatchResult;
+import com.netstock.chessadmin.ranking.ResultTally;
+import com.netstock.chessadmin.repository.HeadToHeadRepository;
 import com.netstock.chessadmin.repository.MatchRepository;
 import com.netstock.chessadmin.repository.PlayerRepository;
+import com.netstock.chessadmin.repository.RankingEventRepository;
 import com.netstock.chessadmin.service.impl.MatchServiceImpl;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
-import org.modelmapper.ModelMapper;
+import org.springframework.context.ApplicationEventPublisher;
 
+import java.io.StringReader;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneId;
 import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Supplier;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
 import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.*;
 import static org.junit.jupiter.api.Assertions.assertThrows;
@@ -29,12 +59,33 @@ class MatchServiceUnitTest {
     @Mock
     PlayerRepository playerRepository;
 
-    @Mock
-    ModelMapper modelMapper;
+    @Spy
+    PlayerMapper playerMapper = new PlayerMapper();
+
+    @Spy
+    MatchMapper matchMapper = new MatchMapper();
 
     @Mock
     MatchRepository matchRepository;
 
+    @Mock
+    RankingEventRepository rankingEventRepository;
+
+    @Mock
+    HeadToHeadRepository headToHeadRepository;
+
+    @Mock
+    RankingService rankingService;
+
+    @Mock
+    LadderWriter ladderWriter;
+
+    @Mock
+    ApplicationEventPublisher eventPublisher;
+
+    @Spy
+    LadderMetrics ladderMetrics = new LadderMetrics(new SimpleMeterRegistry());
+
     @InjectMocks
     MatchServiceImpl matchService;
 
@@ -45,19 +96,18 @@ class MatchServiceUnitTest {
         p.setFirstName("John");
         p.setLastName("Doe");
 
-        PlayerDTO dto = PlayerDTO.builder().id(1L).firstName("John").lastName("Doe").build();
-
         when(playerRepository.findAll()).thenReturn(List.of(p));
-        when(modelMapper.map(p, PlayerDTO.class)).thenReturn(dto);
+        when(rankingService.rankOf(1L)).thenReturn(4);
 
         var result = matchService.getMatchPlayers();
 
         assertThat(result).hasSize(1);
         assertThat(result.get(0).getId()).isEqualTo(1L);
         assertThat(result.get(0).getFirstName()).isEqualTo("John");
+        assertThat(result.get(0).getRank()).isEqualTo(4);
 
         verify(playerRepository).findAll();
-        verify(modelMapper).map(p, PlayerDTO.class);
+        verify(playerMapper).toDto(p);
     }
 
     @Test
@@ -72,172 +122,271 @@ class MatchServiceUnitTest {
         when(playerRepository.existsById(1L)).thenReturn(true);
         when(playerRepository.existsById(2L)).thenReturn(true);
 
-        // mapping from DTO to entity and repository save
+        // repository save
         Match matchEntity = new Match();
         matchEntity.setId(10L);
-        when(modelMapper.map(any(MatchDTO.class), eq(Match.class))).thenReturn(new Match());
         when(matchRepository.save(any(Match.class))).thenReturn(matchEntity);
 
-        // mapping saved entity back to DTO (generic stub for any Match)
-        MatchDTO returnedDto = MatchDTO.builder().id(10L).build();
-        when(modelMapper.map(any(Match.class), eq(MatchDTO.class))).thenReturn(returnedDto);
-
-        // mapping PlayerDTO -> Player for updatePlayersAfterMatch
-        Player pHigher = new Player(); pHigher.setId(1L); pHigher.setNumberOfGamesPlayed(0);
-        Player pLower = new Player(); pLower.setId(2L); pLower.setNumberOfGamesPlayed(0);
-        when(modelMapper.map(higher, Player.class)).thenReturn(pHigher);
-        when(modelMapper.map(lower, Player.class)).thenReturn(pLower);
+        when(rankingService.recordResult(1L, 2L, MatchOutcome.PLAYER_ONE_WON)).thenReturn(LadderChange.none(List.of(
+                new LadderChange.Move(1L, 3, 3), new LadderChange.Move(2L, 8, 8))));
 
         MatchDTO saved = matchService.saveMatch(m);
 
         assertThat(saved).isNotNull();
         assertThat(saved.getId()).isEqualTo(10L);
-
-        // higher-ranked win -> repository rank adjustment methods should NOT be called
-        verify(playerRepository, never()).incrementRanksFrom(anyInt(), anyInt());
-        verify(playerRepository, never()).decrementRankByOne(anyInt());
-        verify(playerRepository, never()).incrementRankByOne(anyInt());
-
-        // players should have their games played incremented and saved
-        verify(playerRepository, times(2)).save(any(Player.class));
+        assertThat(higher.getRank()).isEqualTo(3);
+        assertThat(lower.getRank()).isEqualTo(8);
+
+        // players should have their games played and results added in one statement
+        verify(playerRepository).addResults(Map.of(
+                1L, ResultTally.of(MatchOutcome.PLAYER_ONE_WON, true, false),
+                2L, ResultTally.of(MatchOutcome.PLAYER_ONE_WON, false, false)));
+        assertThat(higher.getWins()).isEqualTo(1);
+        assertThat(higher.getStreak()).isEqualTo(1);
+        assertThat(lower.getLosses()).isEqualTo(1);
+        assertThat(lower.getUpsetsSuffered()).isZero();
+        verify(rankingEventRepository).save(argThat(event -> event.getMatchId() == 10L
+                && event.getPlayerOneRankBefore() == 3 && event.getPlayerTwoRankAfter() == 8));
+        verify(headToHeadRepository).addResults(Map.of(HeadToHead.Key.of(1L, 2L),
+                HeadToHeadTally.of(1L, 2L, MatchOutcome.PLAYER_ONE_WON, null)));
+        verify(eventPublisher).publishEvent(new LadderChangedEvent(Set.of(1L, 2L)));
+        verify(playerRepository, never()).save(any(Player.class));
 
         // ensure existence checks were performed
         verify(playerRepository).existsById(1L);
         verify(playerRepository).existsById(2L);
     }
 
-    // New edge-case tests
     @Test
-    void draw_adjacent_no_rank_change() {
-        PlayerDTO higher = PlayerDTO.builder().id(1L).rank(10).firstName("A").lastName("One").build();
-        PlayerDTO lower = PlayerDTO.builder().id(2L).rank(11).firstName("B").lastName("Two").build();
-        MatchDTO m = MatchDTO.builder().playerOne(higher).playerTwo(lower).outcome(MatchOutcome.DRAW).build();
+    void saveMatch_takes_new_ranks_from_the_ranking_service_not_the_submitted_dto() {
+        // the form was loaded when the players were ranked 10 and 16, the ladder has moved on since
+        PlayerDTO higher = PlayerDTO.builder().id(1L).rank(10).firstName("H").lastName("One").build();
+        PlayerDTO lower = PlayerDTO.builder().id(2L).rank(16).firstName("L").lastName("Two").build();
+        MatchDTO m = MatchDTO.builder().playerOne(higher).playerTwo(lower).outcome(MatchOutcome.PLAYER_TWO_WON).build();
 
         when(playerRepository.existsById(1L)).thenReturn(true);
         when(playerRepository.existsById(2L)).thenReturn(true);
 
-        Match savedEntity = new Match(); savedEntity.setId(21L);
-        when(modelMapper.map(any(MatchDTO.class), eq(Match.class))).thenReturn(new Match());
+        Match savedEntity = new Match(); savedEntity.setId(30L);
         when(matchRepository.save(any(Match.class))).thenReturn(savedEntity);
-        when(modelMapper.map(any(Match.class), eq(MatchDTO.class))).thenReturn(MatchDTO.builder().id(21L).build());
 
-        Player p1 = new Player(); p1.setId(1L); p1.setNumberOfGamesPlayed(0);
-        Player p2 = new Player(); p2.setId(2L); p2.setNumberOfGamesPlayed(0);
-        when(modelMapper.map(higher, Player.class)).thenReturn(p1);
-        when(modelMapper.map(lower, Player.class)).thenReturn(p2);
+        when(rankingService.recordResult(1L, 2L, MatchOutcome.PLAYER_TWO_WON)).thenReturn(new LadderChange(List.of(
+                new LadderChange.Move(1L, 12, 13), new LadderChange.Move(2L, 20, 16)), 12, 20));
 
         MatchDTO res = matchService.saveMatch(m);
 
         assertThat(res).isNotNull();
-        // adjacent draw -> no rank increment call
-        verify(playerRepository, never()).incrementRankByOne(anyInt());
-        verify(playerRepository, times(2)).save(any(Player.class));
+        assertThat(higher.getRank()).isEqualTo(13);
+        assertThat(lower.getRank()).isEqualTo(16);
+        verify(playerRepository, never()).updateRankKey(anyLong(), anyLong());
+        // 20 beat 12, an upset decided on the ranks the match was played at
+        verify(playerRepository).addResults(Map.of(
+                1L, ResultTally.of(MatchOutcome.PLAYER_TWO_WON, true, true),
+                2L, ResultTally.of(MatchOutcome.PLAYER_TWO_WON, false, true)));
+        assertThat(lower.getUpsetsScored()).isEqualTo(1);
+        assertThat(higher.getUpsetsSuffered()).isEqualTo(1);
     }
 
     @Test
-    void draw_non_adjacent_lower_moves_up_one() {
-        PlayerDTO higher = PlayerDTO.builder().id(1L).rank(10).firstName("A").lastName("One").build();
-        PlayerDTO lower = PlayerDTO.builder().id(2L).rank(15).firstName("B").lastName("Two").build();
-        MatchDTO m = MatchDTO.builder().playerOne(higher).playerTwo(lower).outcome(MatchOutcome.DRAW).build();
-
-        when(playerRepository.existsById(1L)).thenReturn(true);
-        when(playerRepository.existsById(2L)).thenReturn(true);
-
-        Match savedEntity = new Match(); savedEntity.setId(22L);
-        when(modelMapper.map(any(MatchDTO.class), eq(Match.class))).thenReturn(new Match());
-        when(matchRepository.save(any(Match.class))).thenReturn(savedEntity);
-        when(modelMapper.map(any(Match.class), eq(MatchDTO.class))).thenReturn(MatchDTO.builder().id(22L).build());
-
-        Player p1 = new Player(); p1.setId(1L); p1.setNumberOfGamesPlayed(0);
-        Player p2 = new Player(); p2.setId(2L); p2.setNumberOfGamesPlayed(0);
-        when(modelMapper.map(higher, Player.class)).thenReturn(p1);
-        when(modelMapper.map(lower, Player.class)).thenReturn(p2);
+    void saveMatch_nonExistentPlayer_throwsIllegalArgumentException() {
+        PlayerDTO p1 = PlayerDTO.builder().id(99L).rank(1).build();
+        PlayerDTO p2 = PlayerDTO.builder().id(2L).rank(2).build();
+        MatchDTO m = MatchDTO.builder().playerOne(p1).playerTwo(p2).outcome(MatchOutcome.PLAYER_ONE_WON).build();
 
-        MatchDTO res = matchService.saveMatch(m);
+        when(playerRepository.existsById(99L)).thenReturn(false);
 
-        assertThat(res).isNotNull();
-        // lower ranked (15) should move up by one -> newRank = 14
-        verify(playerRepository).incrementRankByOne(14);
-        verify(playerRepository, times(2)).save(any(Player.class));
+        assertThrows(IllegalArgumentException.class, () -> matchService.saveMatch(m));
+        verify(matchRepository, never()).save(any(Match.class));
     }
 
     @Test
-    void upset_non_equal_case_adjusts_ranks_correctly() {
-        // higher = 10, lower = 16, lower (playerTwo) wins
-        PlayerDTO higher = PlayerDTO.builder().id(1L).rank(10).firstName("H").lastName("One").build();
-        PlayerDTO lower = PlayerDTO.builder().id(2L).rank(16).firstName("L").lastName("Two").build();
-        MatchDTO m = MatchDTO.builder().playerOne(higher).playerTwo(lower).outcome(MatchOutcome.PLAYER_TWO_WON).build();
-
-        when(playerRepository.existsById(1L)).thenReturn(true);
-        when(playerRepository.existsById(2L)).thenReturn(true);
-
-        Match savedEntity = new Match(); savedEntity.setId(30L);
-        when(modelMapper.map(any(MatchDTO.class), eq(Match.class))).thenReturn(new Match());
-        when(matchRepository.save(any(Match.class))).thenReturn(savedEntity);
-        when(modelMapper.map(any(Match.class), eq(MatchDTO.class))).thenReturn(MatchDTO.builder().id(30L).build());
-
-        Player pHigher = new Player(); pHigher.setId(1L); pHigher.setNumberOfGamesPlayed(0);
-        Player pLower = new Player(); pLower.setId(2L); pLower.setNumberOfGamesPlayed(0);
-        when(modelMapper.map(higher, Player.class)).thenReturn(pHigher);
-        when(modelMapper.map(lower, Player.class)).thenReturn(pLower);
+    void saveMatch_nullPlayerId_throwsIllegalArgumentException() {
+        PlayerDTO p1 = PlayerDTO.builder().id(null).rank(1).build();
+        PlayerDTO p2 = PlayerDTO.builder().id(2L).rank(2).build();
+        MatchDTO m = MatchDTO.builder().playerOne(p1).playerTwo(p2).outcome(MatchOutcome.PLAYER_ONE_WON).build();
 
-        MatchDTO res = matchService.saveMatch(m);
+        assertThrows(IllegalArgumentException.class, () -> matchService.saveMatch(m));
+        verify(matchRepository, never()).save(any(Match.class));
+    }
 
-        assertThat(res).isNotNull();
-        // expected lower new rank = 13, so incrementRanksFrom(13,16) and decrementRankByOne(11)
-        verify(playerRepository).incrementRanksFrom(13, 16);
-        verify(playerRepository).decrementRankByOne(11);
-        verify(playerRepository, times(2)).save(any(Player.class));
+    @Test
+    void saveMatches_applies_the_sheet_in_order_and_writes_games_played_once_per_player() {
+        PlayerDTO a = PlayerDTO.builder().id(1L).firstName("A").lastName("One").build();
+        PlayerDTO b = PlayerDTO.builder().id(2L).firstName("B").lastName("Two").build();
+        PlayerDTO c = PlayerDTO.builder().id(3L).firstName("C").lastName("Three").build();
+        MatchDTO first = MatchDTO.builder().playerOne(a).playerTwo(b).outcome(MatchOutcome.PLAYER_TWO_WON).build();
+        MatchDTO second = MatchDTO.builder().playerOne(b).playerTwo(c).outcome(MatchOutcome.DRAW).build();
+
+        when(playerRepository.findExistingIds(Set.of(1L, 2L, 3L))).thenReturn(Set.of(1L, 2L, 3L));
+        when(matchRepository.saveAll(anyList())).thenAnswer(invocation -> invocation.getArgument(0));
+        when(rankingService.recordResults(List.of(
+                new MatchResult(1L, 2L, MatchOutcome.PLAYER_TWO_WON),
+                new MatchResult(2L, 3L, MatchOutcome.DRAW)))).thenReturn(List.of(
+                new LadderChange(List.of(new LadderChange.Move(1L, 1, 2), new LadderChange.Move(2L, 2, 1)), 1, 2),
+                LadderChange.none(List.of(new LadderChange.Move(2L, 1, 1), new LadderChange.Move(3L, 3, 3)))));
+
+        List<MatchDTO> saved = matchService.saveMatches(List.of(first, second));
+
+        assertThat(saved).hasSize(2);
+        assertThat(a.getRank()).isEqualTo(2);
+        assertThat(b.getRank()).isEqualTo(1);
+        assertThat(c.getRank()).isEqualTo(3);
+        verify(matchRepository).saveAll(anyList());
+        // B's upset win and then its draw fold into one write
+        verify(playerRepository).addResults(Map.of(
+                1L, ResultTally.of(MatchOutcome.PLAYER_TWO_WON, true, true),
+                2L, ResultTally.of(MatchOutcome.PLAYER_TWO_WON, false, true).then(ResultTally.of(MatchOutcome.DRAW, true, false)),
+                3L, ResultTally.of(MatchOutcome.DRAW, false, false)));
+        assertThat(b.getNumberOfGamesPlayed()).isEqualTo(2);
+        assertThat(b.getWins()).isEqualTo(1);
+        assertThat(b.getDraws()).isEqualTo(1);
+        assertThat(b.getStreak()).isZero();
+        verify(headToHeadRepository).addResults(argThat(pairs -> pairs.size() == 2
+                && pairs.get(HeadToHead.Key.of(1L, 2L)).highPlayerWins() == 1
+                && pairs.get(HeadToHead.Key.of(2L, 3L)).draws() == 1));
+        verify(rankingEventRepository).appendAll(argThat(events -> events.size() == 2
+                && events.get(0).getPlayerOneRankAfter() == 2 && events.get(1).getPlayerTwoId() == 3L));
+        verify(playerRepository, never()).existsById(any());
+        verify(rankingService, never()).recordResult(any(), any(), any());
     }
 
     @Test
-    void upset_equal_new_rank_case_handles_tie_by_incrementing_higher() {
-        // higher = 1, lower = 3 -> half-diff => lowerNew = 2, higherNew = 2 => tie -> higher++
-        PlayerDTO higher = PlayerDTO.builder().id(1L).rank(1).firstName("H").lastName("One").build();
-        PlayerDTO lower = PlayerDTO.builder().id(2L).rank(3).firstName("L").lastName("Two").build();
-        MatchDTO m = MatchDTO.builder().playerOne(higher).playerTwo(lower).outcome(MatchOutcome.PLAYER_TWO_WON).build();
+    void saveMatches_unknown_player_rejects_the_whole_sheet() {
+        MatchDTO known = MatchDTO.builder().playerOne(PlayerDTO.builder().id(1L).build())
+                .playerTwo(PlayerDTO.builder().id(2L).build()).outcome(MatchOutcome.DRAW).build();
+        MatchDTO unknown = MatchDTO.builder().playerOne(PlayerDTO.builder().id(1L).build())
+                .playerTwo(PlayerDTO.builder().id(99L).build()).outcome(MatchOutcome.DRAW).build();
 
-        when(playerRepository.existsById(1L)).thenReturn(true);
-        when(playerRepository.existsById(2L)).thenReturn(true);
+        when(playerRepository.findExistingIds(Set.of(1L, 2L, 99L))).thenReturn(Set.of(1L, 2L));
 
-        Match savedEntity = new Match(); savedEntity.setId(31L);
-        when(modelMapper.map(any(MatchDTO.class), eq(Match.class))).thenReturn(new Match());
-        when(matchRepository.save(any(Match.class))).thenReturn(savedEntity);
-        when(modelMapper.map(any(Match.class), eq(MatchDTO.class))).thenReturn(MatchDTO.builder().id(31L).build());
+        assertThrows(IllegalArgumentException.class, () -> matchService.saveMatches(List.of(known, unknown)));
+        verify(matchRepository, never()).saveAll(anyList());
+        verifyNoInteractions(rankingService);
+    }
 
-        Player pHigher = new Player(); pHigher.setId(1L); pHigher.setNumberOfGamesPlayed(0);
-        Player pLower = new Player(); pLower.setId(2L); pLower.setNumberOfGamesPlayed(0);
-        when(modelMapper.map(higher, Player.class)).thenReturn(pHigher);
-        when(modelMapper.map(lower, Player.class)).thenReturn(pLower);
+    @Test
+    void submitMatch_saves_on_the_ladder_writer() {
+        MatchDTO m = MatchDTO.builder().playerOne(PlayerDTO.builder().id(1L).build())
+                .playerTwo(PlayerDTO.builder().id(2L).build()).outcome(MatchOutcome.DRAW).build();
+        when(ladderWriter.submit(eq("saveMatch"), any())).thenReturn(new CompletableFuture<>());
 
-        MatchDTO res = matchService.saveMatch(m);
+        matchService.submitMatch(m);
 
-        assertThat(res).isNotNull();
-        // tie case -> higherPlayerNewRank becomes 3, we expect incrementRanksFrom(3,3) then decrementRankByOne(3)
-        verify(playerRepository).incrementRanksFrom(3, 3);
-        verify(playerRepository).decrementRankByOne(3);
-        verify(playerRepository, times(2)).save(any(Player.class));
+        // nothing is applied until the writer runs the submission
+        verify(ladderWriter).submit(eq("saveMatch"), any());
+        verifyNoInteractions(rankingService, matchRepository);
     }
 
     @Test
-    void saveMatch_nonExistentPlayer_throwsIllegalArgumentException() {
-        PlayerDTO p1 = PlayerDTO.builder().id(99L).rank(1).build();
-        PlayerDTO p2 = PlayerDTO.builder().id(2L).rank(2).build();
-        MatchDTO m = MatchDTO.builder().playerOne(p1).playerTwo(p2).outcome(MatchOutcome.PLAYER_ONE_WON).build();
+    void deleteMatch_takes_the_result_back_off_both_players_and_recounts_their_streaks() {
+        Match match = new Match();
+        match.setId(10L);
+        match.setPlayerOneId(1L);
+        match.setPlayerTwoId(2L);
+        match.setOutcome(MatchOutcome.PLAYER_ONE_WON);
+        when(matchRepository.findById(10L)).thenReturn(Optional.of(match));
+        // player one was ranked 5 and beat the player on 2
+        when(rankingEventRepository.findFirstByMatchIdAndType(10L, RankingEventType.MATCH)).thenReturn(Optional.of(
+                RankingEvent.match(10L, new LadderChange(List.of(
+                        new LadderChange.Move(1L, 5, 3), new LadderChange.Move(2L, 2, 4)), 2, 5), Instant.now())));
+        // the results left, most recent first
+        when(matchRepository.findMatchesForPlayer(eq(1L), eq(MatchCursor.NEWEST), anyInt())).thenReturn(List.of(
+                played(9L, 1L, 3L, MatchOutcome.PLAYER_ONE_WON),
+                played(8L, 3L, 1L, MatchOutcome.PLAYER_ONE_WON)));
+        when(matchRepository.findMatchesForPlayer(eq(2L), eq(MatchCursor.NEWEST), anyInt())).thenReturn(List.of(
+                played(7L, 2L, 3L, MatchOutcome.DRAW)));
+
+        matchService.deleteMatch(10L);
+
+        verify(matchRepository).deleteById(10L);
+        verify(playerRepository).addResults(Map.of(
+                1L, ResultTally.of(MatchOutcome.PLAYER_ONE_WON, true, true).undone(1),
+                2L, ResultTally.of(MatchOutcome.PLAYER_ONE_WON, false, true).undone(0)));
+        // the winner has the lower id, so the win comes off the low side of the pair
+        verify(headToHeadRepository).removeResult(1L, 2L, 1, 0, 0);
+        verify(eventPublisher).publishEvent(new LadderChangedEvent(Set.of(1L, 2L)));
+        verifyNoInteractions(rankingService);
+    }
 
-        when(playerRepository.existsById(99L)).thenReturn(false);
+    @Test
+    void getHeadToHead_reads_the_pair_row_in_the_order_asked_for() {
+        HeadToHead row = new HeadToHead();
+        row.setLowPlayerId(2L);
+        row.setHighPlayerId(7L);
+        row.setLowPlayerWins(4);
+        row.setHighPlayerWins(1);
+        row.setDraws(3);
+        when(headToHeadRepository.findById(HeadToHead.Key.of(7L, 2L))).thenReturn(Optional.of(row));
+        when(headToHeadRepository.findById(HeadToHead.Key.of(7L, 9L))).thenReturn(Optional.empty());
+
+        HeadToHeadDTO record = matchService.getHeadToHead(7L, 2L);
+
+        assertThat(record.playerOneWins()).isEqualTo(1);
+        assertThat(record.playerTwoWins()).isEqualTo(4);
+        assertThat(record.draws()).isEqualTo(3);
+        assertThat(matchService.getHeadToHead(7L, 9L)).isEqualTo(HeadToHeadDTO.none(7L, 9L));
+        verifyNoInteractions(matchRepository);
+    }
 
-        assertThrows(IllegalArgumentException.class, () -> matchService.saveMatch(m));
-        verify(matchRepository, never()).save(any(Match.class));
+    @Test
+    void findMatchesForPlayer_rejects_an_empty_page() {
+        assertThrows(IllegalArgumentException.class, () -> matchService.findMatchesForPlayer(1L, MatchCursor.NEWEST, 0));
+        verifyNoInteractions(matchRepository);
     }
 
     @Test
-    void saveMatch_nullPlayerId_throwsIllegalArgumentException() {
-        PlayerDTO p1 = PlayerDTO.builder().id(null).rank(1).build();
-        PlayerDTO p2 = PlayerDTO.builder().id(2L).rank(2).build();
-        MatchDTO m = MatchDTO.builder().playerOne(p1).playerTwo(p2).outcome(MatchOutcome.PLAYER_ONE_WON).build();
+    void importPgn_applies_the_known_games_in_file_order_and_reports_the_rest() {
+        when(playerRepository.findAllNames()).thenReturn(List.of(
+                new PlayerName(1L, "Magnus", "Carlsen", "magnus@e.com"),
+                new PlayerName(2L, "Ian", "Nepomniachtchi", "ian@e.com"),
+                new PlayerName(3L, "Anna", "Lee", "anna1@e.com"),
+                new PlayerName(4L, "Anna", "Lee", "anna2@e.com")));
+        when(ladderWriter.submit(eq("saveMatches"), any())).thenAnswer(invocation ->
+                CompletableFuture.completedFuture(invocation.<Supplier<?>>getArgument(1).get()));
+        when(playerRepository.findExistingIds(Set.of(1L, 2L))).thenReturn(Set.of(1L, 2L));
+        when(matchRepository.saveAll(anyList())).thenAnswer(invocation -> invocation.getArgument(0));
+        when(rankingService.recordResults(anyList())).thenAnswer(invocation -> invocation.<List<MatchResult>>getArgument(0)
+                .stream()
+                .map(result -> LadderChange.none(List.of(new LadderChange.Move(result.playerOneId(), 1, 1),
+                        new LadderChange.Move(result.playerTwoId(), 2, 2))))
+                .toList());
+        String pgn = game("2020.01.01", "Carlsen, Magnus", "Nepomniachtchi, Ian", "1-0")
+                + game("2020.01.02", "ian@e.com", "Magnus Carlsen", "1/2-1/2")
+                + game("2020.01.03", "Lee, Anna", "Carlsen, Magnus", "0-1")
+                + game("2020.01.03", "Kasparov, Garry", "Carlsen, Magnus", "0-1")
+                + game("2020.01.04", "Carlsen, Magnus", "Nepomniachtchi, Ian", "*")
+                + game("2019.12.31", "Carlsen, Magnus", "Nepomniachtchi, Ian", "0-1");
+
+        MatchImportResult result = matchService.importPgn(new StringReader(pgn));
+
+        assertThat(result.imported()).isEqualTo(2);
+        assertThat(result.rejectedCount()).isEqualTo(4);
+        assertThat(result.rejected()).extracting(MatchImportResult.RejectedGame::reason).containsExactly(
+                "more than one player is called 'Lee, Anna'",
+                "unknown player 'Kasparov, Garry'",
+                "no result (Result \"*\")",
+                "dated 2019-12-31, before 2020-01-02; the file has to be in date order");
+        verify(rankingService).recordResults(List.of(
+                new MatchResult(1L, 2L, MatchOutcome.PLAYER_ONE_WON),
+                new MatchResult(2L, 1L, MatchOutcome.DRAW)));
+        // stored as played on the PGN date, not when they were imported
+        verify(matchRepository).saveAll(argThat((List<Match> matches) -> matches.stream().map(Match::getCreatedAt)
+                .toList().equals(List.of(LocalDate.of(2020, 1, 1).atStartOfDay(ZoneId.systemDefault()).toInstant(),
+                        LocalDate.of(2020, 1, 2).atStartOfDay(ZoneId.systemDefault()).toInstant()))));
+    }
 
-        assertThrows(IllegalArgumentException.class, () -> matchService.saveMatch(m));
-        verify(matchRepository, never()).save(any(Match.class));
+    private static String game(String date, String white, String black, String result) {
+        return "[Date \"" + date + "\"]\n[White \"" + white + "\"]\n[Black \"" + black + "\"]\n"
+                + "[Result \"" + result + "\"]\n\n1. e4 e5 " + result + "\n\n";
+    }
+
+    private static Match played(Long id, Long playerOneId, Long playerTwoId, MatchOutcome outcome) {
+        Match match = new Match();
+        match.setId(id);
+        match.setPlayerOneId(playerOneId);
+        match.setPlayerTwoId(playerTwoId);
+        match.setOutcome(outcome);
+        match.setCreatedAt(Instant.now());
+        return match;
     }
 }
@@ -0,0 +1,68 @@
+package com.netstock.chessadmin.service;
+
+import com.netstock.chessadmin.dto.PlayerName;
+import com.netstock.chessadmin.repository.PlayerRepository;
+import com.netstock.chessadmin.service.impl.PlayerSearchServiceImpl;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class PlayerSearchServiceUnitTest {
+
+    @Mock
+    PlayerRepository playerRepository;
+
+    @InjectMocks
+    PlayerSearchServiceImpl playerSearchService;
+
+    @BeforeEach
+    void setUp() {
+        when(playerRepository.findAllNames()).thenReturn(List.of(
+                new PlayerName(1L, "Ann", "Lee", "ann.lee@club.org"),
+                new PlayerName(2L, "Annabel", "Mary Smith", "bel@club.org"),
+                new PlayerName(3L, "Bob", "Anders", null),
+                new PlayerName(4L, "Cy", "Lee", "cy@club.org")));
+    }
+
+    private List<Long> ids(String text, int limit) {
+        return playerSearchService.search(text, limit).stream().map(PlayerName::id).toList();
+    }
+
+    @Test
+    void every_word_must_start_a_name_or_email_word_ignoring_case() {
+        assertThat(ids("ann", 10)).containsExactlyInAnyOrder(1L, 2L);
+        assertThat(ids("ANN lee", 10)).containsExactly(1L);
+        assertThat(ids("smith", 10)).containsExactly(2L);
+        assertThat(ids("cy@", 10)).containsExactly(4L);
+        assertThat(ids("zed", 10)).isEmpty();
+        assertThat(ids("", 2)).hasSize(2);
+        verify(playerRepository, times(1)).findAllNames();
+    }
+
+    @Test
+    void a_player_matching_on_two_words_is_returned_once_and_the_limit_holds() {
+        assertThat(ids("a", 10)).doesNotHaveDuplicates().containsExactlyInAnyOrder(1L, 2L, 3L);
+        assertThat(ids("a", 2)).hasSize(2);
+    }
+
+    @Test
+    void edits_and_deletes_are_reflected_outside_a_transaction() {
+        ids("", 1);
+
+        playerSearchService.putAll(List.of(new PlayerName(4L, "Cyrus", "Vance", "cy@club.org")));
+        playerSearchService.putAll(List.of(new PlayerName(5L, "Dee", "Lee", null)));
+        playerSearchService.remove(1L);
+
+        assertThat(ids("lee", 10)).containsExactly(5L);
+        assertThat(ids("cyrus", 10)).containsExactly(4L);
+    }
+}
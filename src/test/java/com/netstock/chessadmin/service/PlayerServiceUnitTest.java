@@ -1,22 +1,46 @@
 package com.netstock.chessadmin.service;
 
 import com.netstock.chessadmin.dto.PlayerDTO;
+import com.netstock.chessadmin.dto.PlayerImportResult;
 import com.netstock.chessadmin.entity.Player;
+import com.netstock.chessadmin.enums.RankingEventType;
+import com.netstock.chessadmin.mapper.PlayerCsv;
+import com.netstock.chessadmin.mapper.PlayerMapper;
+import com.netstock.chessadmin.ranking.LadderChangedEvent;
+import com.netstock.chessadmin.ranking.LadderMetrics;
+import com.netstock.chessadmin.ranking.LadderWriter;
+import com.netstock.chessadmin.repository.HeadToHeadRepository;
 import com.netstock.chessadmin.repository.MatchRepository;
 import com.netstock.chessadmin.repository.PlayerRepository;
+import com.netstock.chessadmin.repository.RankingEventRepository;
 import com.netstock.chessadmin.service.impl.PlayerServiceImpl;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
 import org.mockito.ArgumentCaptor;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
-import org.modelmapper.ModelMapper;
-
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.context.ApplicationEventPublisher;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.mockito.Mockito.*;
 
 @ExtendWith(MockitoExtension.class)
@@ -29,7 +53,28 @@ class PlayerServiceUnitTest {
     MatchRepository matchRepository;
 
     @Mock
-    ModelMapper modelMapper;
+    RankingEventRepository rankingEventRepository;
+
+    @Mock
+    HeadToHeadRepository headToHeadRepository;
+
+    @Spy
+    PlayerMapper playerMapper = new PlayerMapper();
+
+    @Mock
+    RankingService rankingService;
+
+    @Mock
+    LadderWriter ladderWriter;
+
+    @Mock
+    ApplicationEventPublisher eventPublisher;
+
+    @Spy
+    LadderMetrics ladderMetrics = new LadderMetrics(new SimpleMeterRegistry());
+
+    @Mock
+    PlayerSearchService playerSearchService;
 
     @InjectMocks
     PlayerServiceImpl playerService;
@@ -41,10 +86,7 @@ class PlayerServiceUnitTest {
         p.setFirstName("Jane");
         p.setLastName("Smith");
 
-        PlayerDTO dto = PlayerDTO.builder().id(5L).firstName("Jane").lastName("Smith").build();
-
         when(playerRepository.findAll()).thenReturn(List.of(p));
-        when(modelMapper.map(p, PlayerDTO.class)).thenReturn(dto);
 
         var result = playerService.getAllPlayers();
 
@@ -53,37 +95,71 @@ class PlayerServiceUnitTest {
         assertThat(result.get(0).getFirstName()).isEqualTo("Jane");
 
         verify(playerRepository).findAll();
-        verify(modelMapper).map(p, PlayerDTO.class);
+        verify(playerMapper).toDto(p);
     }
 
     @Test
-    void save_new_player_assigns_highestRankPlusOne_and_saves() {
-        PlayerDTO newDto = PlayerDTO.builder().firstName("New").lastName("Player").build();
-        Player mapped = new Player();
+    void getPlayers_sorts_rank_by_rank_key_and_breaks_ties_on_id() {
+        when(playerRepository.findAll(any(Pageable.class))).thenReturn(Page.empty());
 
-        when(modelMapper.map(newDto, Player.class)).thenReturn(mapped);
-        when(playerRepository.findHighestRank()).thenReturn(10);
+        playerService.getPlayers(PageRequest.of(2, 50, Sort.by(Sort.Order.desc("rank"))));
+
+        verify(playerRepository).findAll(PageRequest.of(2, 50, Sort.by(Sort.Order.desc("rankKey"), Sort.Order.asc("id"))));
+    }
+
+    @Test
+    void save_new_player_assigns_key_one_gap_below_the_lowest_and_saves() {
+        PlayerDTO newDto = PlayerDTO.builder().firstName("New").lastName("Player").build();
+        when(playerRepository.findHighestRankKey()).thenReturn(10 * RankingService.RANK_KEY_GAP);
+        when(playerRepository.save(any(Player.class))).thenAnswer(invocation -> {
+            Player player = invocation.getArgument(0);
+            player.setId(1L);
+            return player;
+        });
 
         playerService.save(newDto);
 
         ArgumentCaptor<Player> captor = ArgumentCaptor.forClass(Player.class);
         verify(playerRepository).save(captor.capture());
         Player saved = captor.getValue();
-        assertThat(saved.getRank()).isEqualTo(11);
+        assertThat(saved.getRankKey()).isEqualTo(11 * RankingService.RANK_KEY_GAP);
+        verify(rankingService).addPlayer(1L, saved.getRankKey());
+        verify(eventPublisher).publishEvent(new LadderChangedEvent(Set.of(1L), 0, 0));
     }
 
     @Test
-    void update_existing_player_keeps_rank_from_existing_record() {
-        PlayerDTO updateDto = PlayerDTO.builder().id(2L).firstName("Up").lastName("Date").build();
-        Player mapped = new Player();
-        mapped.setId(2L);
-        mapped.setFirstName("Up");
+    void delete_removes_player_from_ladder_before_deleting_row() {
+        playerService.delete(4L);
+
+        var inOrder = inOrder(matchRepository, rankingService, playerRepository, eventPublisher);
+        inOrder.verify(matchRepository).clearPlayerReferences(4L);
+        verify(headToHeadRepository).deleteByPlayer(4L);
+        inOrder.verify(rankingService).removePlayer(4L);
+        inOrder.verify(playerRepository).deleteById(4L);
+        inOrder.verify(eventPublisher).publishEvent(new LadderChangedEvent(Set.of(4L)));
+    }
+
+    @Test
+    void delete_logs_the_rank_the_player_left_from() {
+        when(rankingService.removePlayer(4L)).thenReturn(6);
+
+        playerService.delete(4L);
+
+        verify(rankingEventRepository).save(argThat(event -> event.getType() == RankingEventType.PLAYER_REMOVED
+                && event.getPlayerOneId() == 4L && event.getPlayerOneRankBefore() == 6));
+    }
 
+    @Test
+    void update_existing_player_keeps_rank_key_from_existing_record() {
+        PlayerDTO updateDto = PlayerDTO.builder().id(2L).firstName("Up").lastName("Date").build();
         Player existing = new Player();
         existing.setId(2L);
-        existing.setRank(7);
+        existing.setRankKey(7 * RankingService.RANK_KEY_GAP);
+        existing.setNumberOfGamesPlayed(12);
+        existing.setWins(7);
+        existing.setStreak(-2);
+        existing.setVersion(3L);
 
-        when(modelMapper.map(updateDto, Player.class)).thenReturn(mapped);
         when(playerRepository.findById(2L)).thenReturn(Optional.of(existing));
 
         playerService.save(updateDto);
@@ -91,8 +167,62 @@ class PlayerServiceUnitTest {
         ArgumentCaptor<Player> captor = ArgumentCaptor.forClass(Player.class);
         verify(playerRepository).save(captor.capture());
         Player saved = captor.getValue();
-        // rank should be preserved from existing
-        assertThat(saved.getRank()).isEqualTo(7);
+        // ladder position should be preserved from existing
+        assertThat(saved.getRankKey()).isEqualTo(7 * RankingService.RANK_KEY_GAP);
+        // the form does not edit games played or results, and a DTO without a version takes the current one
+        assertThat(saved.getNumberOfGamesPlayed()).isEqualTo(12);
+        assertThat(saved.getWins()).isEqualTo(7);
+        assertThat(saved.getStreak()).isEqualTo(-2);
+        assertThat(saved.getVersion()).isEqualTo(3L);
     }
-}
 
+    @Test
+    void update_from_a_stale_form_is_rejected_without_saving() {
+        PlayerDTO staleDto = PlayerDTO.builder().id(2L).firstName("Up").lastName("Date").version(2L).build();
+        Player existing = new Player();
+        existing.setId(2L);
+        existing.setVersion(3L);
+
+        when(playerRepository.findById(2L)).thenReturn(Optional.of(existing));
+
+        // not an optimistic locking conflict, so the ladder writer reports it instead of retrying it
+        assertThrows(IllegalStateException.class, () -> playerService.save(staleDto));
+        verify(playerRepository, never()).save(any());
+    }
+
+    @Test
+    void submitDelete_runs_the_delete_on_the_ladder_writer() {
+        when(ladderWriter.submit(eq("deletePlayer"), any())).thenAnswer(invocation ->
+                CompletableFuture.completedFuture(invocation.<Supplier<?>>getArgument(1).get()));
+
+        playerService.submitDelete(4L).join();
+
+        verify(ladderWriter).submit(eq("deletePlayer"), any());
+        verify(rankingService).removePlayer(4L);
+        verify(playerRepository).deleteById(4L);
+    }
+
+    @Test
+    void submitImport_reads_the_whole_file_again_when_the_writer_retries_it(@TempDir Path dir) throws IOException {
+        Path csv = Files.writeString(dir.resolve("players.csv"), PlayerCsv.HEADER + "\n"
+                + "Ann,Lee,ann@e.com,1991-02-03\n"
+                + "Bob,,bob@e.com,1990-01-01\n"
+                + "Cy,Ray,cy@e.com,1989-12-31\n");
+        AtomicLong ids = new AtomicLong();
+        doAnswer(invocation -> {
+            invocation.<List<Player>>getArgument(0).forEach(player -> player.setId(ids.incrementAndGet()));
+            return null;
+        }).when(playerRepository).insertAll(any());
+        // the first attempt loses an optimistic locking race and is rolled back, the second one commits
+        when(ladderWriter.submit(eq("importPlayers"), any())).thenAnswer(invocation -> {
+            Supplier<?> work = invocation.getArgument(1);
+            work.get();
+            return CompletableFuture.completedFuture(work.get());
+        });
+
+        PlayerImportResult result = playerService.submitImport(csv).join();
+
+        assertThat(result.imported()).isEqualTo(2);
+        assertThat(result.rejected()).extracting(PlayerImportResult.RejectedRow::line).containsExactly(3L);
+    }
+}
@@ -0,0 +1,210 @@
+package com.netstock.chessadmin.service;
+
+import com.netstock.chessadmin.enums.MatchOutcome;
+import com.netstock.chessadmin.ranking.LadderChange;
+import com.netstock.chessadmin.ranking.LadderMetrics;
+import com.netstock.chessadmin.ranking.MatchResult;
+import com.netstock.chessadmin.ranking.RankKey;
+import com.netstock.chessadmin.repository.PlayerRepository;
+import com.netstock.chessadmin.service.impl.RankingServiceImpl;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Spy;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.List;
+import java.util.Set;
+import java.util.stream.LongStream;
+
+import static com.netstock.chessadmin.service.RankingService.RANK_KEY_GAP;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class RankingServiceUnitTest {
+
+    @Mock
+    PlayerRepository playerRepository;
+
+    @Spy
+    LadderMetrics ladderMetrics = new LadderMetrics(new SimpleMeterRegistry());
+
+    @InjectMocks
+    RankingServiceImpl rankingService;
+
+    /**
+     * Twenty players where player id == starting rank and the keys are {@code id * spacing}, at ladder version 7.
+     */
+    private void givenLadder(long spacing) {
+        when(playerRepository.findLadderVersion()).thenReturn(7L);
+        when(playerRepository.findAllRankKeys()).thenReturn(LongStream.rangeClosed(1, 20)
+                .mapToObj(id -> new RankKey(id, id * spacing)).toList());
+    }
+
+    @Test
+    void higherRankedWin_changes_nothing() {
+        givenLadder(RANK_KEY_GAP);
+        LadderChange change = rankingService.recordResult(3L, 8L, MatchOutcome.PLAYER_ONE_WON);
+
+        assertThat(change.isEmpty()).isTrue();
+        assertThat(rankingService.rankOf(3L)).isEqualTo(3);
+        assertThat(rankingService.rankOf(8L)).isEqualTo(8);
+        verify(playerRepository, never()).updateRankKey(anyLong(), anyLong());
+        verify(ladderMetrics).recordKeysWritten(0);
+    }
+
+    @Test
+    void findRank_answers_0_for_an_unknown_player_without_reloading() {
+        givenLadder(RANK_KEY_GAP);
+
+        assertThat(rankingService.findRank(7L)).isEqualTo(7);
+        assertThat(rankingService.findRank(99L)).isZero();
+        verify(playerRepository, times(1)).findAllRankKeys();
+    }
+
+    @Test
+    void invalidateOnCompletion_keeps_the_index_until_the_transaction_commits() {
+        givenLadder(RANK_KEY_GAP);
+        assertThat(rankingService.findRank(7L)).isEqualTo(7);
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            rankingService.invalidateOnCompletion();
+
+            // a reader before the commit keeps the index rather than loading the keys being replaced
+            assertThat(rankingService.findRank(7L)).isEqualTo(7);
+            verify(playerRepository, times(1)).findAllRankKeys();
+
+            TransactionSynchronizationManager.getSynchronizations().forEach(TransactionSynchronization::afterCommit);
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+        assertThat(rankingService.findRank(7L)).isEqualTo(7);
+        verify(playerRepository, times(2)).findAllRankKeys();
+    }
+
+    @Test
+    void draw_adjacent_no_rank_change() {
+        givenLadder(RANK_KEY_GAP);
+        rankingService.recordResult(10L, 11L, MatchOutcome.DRAW);
+
+        assertThat(rankingService.rankOf(10L)).isEqualTo(10);
+        assertThat(rankingService.rankOf(11L)).isEqualTo(11);
+        verify(playerRepository, never()).updateRankKey(anyLong(), anyLong());
+    }
+
+    @Test
+    void draw_non_adjacent_lower_moves_up_one() {
+        givenLadder(RANK_KEY_GAP);
+        LadderChange change = rankingService.recordResult(10L, 15L, MatchOutcome.DRAW);
+
+        assertThat(change.rankAfter(15L)).isEqualTo(14);
+        assertThat(rankingService.playerAt(15)).isEqualTo(14L);
+        // only the drawing player is written, halfway between 13 and 14
+        verify(playerRepository).advanceLadder(7L);
+        verify(playerRepository).updateRankKey(15L, 13 * RANK_KEY_GAP + RANK_KEY_GAP / 2);
+        verifyNoMoreInteractions(ignoreStubs(playerRepository));
+    }
+
+    @Test
+    void ladder_changed_by_another_instance_is_a_conflict_and_nothing_is_written() {
+        givenLadder(RANK_KEY_GAP);
+        doThrow(new ObjectOptimisticLockingFailureException("ladder_state", 1L))
+                .when(playerRepository).advanceLadder(7L);
+
+        assertThrows(ObjectOptimisticLockingFailureException.class,
+                () -> rankingService.recordResult(10L, 15L, MatchOutcome.DRAW));
+
+        verify(playerRepository, never()).updateRankKey(anyLong(), anyLong());
+        // the index is dropped, so the next attempt starts from the ladder as the other instance left it
+        assertThat(rankingService.rankOf(15L)).isEqualTo(15);
+        verify(playerRepository, times(2)).findAllRankKeys();
+    }
+
+    @Test
+    void upset_non_equal_case_adjusts_ranks_correctly() {
+        givenLadder(RANK_KEY_GAP);
+        // higher = 10, lower = 16, lower (playerTwo) wins
+        LadderChange change = rankingService.recordResult(10L, 16L, MatchOutcome.PLAYER_TWO_WON);
+
+        assertThat(change.rankAfter(10L)).isEqualTo(11);
+        assertThat(change.rankAfter(16L)).isEqualTo(13);
+        assertThat(rankingService.playersBetween(10, 17)).containsExactly(11L, 10L, 12L, 16L, 13L, 14L, 15L, 17L);
+        // the six players in between are not touched
+        verify(playerRepository).advanceLadder(7L);
+        verify(playerRepository).updateRankKey(10L, 11 * RANK_KEY_GAP + RANK_KEY_GAP / 2);
+        verify(playerRepository).updateRankKey(16L, 12 * RANK_KEY_GAP + RANK_KEY_GAP / 2);
+        verifyNoMoreInteractions(ignoreStubs(playerRepository));
+    }
+
+    @Test
+    void upset_equal_new_rank_case_puts_loser_directly_below_winner() {
+        givenLadder(RANK_KEY_GAP);
+        // higher = 1, lower = 3 -> both would land on 2, so the winner takes 2 and the loser 3
+        LadderChange change = rankingService.recordResult(3L, 1L, MatchOutcome.PLAYER_ONE_WON);
+
+        assertThat(change.rankAfter(3L)).isEqualTo(2);
+        assertThat(change.rankAfter(1L)).isEqualTo(3);
+        assertThat(rankingService.playersBetween(1, 4)).containsExactly(2L, 3L, 1L, 4L);
+        verify(playerRepository).updateRankKey(3L, 3 * RANK_KEY_GAP);
+        verify(playerRepository).updateRankKey(1L, 3 * RANK_KEY_GAP + RANK_KEY_GAP / 2);
+    }
+
+    @Test
+    void move_between_touching_keys_respreads_the_window_below() {
+        // keys 1..20, no room between any two neighbours
+        givenLadder(1);
+
+        rankingService.recordResult(10L, 15L, MatchOutcome.DRAW);
+
+        // the window doubles until it reaches the bottom, where the keys are unbounded: ranks 6..20 are rewritten
+        assertThat(rankingService.playersBetween(13, 15)).containsExactly(13L, 15L, 14L);
+        verify(playerRepository).updateRankKey(6L, 5 + RANK_KEY_GAP);
+        verify(playerRepository).updateRankKey(15L, 5 + 9 * RANK_KEY_GAP);
+        verify(playerRepository).updateRankKey(20L, 5 + 15 * RANK_KEY_GAP);
+        verify(playerRepository, times(15)).updateRankKey(anyLong(), anyLong());
+        verify(playerRepository, never()).updateRankKey(eq(5L), anyLong());
+    }
+
+    @Test
+    void recordResults_matches_recording_one_by_one_and_writes_one_batch() {
+        givenLadder(RANK_KEY_GAP);
+
+        List<LadderChange> changes = rankingService.recordResults(List.of(
+                new MatchResult(16L, 10L, MatchOutcome.PLAYER_ONE_WON),
+                new MatchResult(16L, 1L, MatchOutcome.PLAYER_ONE_WON),
+                new MatchResult(10L, 20L, MatchOutcome.DRAW)));
+
+        // 16 -> 13 -> 7; 10 -> 11, then pushed to 12 by 1 landing on 2; 20 draws from 20 to 19
+        assertThat(changes.get(0).rankAfter(16L)).isEqualTo(13);
+        assertThat(changes.get(1).rankAfter(16L)).isEqualTo(7);
+        assertThat(changes.get(1).rankAfter(1L)).isEqualTo(2);
+        assertThat(changes.get(2).rankAfter(20L)).isEqualTo(19);
+        assertThat(rankingService.rankOf(10L)).isEqualTo(12);
+        verify(playerRepository).updateRankKeys(argThat(written -> written.keySet().equals(Set.of(1L, 10L, 16L, 20L))));
+        verify(playerRepository, never()).updateRankKey(anyLong(), anyLong());
+    }
+
+    @Test
+    void removePlayer_closes_the_gap_below_without_writing() {
+        givenLadder(RANK_KEY_GAP);
+        rankingService.removePlayer(5L);
+
+        assertThat(rankingService.ladderSize()).isEqualTo(19);
+        assertThat(rankingService.rankOf(6L)).isEqualTo(5);
+        verify(playerRepository, never()).updateRankKey(anyLong(), anyLong());
+    }
+
+    @Test
+    void addPlayer_appends_to_the_bottom() {
+        givenLadder(RANK_KEY_GAP);
+        assertThat(rankingService.addPlayer(21L, 21 * RANK_KEY_GAP)).isEqualTo(21);
+        assertThat(rankingService.playerAt(21)).isEqualTo(21L);
+    }
+}
@@ -0,0 +1,48 @@
+package com.netstock.chessadmin.simulation;
+
+import org.junit.jupiter.api.Test;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.stream.LongStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class LoadSimulationReportTest {
+
+    @Test
+    void percentile_uses_the_nearest_rank() {
+        long[] sorted = LongStream.rangeClosed(1, 1000).toArray();
+
+        assertThat(LoadSimulationReport.percentile(sorted, 0.50)).isEqualTo(500);
+        assertThat(LoadSimulationReport.percentile(sorted, 0.99)).isEqualTo(990);
+        assertThat(LoadSimulationReport.percentile(sorted, 0.999)).isEqualTo(999);
+        assertThat(LoadSimulationReport.percentile(sorted, 1.0)).isEqualTo(1000);
+        assertThat(LoadSimulationReport.percentile(new long[0], 0.5)).isZero();
+    }
+
+    @Test
+    void of_derives_throughput_latency_and_statements_per_match() {
+        LoadSimulation.Settings settings = new LoadSimulation.Settings(10, 4, 2, 0.2, 0.3, 1L, Path.of("report.json"));
+        // latencies are sorted by the report, not by the caller
+        long[] latencyNanos = {4_000_000, 1_000_000, 3_000_000, 2_000_000};
+
+        LoadSimulationReport report = LoadSimulationReport.of(settings, 1, Duration.ofMillis(5), Duration.ofSeconds(2),
+                latencyNanos, 20, 0);
+
+        assertThat(report.matchesPerSecond()).isEqualTo(2.0);
+        assertThat(report.p50Millis()).isEqualTo(2.0);
+        assertThat(report.p99Millis()).isEqualTo(4.0);
+        assertThat(report.maxMillis()).isEqualTo(4.0);
+        assertThat(report.sqlStatementsPerMatch()).isEqualTo(5.0);
+        assertThat(report.failedMatches()).isEqualTo(1);
+        assertThat(latencyNanos[0]).isEqualTo(4_000_000);
+    }
+
+    @Test
+    void settings_reject_a_mix_above_one() {
+        assertThrows(IllegalArgumentException.class,
+                () -> new LoadSimulation.Settings(10, 4, 2, 0.8, 0.3, 1L, Path.of("report.json")));
+    }
+}